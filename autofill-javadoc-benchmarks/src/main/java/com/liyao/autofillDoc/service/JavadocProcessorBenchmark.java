@@ -0,0 +1,218 @@
+package com.liyao.autofillDoc.service;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JavadocProcessor基准测试
+ * 分别测量端到端处理以及解析、类型注释、方法注释、方法描述生成和格式化输出各个阶段
+ * 使用 -prof gc 运行可以同时得到每个阶段的内存分配速率
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JavadocProcessorBenchmark {
+
+    @Param({"SMALL_POJO", "LARGE_SERVICE", "GENERIC_API", "ENUMS"})
+    private SyntheticCorpus corpus;
+
+    private Path workDir;
+    private Path sourcePath;
+    private String content;
+    private JavadocAutofillConfig config;
+    private JavadocProcessor processor;
+    private JavaParserProvider parserProvider;
+    private MethodDescriptionService methodDescriptionService;
+    private SourceFile sourceFile;
+    private CompilationUnit parsed;
+    private List<MethodDeclaration> methods;
+
+    /**
+     * 准备测试数据，所有基准方法共用同一份配置和源代码
+     *
+     * @throws IOException 创建临时文件失败
+     */
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        workDir = Files.createTempDirectory("autofill-javadoc-bench");
+        sourcePath = workDir.resolve("Bench.java");
+        content = corpus.source();
+        Files.write(sourcePath, content.getBytes(StandardCharsets.UTF_8));
+
+        config = new JavadocAutofillConfig.Builder()
+                .sourceDir(workDir.toFile())
+                .includePrivateMethods(true)
+                .build();
+        processor = new JavadocProcessor(new SystemStreamLog(), config);
+        parserProvider = new JavaParserProvider(config);
+        methodDescriptionService = new MethodDescriptionService();
+        sourceFile = SourceFile.of(sourcePath, content.getBytes(StandardCharsets.UTF_8), StandardCharsets.UTF_8);
+        parsed = parserProvider.parse(content);
+        methods = parsed.findAll(MethodDeclaration.class);
+    }
+
+    /**
+     * 删除临时文件
+     *
+     * @throws IOException 删除文件失败
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(sourcePath);
+        Files.deleteIfExists(workDir);
+    }
+
+    /**
+     * 每次调用前还原源文件，保证端到端处理每次都需要修改文件
+     */
+    @State(Scope.Thread)
+    public static class FileState {
+        private File file;
+
+        /**
+         * 还原源文件
+         *
+         * @param benchmark 基准测试状态
+         * @throws IOException 写入文件失败
+         */
+        @Setup(Level.Invocation)
+        public void restore(JavadocProcessorBenchmark benchmark) throws IOException {
+            Files.write(benchmark.sourcePath, benchmark.content.getBytes(StandardCharsets.UTF_8));
+            file = benchmark.sourcePath.toFile();
+        }
+    }
+
+    /**
+     * 每次调用前重新解析，保证转换阶段每次面对的都是未处理过的语法树
+     */
+    @State(Scope.Thread)
+    public static class FreshUnit {
+        private SourceIndex index;
+        private JavadocChangeSet changes;
+
+        /**
+         * 重新解析源代码并建立索引
+         *
+         * @param benchmark 基准测试状态
+         */
+        @Setup(Level.Invocation)
+        public void parse(JavadocProcessorBenchmark benchmark) {
+            index = SourceIndex.build(benchmark.parserProvider.parse(benchmark.content));
+            changes = new JavadocChangeSet(benchmark.sourcePath.toString());
+        }
+    }
+
+    /**
+     * 端到端处理：读取、解析、补全Javadoc、格式化输出并写入文件
+     *
+     * @param state 还原后的源文件
+     * @return 文件是否被修改
+     */
+    @Benchmark
+    public boolean processJavaFile(FileState state) {
+        return processor.processJavaFile(state.file);
+    }
+
+    /**
+     * 内存中的端到端处理，不包含文件读写
+     *
+     * @return 修改后的文件内容
+     */
+    @Benchmark
+    public String processInMemory() {
+        return processor.process(sourceFile);
+    }
+
+    /**
+     * 解析阶段
+     *
+     * @return 编译单元
+     */
+    @Benchmark
+    public CompilationUnit parse() {
+        return parserProvider.parse(content);
+    }
+
+    /**
+     * 遍历语法树建立源文件结构索引
+     *
+     * @return 源文件结构索引
+     */
+    @Benchmark
+    public SourceIndex index() {
+        return SourceIndex.build(parsed);
+    }
+
+    /**
+     * 类型注释阶段
+     *
+     * @param unit 未处理过的语法树
+     * @return 变更集合
+     */
+    @Benchmark
+    public JavadocChangeSet processTypeJavadoc(FreshUnit unit) {
+        processor.processTypeJavadoc(unit.index, unit.changes);
+        return unit.changes;
+    }
+
+    /**
+     * 方法注释阶段
+     *
+     * @param unit 未处理过的语法树
+     * @return 变更集合
+     */
+    @Benchmark
+    public JavadocChangeSet processMethodDeclarations(FreshUnit unit) {
+        processor.processMethodDeclarations(unit.index, unit.changes);
+        return unit.changes;
+    }
+
+    /**
+     * 方法描述生成，对文件中的每个方法各执行一次
+     *
+     * @param blackhole 防止结果被优化掉
+     */
+    @Benchmark
+    public void generateMethodDescription(Blackhole blackhole) {
+        for (MethodDeclaration method : methods) {
+            blackhole.consume(methodDescriptionService.generateMethodDescription(method));
+        }
+    }
+
+    /**
+     * 格式化输出阶段
+     *
+     * @return 输出的源代码
+     */
+    @Benchmark
+    public String print() {
+        return parsed.toString();
+    }
+}
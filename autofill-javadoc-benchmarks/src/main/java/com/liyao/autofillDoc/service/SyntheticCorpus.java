@@ -0,0 +1,176 @@
+package com.liyao.autofillDoc.service;
+
+/**
+ * 基准测试使用的合成源代码
+ * 每种语料覆盖插件在真实项目中常见的一类文件，内容由代码生成，保证每次运行完全一致
+ */
+public enum SyntheticCorpus {
+
+    /**
+     * 只有字段和getter/setter的小型POJO
+     */
+    SMALL_POJO {
+        @Override
+        String generate() {
+            StringBuilder sb = header("SmallPojo", "class");
+            String[] types = {"String", "int", "long", "boolean", "Date", "BigDecimal", "List<String>", "Integer"};
+            for (int i = 0; i < 12; i++) {
+                sb.append("    private ").append(types[i % types.length]).append(" field").append(i).append(";\n\n");
+            }
+            for (int i = 0; i < 12; i++) {
+                String type = types[i % types.length];
+                String name = "Field" + i;
+                sb.append("    public ").append(type).append(" get").append(name).append("() {\n")
+                        .append("        return field").append(i).append(";\n")
+                        .append("    }\n\n")
+                        .append("    public void set").append(name).append("(").append(type).append(" field").append(i).append(") {\n")
+                        .append("        this.field").append(i).append(" = field").append(i).append(";\n")
+                        .append("    }\n\n");
+            }
+            return sb.append("}\n").toString();
+        }
+    },
+
+    /**
+     * 约5000行的业务服务类，方法体包含查询、校验、循环和异常处理
+     */
+    LARGE_SERVICE {
+        @Override
+        String generate() {
+            StringBuilder sb = header("LargeOrderService", "class");
+            sb.append("    private final OrderRepository repository;\n\n")
+                    .append("    private final Logger log = LoggerFactory.getLogger(LargeOrderService.class);\n\n");
+            String[] verbs = {"find", "save", "update", "delete", "validate", "convert", "process", "sync"};
+            String[] nouns = {"Order", "User", "Invoice", "Payment", "Address", "Product", "Coupon", "Shipment"};
+            int method = 0;
+            while (sb.length() < 190_000) {
+                String verb = verbs[method % verbs.length];
+                String noun = nouns[(method / verbs.length) % nouns.length];
+                boolean withDoc = method % 3 == 0;
+                if (withDoc) {
+                    sb.append("    /**\n")
+                            .append("     * ").append(verb).append(' ').append(noun).append(".\n")
+                            .append("     * @param id the id\n")
+                            .append("     * @custom legacy tag\n")
+                            .append("     */\n");
+                }
+                sb.append("    public ").append(method % 4 == 0 ? "void" : "List<" + noun + "Dto>")
+                        .append(' ').append(verb).append(noun).append(method)
+                        .append("(Long id, String userName, Map<String, List<Integer>> options)")
+                        .append(method % 2 == 0 ? " throws IOException, IllegalStateException" : "")
+                        .append(" {\n")
+                        .append("        if (id == null || userName.isEmpty()) {\n")
+                        .append("            throw new IllegalArgumentException(\"invalid\");\n")
+                        .append("        }\n")
+                        .append("        List<").append(noun).append("Dto> result = new ArrayList<>();\n")
+                        .append("        for (Map.Entry<String, List<Integer>> entry : options.entrySet()) {\n")
+                        .append("            ").append(noun).append(" item = repository.findById(id);\n")
+                        .append("            if (item != null && entry.getValue().size() > 0) {\n")
+                        .append("                result.add(mapper.toDto(item));\n")
+                        .append("            }\n")
+                        .append("        }\n")
+                        .append("        try {\n")
+                        .append("            repository.save").append(noun).append("(result);\n")
+                        .append("        } catch (RuntimeException e) {\n")
+                        .append("            log.error(\"failed\", e);\n")
+                        .append("        }\n")
+                        .append(method % 4 == 0 ? "" : "        return result;\n")
+                        .append("    }\n\n");
+                method++;
+            }
+            return sb.append("}\n").toString();
+        }
+    },
+
+    /**
+     * 大量使用泛型、通配符和类型参数的API
+     */
+    GENERIC_API {
+        @Override
+        String generate() {
+            StringBuilder sb = header("GenericRepository<K extends Comparable<K>, V>", "class");
+            String[] types = {
+                    "Map<K, List<V>>",
+                    "Optional<Map<String, List<Map<K, V>>>>",
+                    "List<? extends Comparable<? super V>>",
+                    "CompletableFuture<Map<K, Set<V>>>",
+                    "Function<? super K, ? extends Optional<V>>",
+            };
+            for (int i = 0; i < 60; i++) {
+                String type = types[i % types.length];
+                String param = types[(i + 2) % types.length];
+                sb.append("    public <T extends Collection<? super V>, R> ").append(type)
+                        .append(" query").append(i).append("(").append(param).append(" input, Class<T> type, R extra)")
+                        .append(i % 3 == 0 ? " throws ReflectiveOperationException" : "")
+                        .append(" {\n")
+                        .append("        return null;\n")
+                        .append("    }\n\n");
+            }
+            return sb.append("}\n").toString();
+        }
+    },
+
+    /**
+     * 带有构造函数和方法的枚举
+     */
+    ENUMS {
+        @Override
+        String generate() {
+            StringBuilder sb = header("OrderStatus", "enum");
+            for (int i = 0; i < 80; i++) {
+                sb.append("    STATUS_").append(i).append("(").append(i).append(", \"status ").append(i).append("\")")
+                        .append(i == 79 ? ";\n\n" : ",\n");
+            }
+            sb.append("    private final int code;\n\n")
+                    .append("    private final String label;\n\n")
+                    .append("    OrderStatus(int code, String label) {\n")
+                    .append("        this.code = code;\n")
+                    .append("        this.label = label;\n")
+                    .append("    }\n\n")
+                    .append("    public int getCode() {\n")
+                    .append("        return code;\n")
+                    .append("    }\n\n")
+                    .append("    public static OrderStatus fromCode(int code) {\n")
+                    .append("        for (OrderStatus status : values()) {\n")
+                    .append("            if (status.code == code) {\n")
+                    .append("                return status;\n")
+                    .append("            }\n")
+                    .append("        }\n")
+                    .append("        throw new IllegalArgumentException(\"unknown code \" + code);\n")
+                    .append("    }\n");
+            return sb.append("}\n").toString();
+        }
+    };
+
+    private String source;
+
+    /**
+     * 生成源代码
+     *
+     * @return 源代码
+     */
+    abstract String generate();
+
+    /**
+     * 获取源代码，首次调用时生成
+     *
+     * @return 源代码
+     */
+    public synchronized String source() {
+        if (source == null) {
+            source = generate();
+        }
+        return source;
+    }
+
+    private static StringBuilder header(String name, String keyword) {
+        return new StringBuilder(4096)
+                .append("package com.example.bench;\n\n")
+                .append("import java.io.IOException;\n")
+                .append("import java.math.BigDecimal;\n")
+                .append("import java.util.*;\n")
+                .append("import java.util.concurrent.CompletableFuture;\n")
+                .append("import java.util.function.Function;\n\n")
+                .append("public ").append(keyword).append(' ').append(name).append(" {\n\n");
+    }
+}
@@ -0,0 +1,341 @@
+package com.liyao.autofillDoc;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.config.RewriteMode;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Javadoc自动填充插件的公共基类
+ * 定义各个目标共用的配置参数，并负责构建配置对象
+ */
+public abstract class AbstractJavadocAutofillMojo extends AbstractMojo {
+
+    /**
+     * 当前Maven项目
+     */
+    @Parameter(defaultValue = "${project}", readonly = true, required = true)
+    private MavenProject project;
+
+    /**
+     * 源代码目录
+     */
+    @Parameter(property = "sourceDir", defaultValue = "${project.build.sourceDirectory}", required = true)
+    private File sourceDir;
+
+    /**
+     * 额外需要处理的源代码根目录列表
+     */
+    @Parameter(property = "sourceRoots")
+    private List<File> sourceRoots;
+
+    /**
+     * 是否处理项目的所有编译源代码根目录，包括其他插件添加的目录
+     */
+    @Parameter(property = "includeCompileSourceRoots", defaultValue = "false")
+    private boolean includeCompileSourceRoots;
+
+    /**
+     * 是否处理项目的测试源代码根目录
+     */
+    @Parameter(property = "includeTestSourceRoots", defaultValue = "false")
+    private boolean includeTestSourceRoots;
+
+    /**
+     * 是否处理构建目录下生成的源代码根目录，例如target/generated-sources
+     */
+    @Parameter(property = "includeGeneratedSourceRoots", defaultValue = "false")
+    private boolean includeGeneratedSourceRoots;
+
+    /**
+     * 是否添加类注释
+     */
+    @Parameter(property = "addClassJavadoc", defaultValue = "true")
+    private boolean addClassJavadoc;
+
+    /**
+     * 是否添加方法注释
+     */
+    @Parameter(property = "addMethodJavadoc", defaultValue = "true")
+    private boolean addMethodJavadoc;
+
+    /**
+     * 是否添加参数注释
+     */
+    @Parameter(property = "addParamJavadoc", defaultValue = "true")
+    private boolean addParamJavadoc;
+
+    /**
+     * 是否添加返回值注释
+     */
+    @Parameter(property = "addReturnJavadoc", defaultValue = "true")
+    private boolean addReturnJavadoc;
+
+    /**
+     * 是否添加异常注释
+     */
+    @Parameter(property = "addThrowsJavadoc", defaultValue = "true")
+    private boolean addThrowsJavadoc;
+
+    /**
+     * 排除特定文件的模式列表
+     */
+    @Parameter(property = "excludePatterns")
+    private List<String> excludePatterns;
+
+    /**
+     * 包含特定文件的模式列表，配置后只处理匹配任一模式的文件
+     */
+    @Parameter(property = "includePatterns")
+    private List<String> includePatterns;
+
+    /**
+     * 是否包含私有方法
+     */
+    @Parameter(property = "includePrivateMethods", defaultValue = "true")
+    private boolean includePrivateMethods;
+
+    /**
+     * 并行处理文件的线程数，支持"4"这样的固定值以及"1C"这样按CPU核数计算的写法
+     */
+    @Parameter(property = "threads", defaultValue = "1C")
+    private String threads;
+
+    /**
+     * 解析源代码使用的Java语言级别，例如 8、17、JAVA_17、POPULAR
+     */
+    @Parameter(property = "languageLevel", defaultValue = "POPULAR")
+    private String languageLevel;
+
+    /**
+     * 是否不将空行之前的注释归属到后面的声明，对应JavaParser的同名解析选项，默认值与JavaParser相同
+     * 设置为false时，后面跟着空行的分节注释会被归属到下一个方法，生成Javadoc时被替换掉
+     */
+    @Parameter(property = "doNotAssignCommentsPrecedingEmptyLines", defaultValue = "true")
+    private boolean doNotAssignCommentsPrecedingEmptyLines;
+
+    /**
+     * 归属注释时是否忽略注解，对应JavaParser的同名解析选项
+     */
+    @Parameter(property = "ignoreAnnotationsWhenAttributingComments", defaultValue = "false")
+    private boolean ignoreAnnotationsWhenAttributingComments;
+
+    /**
+     * 是否启用增量处理，跳过自上次处理后未发生变化的文件
+     */
+    @Parameter(property = "incremental", defaultValue = "true")
+    private boolean incremental;
+
+    /**
+     * 增量处理缓存文件
+     */
+    @Parameter(property = "incrementalCacheFile", defaultValue = "${project.build.directory}/autofill-javadoc/incremental.cache")
+    private File incrementalCacheFile;
+
+    /**
+     * 文件改写模式，PRETTY_PRINT 重新格式化整个文件，MINIMAL 只改写变更的Javadoc
+     */
+    @Parameter(property = "rewriteMode", defaultValue = "PRETTY_PRINT")
+    private RewriteMode rewriteMode;
+
+    /**
+     * 源文件编码，未配置时使用UTF-8
+     */
+    @Parameter(property = "encoding", defaultValue = "${project.build.sourceEncoding}")
+    private String encoding;
+
+    /**
+     * 是否使用分阶段流水线处理文件，发现、读取、解析转换和写入分别由独立的线程执行
+     */
+    @Parameter(property = "pipeline", defaultValue = "false")
+    private boolean pipeline;
+
+    /**
+     * 流水线读取阶段的线程数
+     */
+    @Parameter(property = "readThreads", defaultValue = "2")
+    private int readThreads;
+
+    /**
+     * 流水线写入阶段的线程数
+     */
+    @Parameter(property = "writeThreads", defaultValue = "1")
+    private int writeThreads;
+
+    /**
+     * 流水线各阶段之间队列的容量，限制同时驻留在内存中的文件数量
+     */
+    @Parameter(property = "queueCapacity", defaultValue = "64")
+    private int queueCapacity;
+
+    /**
+     * 处理统计文件，记录各阶段耗时、计数和最慢的文件
+     */
+    @Parameter(property = "metricsFile", defaultValue = "${project.build.directory}/autofill-metrics.json")
+    private File metricsFile;
+
+    /**
+     * 处理统计中记录的最慢文件数量
+     */
+    @Parameter(property = "slowestFiles", defaultValue = "10")
+    private int slowestFiles;
+
+    /**
+     * 描述规则文件，按关键字为参数、返回值、方法和异常选择描述模板，与内置规则合并
+     */
+    @Parameter(property = "rulesFile")
+    private File rulesFile;
+
+    /**
+     * 参数、返回值和异常描述各自最多缓存的条目数，为0时不缓存
+     */
+    @Parameter(property = "descriptionCacheSize", defaultValue = "10000")
+    private int descriptionCacheSize;
+
+    /**
+     * 在途文件的内存预算，同时处理的文件按大小估算占用的内存不超过该预算，大文件会排队依次处理
+     * 可以是最大堆内存的百分比（如50%）、带单位的大小（如512m、2g）或字节数，设置为0时不限制
+     */
+    @Parameter(property = "memoryBudget", defaultValue = "50%")
+    private String memoryBudget;
+
+    /**
+     * 只处理相对于该Git引用发生变更的文件，例如origin/main
+     * 变更文件通过本地git命令获取，包括分叉点之后的提交、未提交的修改和未跟踪的文件，不访问远程仓库
+     */
+    @Parameter(property = "changedSince")
+    private String changedSince;
+
+    /**
+     * 只处理指定的文件，可以与changedSince同时使用，两者的文件合并后处理
+     * 不在源代码目录中的文件和非Java文件会被忽略
+     */
+    @Parameter(property = "changedFiles")
+    private List<File> changedFiles;
+
+    /**
+     * 是否在完整解析前对文件做词法预扫描，跳过确定不需要修改的文件
+     * 预扫描只检查声明前的Javadoc和其中的标签，无法确定时仍然完整解析；跳过的文件不会报告语法错误
+     */
+    @Parameter(property = "prescan", defaultValue = "true")
+    private boolean prescan;
+
+    /**
+     * 是否为每个文件使用一个虚拟线程执行读取和写入，解析转换的并发数仍由threads限制
+     * 适合文件读写延迟较高的网络文件系统，需要在JDK 21及以上版本运行Maven，低版本JDK上使用普通线程池
+     */
+    @Parameter(property = "virtualThreads", defaultValue = "false")
+    private boolean virtualThreads;
+
+    /**
+     * 是否把修改后的文件先写入同目录下的临时文件，全部处理结束后批量原子替换
+     * 处理失败的文件数超过maxFailedFiles时放弃全部修改，源代码树保持不变
+     */
+    @Parameter(property = "transactionalWrite", defaultValue = "false")
+    private boolean transactionalWrite;
+
+    /**
+     * 批量提交时允许处理失败的文件数量，只在transactionalWrite为true时生效
+     */
+    @Parameter(property = "maxFailedFiles", defaultValue = "0")
+    private int maxFailedFiles;
+
+    /**
+     * 构建配置对象
+     *
+     * @return 配置对象
+     */
+    protected JavadocAutofillConfig buildConfig() {
+        return new JavadocAutofillConfig.Builder()
+                .sourceDir(sourceDir)
+                .sourceRoots(resolveSourceRoots())
+                .addClassJavadoc(addClassJavadoc)
+                .addMethodJavadoc(addMethodJavadoc)
+                .addParamJavadoc(addParamJavadoc)
+                .addReturnJavadoc(addReturnJavadoc)
+                .addThrowsJavadoc(addThrowsJavadoc)
+                .excludePatterns(excludePatterns)
+                .includePatterns(includePatterns)
+                .includePrivateMethods(includePrivateMethods)
+                .threads(threads)
+                .languageLevel(languageLevel)
+                .doNotAssignCommentsPrecedingEmptyLines(doNotAssignCommentsPrecedingEmptyLines)
+                .ignoreAnnotationsWhenAttributingComments(ignoreAnnotationsWhenAttributingComments)
+                .incremental(incremental)
+                .incrementalCacheFile(incrementalCacheFile)
+                .rewriteMode(rewriteMode)
+                .encoding(encoding)
+                .pipeline(pipeline)
+                .readThreads(readThreads)
+                .writeThreads(writeThreads)
+                .queueCapacity(queueCapacity)
+                .metricsFile(metricsFile)
+                .slowestFiles(slowestFiles)
+                .rulesFile(rulesFile)
+                .descriptionCacheSize(descriptionCacheSize)
+                .memoryBudget(memoryBudget)
+                .changedSince(changedSince)
+                .changedFiles(changedFiles)
+                .prescan(prescan)
+                .virtualThreads(virtualThreads)
+                .transactionalWrite(transactionalWrite)
+                .maxFailedFiles(maxFailedFiles)
+                .build();
+    }
+
+    /**
+     * 获取需要处理的源代码根目录，源代码目录总是会被处理，不需要包含在内
+     *
+     * @return 源代码根目录列表
+     */
+    protected List<File> resolveSourceRoots() {
+        List<File> roots = new ArrayList<>(collectProjectSourceRoots(project));
+        if (sourceRoots != null) {
+            roots.addAll(sourceRoots);
+        }
+        return roots;
+    }
+
+    /**
+     * 根据配置收集项目的源代码根目录
+     *
+     * @param mavenProject Maven项目
+     * @return 存在的源代码根目录列表
+     */
+    protected List<File> collectProjectSourceRoots(MavenProject mavenProject) {
+        List<String> candidates = new ArrayList<>();
+        if (includeCompileSourceRoots) {
+            candidates.addAll(mavenProject.getCompileSourceRoots());
+        }
+        if (includeTestSourceRoots) {
+            candidates.addAll(mavenProject.getTestCompileSourceRoots());
+        }
+
+        File buildDirectory = new File(mavenProject.getBuild().getDirectory()).getAbsoluteFile();
+        List<File> roots = new ArrayList<>();
+        for (String candidate : candidates) {
+            File root = new File(candidate).getAbsoluteFile();
+            if (!includeGeneratedSourceRoots && root.toPath().startsWith(buildDirectory.toPath())) {
+                getLog().debug("跳过生成的源代码目录: " + root);
+                continue;
+            }
+            if (root.isDirectory()) {
+                roots.add(root);
+            }
+        }
+        return roots;
+    }
+
+    /**
+     * 获取额外配置的源代码根目录
+     *
+     * @return 源代码根目录列表，未配置时为null
+     */
+    protected List<File> getSourceRoots() {
+        return sourceRoots;
+    }
+}
@@ -0,0 +1,49 @@
+package com.liyao.autofillDoc;
+
+import org.apache.maven.model.Build;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 反应堆聚合目标
+ * 只在反应堆根项目执行一次，使用同一个线程池处理所有模块的源代码根目录，避免每个模块单独启动插件和解析器
+ */
+@Mojo(name = "autofill-aggregate", defaultPhase = LifecyclePhase.GENERATE_SOURCES, aggregator = true, threadSafe = true)
+public class JavadocAutofillAggregateMojo extends JavadocAutofillMojo {
+
+    /**
+     * 反应堆中的所有项目
+     */
+    @Parameter(defaultValue = "${reactorProjects}", readonly = true, required = true)
+    private List<MavenProject> reactorProjects;
+
+    /**
+     * 收集反应堆中所有模块的源代码根目录
+     *
+     * @return 源代码根目录列表
+     */
+    @Override
+    protected List<File> resolveSourceRoots() {
+        List<File> roots = new ArrayList<>();
+        for (MavenProject reactorProject : reactorProjects) {
+            Build build = reactorProject.getBuild();
+            if (build != null && build.getSourceDirectory() != null) {
+                File sourceDirectory = new File(build.getSourceDirectory());
+                if (sourceDirectory.isDirectory()) {
+                    roots.add(sourceDirectory);
+                }
+            }
+            roots.addAll(collectProjectSourceRoots(reactorProject));
+        }
+        if (getSourceRoots() != null) {
+            roots.addAll(getSourceRoots());
+        }
+        getLog().info("聚合处理 " + reactorProjects.size() + " 个模块的 " + roots.size() + " 个源代码目录");
+        return roots;
+    }
+}
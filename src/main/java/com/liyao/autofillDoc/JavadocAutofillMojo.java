@@ -1,64 +1,20 @@
 package com.liyao.autofillDoc;
 
 import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.daemon.DaemonClient;
 import com.liyao.autofillDoc.service.FileProcessingService;
-import org.apache.maven.plugins.annotations.Parameter;
-import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
-import java.io.File;
-import java.util.List;
-
-@Mojo(name = "autofill", defaultPhase = LifecyclePhase.GENERATE_SOURCES)
-public class JavadocAutofillMojo extends AbstractMojo {
-
-    /**
-     * 源代码目录
-     */
-    @Parameter(property = "sourceDir", defaultValue = "${project.build.sourceDirectory}", required = true)
-    private File sourceDir;
-
-    /**
-     * 是否添加类注释
-     */
-    @Parameter(property = "addClassJavadoc", defaultValue = "true")
-    private boolean addClassJavadoc;
-
-    /**
-     * 是否添加方法注释
-     */
-    @Parameter(property = "addMethodJavadoc", defaultValue = "true")
-    private boolean addMethodJavadoc;
-
-    /**
-     * 是否添加参数注释
-     */
-    @Parameter(property = "addParamJavadoc", defaultValue = "true")
-    private boolean addParamJavadoc;
-
-    /**
-     * 是否添加返回值注释
-     */
-    @Parameter(property = "addReturnJavadoc", defaultValue = "true")
-    private boolean addReturnJavadoc;
-
-    /**
-     * 是否添加异常注释
-     */
-    @Parameter(property = "addThrowsJavadoc", defaultValue = "true")
-    private boolean addThrowsJavadoc;
+import org.apache.maven.plugins.annotations.Parameter;
 
-    /**
-     * 排除特定文件的模式列表
-     */
-    @Parameter(property = "excludePatterns")
-    private List<String> excludePatterns;
+@Mojo(name = "autofill", defaultPhase = LifecyclePhase.GENERATE_SOURCES, threadSafe = true)
+public class JavadocAutofillMojo extends AbstractJavadocAutofillMojo {
 
     /**
-     * 是否包含私有方法
+     * 是否把处理交给正在运行的守护进程（见daemon目标），守护进程不可用时在当前进程中处理
      */
-    @Parameter(property = "includePrivateMethods", defaultValue = "true")
-    private boolean includePrivateMethods;
+    @Parameter(property = "useDaemon", defaultValue = "true")
+    private boolean useDaemon;
 
     /**
      * 执行插件
@@ -67,20 +23,17 @@ public class JavadocAutofillMojo extends AbstractMojo {
     public void execute() {
         try {
             // 创建配置对象
-            JavadocAutofillConfig config = new JavadocAutofillConfig.Builder()
-                    .sourceDir(sourceDir)
-                    .addClassJavadoc(addClassJavadoc)
-                    .addMethodJavadoc(addMethodJavadoc)
-                    .addParamJavadoc(addParamJavadoc)
-                    .addReturnJavadoc(addReturnJavadoc)
-                    .addThrowsJavadoc(addThrowsJavadoc)
-                    .excludePatterns(excludePatterns)
-                    .includePrivateMethods(includePrivateMethods)
-                    .build();
-
-            // 创建文件处理服务并执行处理
-            FileProcessingService fileProcessingService = new FileProcessingService(getLog(), config);
-            int processedCount = fileProcessingService.processSourceDirectory();
+            JavadocAutofillConfig config = buildConfig();
+
+            // 优先交给守护进程处理，守护进程不可用时创建文件处理服务并执行处理
+            Integer daemonCount = useDaemon ? new DaemonClient(getLog(), null).autofill(config) : null;
+            int processedCount;
+            if (daemonCount != null) {
+                processedCount = daemonCount;
+            } else {
+                FileProcessingService fileProcessingService = new FileProcessingService(getLog(), config);
+                processedCount = fileProcessingService.processSourceDirectory();
+            }
             
 
             if (processedCount > 0) {
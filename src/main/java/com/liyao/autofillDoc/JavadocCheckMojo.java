@@ -0,0 +1,87 @@
+package com.liyao.autofillDoc;
+
+import com.liyao.autofillDoc.service.FileProcessingService;
+import com.liyao.autofillDoc.service.JavadocCheckReport;
+import com.liyao.autofillDoc.service.JavadocIssue;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Javadoc检查目标
+ * 使用与autofill相同的规则分析源代码，只报告缺失的Javadoc，不修改任何文件
+ */
+@Mojo(name = "check", defaultPhase = LifecyclePhase.VERIFY, threadSafe = true)
+public class JavadocCheckMojo extends AbstractJavadocAutofillMojo {
+
+    /**
+     * 日志中最多输出的问题数量，完整列表见报告文件
+     */
+    private static final int MAX_LOGGED_ISSUES = 100;
+
+    /**
+     * 检查报告文件
+     */
+    @Parameter(property = "checkReportFile", defaultValue = "${project.build.directory}/autofill-javadoc/check-report.json")
+    private File checkReportFile;
+
+    /**
+     * 允许的最大问题数量，超过时构建失败
+     */
+    @Parameter(property = "maxViolations", defaultValue = "0")
+    private int maxViolations;
+
+    /**
+     * 问题数量超过阈值或存在无法解析的文件时是否使构建失败
+     */
+    @Parameter(property = "failOnViolation", defaultValue = "true")
+    private boolean failOnViolation;
+
+    /**
+     * 执行检查
+     *
+     * @throws MojoExecutionException 写入报告失败
+     * @throws MojoFailureException   问题数量超过阈值或存在无法解析的文件
+     */
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        FileProcessingService fileProcessingService = new FileProcessingService(getLog(), buildConfig());
+        JavadocCheckReport report = fileProcessingService.checkSourceDirectory();
+
+        List<JavadocIssue> issues = report.getIssues();
+        for (int i = 0; i < issues.size() && i < MAX_LOGGED_ISSUES; i++) {
+            getLog().warn(issues.get(i).toString());
+        }
+        if (issues.size() > MAX_LOGGED_ISSUES) {
+            getLog().warn("还有 " + (issues.size() - MAX_LOGGED_ISSUES) + " 个问题未输出, 详见检查报告");
+        }
+
+        if (checkReportFile != null) {
+            try {
+                report.writeJson(checkReportFile.toPath());
+                getLog().info("Javadoc检查报告: " + checkReportFile);
+            } catch (IOException e) {
+                throw new MojoExecutionException("写入Javadoc检查报告失败: " + checkReportFile, e);
+            }
+        }
+
+        getLog().info("Javadoc检查完成, 共检查 " + report.getCheckedFiles() + " 个文件, 发现 "
+                + issues.size() + " 个问题");
+
+        if (!failOnViolation) {
+            return;
+        }
+        if (!report.getFailedFiles().isEmpty()) {
+            throw new MojoFailureException("有 " + report.getFailedFiles().size() + " 个文件无法解析, Javadoc检查未完成");
+        }
+        if (issues.size() > maxViolations) {
+            throw new MojoFailureException("发现 " + issues.size() + " 个Javadoc问题, 超过允许的最大数量 "
+                    + maxViolations);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.liyao.autofillDoc;
+
+import com.liyao.autofillDoc.daemon.AutofillDaemon;
+import com.liyao.autofillDoc.exception.JavadocProcessingException;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 守护进程目标
+ * 在前台启动Javadoc自动填充守护进程，其他构建中的autofill目标会把处理交给守护进程，
+ * 解析器和各种缓存在多次构建之间保持可用；按Ctrl+C、执行daemon-stop目标或者空闲超时后退出
+ */
+@Mojo(name = "daemon", requiresProject = false, threadSafe = true)
+public class JavadocDaemonMojo extends AbstractMojo {
+
+    /**
+     * 守护进程的空闲超时时间（分钟），超过该时间没有请求时自动退出，设置为0时一直运行
+     */
+    @Parameter(property = "daemonIdleTimeout", defaultValue = "180")
+    private int daemonIdleTimeout;
+
+    /**
+     * 运行守护进程
+     *
+     * @throws MojoExecutionException 已有守护进程在运行或守护进程无法启动
+     */
+    @Override
+    public void execute() throws MojoExecutionException {
+        AutofillDaemon daemon = new AutofillDaemon(getLog(), null, TimeUnit.MINUTES.toMillis(daemonIdleTimeout));
+        Thread shutdownHook = new Thread(daemon::stop, "autofill-javadoc-daemon-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+        try {
+            daemon.run();
+        } catch (JavadocProcessingException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // 虚拟机正在退出，钩子已经在执行
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.liyao.autofillDoc;
+
+import com.liyao.autofillDoc.daemon.DaemonClient;
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugins.annotations.Mojo;
+
+/**
+ * 停止守护进程目标
+ * 通知正在运行的Javadoc自动填充守护进程退出，正在处理的请求会继续完成
+ */
+@Mojo(name = "daemon-stop", requiresProject = false, threadSafe = true)
+public class JavadocDaemonStopMojo extends AbstractMojo {
+
+    /**
+     * 停止守护进程
+     */
+    @Override
+    public void execute() {
+        String version = new DaemonClient(getLog(), null).stop();
+        if (version != null) {
+            getLog().info("已通知Javadoc自动填充守护进程退出");
+        } else {
+            getLog().info("Javadoc自动填充守护进程未运行");
+        }
+    }
+}
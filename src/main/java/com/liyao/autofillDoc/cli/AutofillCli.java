@@ -0,0 +1,236 @@
+package com.liyao.autofillDoc.cli;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.service.FileProcessingService;
+import com.liyao.autofillDoc.service.JavadocCheckReport;
+import com.liyao.autofillDoc.service.JavadocIssue;
+import com.liyao.autofillDoc.service.ProcessingMetrics;
+import com.liyao.autofillDoc.util.PluginVersion;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 命令行入口
+ * 不经过Maven直接使用与插件相同的处理引擎，适合在Git钩子、Gradle构建或者其他脚本中调用，避免每次启动Maven的开销
+ * <p>
+ * 路径参数可以是目录或文件：目录作为源代码根目录处理其中所有的Java文件，文件只处理文件本身，同时指定时目录只作为源代码根目录；
+ * 也可以通过标准输入传入以NUL分隔的路径（--stdin0，配合git diff -z等命令使用），或者从每行一个路径的文件中读取（--filesFrom）
+ */
+public final class AutofillCli {
+
+    /**
+     * 处理成功
+     */
+    static final int EXIT_OK = 0;
+
+    /**
+     * 有文件处理失败，或者检查发现的问题超过允许的数量
+     */
+    static final int EXIT_FAILURE = 1;
+
+    /**
+     * 命令行参数不正确
+     */
+    static final int EXIT_USAGE = 2;
+
+    /**
+     * 日志中最多输出的问题数量，与check目标相同
+     */
+    private static final int MAX_LOGGED_ISSUES = 100;
+
+    private AutofillCli() {
+    }
+
+    /**
+     * 命令行入口
+     *
+     * @param args 命令行参数
+     */
+    public static void main(String[] args) {
+        System.exit(run(args, System.in, System.out, System.err));
+    }
+
+    /**
+     * 执行命令
+     *
+     * @param args  命令行参数
+     * @param stdin 标准输入
+     * @param out   标准输出
+     * @param err   标准错误
+     * @return 退出码
+     */
+    static int run(String[] args, InputStream stdin, PrintStream out, PrintStream err) {
+        CliOptions options;
+        List<File> sourceRoots = new ArrayList<>();
+        List<File> files;
+        boolean verbose;
+        boolean quiet;
+        boolean checkOnly;
+        try {
+            options = CliOptions.parse(args);
+            if (options.isSet("help")) {
+                printUsage(out);
+                return EXIT_OK;
+            }
+            if (options.isSet("version")) {
+                String version = PluginVersion.get();
+                out.println("autofill-javadoc " + (version != null ? version : "dev"));
+                return EXIT_OK;
+            }
+            // 布尔选项的取值在这里校验，取值错误按用法错误处理
+            verbose = options.isSet("verbose");
+            quiet = options.isSet("quiet");
+            checkOnly = options.isSet("check");
+            files = collectPaths(options, stdin, sourceRoots);
+            if (files == null && sourceRoots.isEmpty() && options.get("sourceDir") == null
+                    && options.get("sourceRoots") == null) {
+                throw new IllegalArgumentException("请指定要处理的目录或文件");
+            }
+        } catch (IllegalArgumentException | IOException e) {
+            err.println("[ERROR] " + e.getMessage());
+            err.println("使用 --help 查看用法");
+            return EXIT_USAGE;
+        }
+
+        Log log = new ConsoleLog(out, err, verbose, !quiet);
+        if (files != null && files.isEmpty() && sourceRoots.isEmpty()) {
+            log.info("没有需要处理的文件");
+            return EXIT_OK;
+        }
+        JavadocAutofillConfig config;
+        try {
+            config = options.toConfig(sourceRoots, files);
+        } catch (IllegalArgumentException e) {
+            err.println("[ERROR] " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        try {
+            FileProcessingService service = new FileProcessingService(log, config);
+            if (checkOnly) {
+                return check(service, options, log);
+            }
+            int processedCount = service.processSourceDirectory();
+            if (processedCount > 0) {
+                log.info("执行Javadoc自动填充完成, 共处理 " + processedCount + " 个文件");
+            }
+            return service.getMetrics().get(ProcessingMetrics.Counter.FILES_FAILED) > 0 ? EXIT_FAILURE : EXIT_OK;
+        } catch (RuntimeException e) {
+            log.error("执行Javadoc自动填充失败: " + e.getMessage(), e);
+            return EXIT_FAILURE;
+        }
+    }
+
+    /**
+     * 收集路径参数：目录加入源代码根目录，其余作为待处理的文件
+     *
+     * @param options     命令行选项
+     * @param stdin       标准输入
+     * @param sourceRoots 收集到的源代码根目录
+     * @return 待处理的文件；没有指定任何文件列表时返回null，表示处理源代码根目录下的所有文件
+     * @throws IOException 读取标准输入或文件列表失败
+     */
+    private static List<File> collectPaths(CliOptions options, InputStream stdin, List<File> sourceRoots)
+            throws IOException {
+        List<String> paths = new ArrayList<>(options.getPaths());
+        boolean listGiven = false;
+        if (options.isSet("stdin0")) {
+            paths.addAll(CliOptions.readPaths(stdin, '\0'));
+            listGiven = true;
+        }
+        String filesFrom = options.get("filesFrom");
+        if (filesFrom != null) {
+            if (filesFrom.equals("-")) {
+                paths.addAll(CliOptions.readPaths(stdin, '\n'));
+            } else {
+                try (InputStream in = Files.newInputStream(new File(filesFrom).toPath())) {
+                    paths.addAll(CliOptions.readPaths(in, '\n'));
+                }
+            }
+            listGiven = true;
+        }
+        List<File> files = new ArrayList<>();
+        for (String path : paths) {
+            File file = new File(path);
+            if (file.isDirectory()) {
+                sourceRoots.add(file);
+            } else {
+                files.add(file);
+            }
+        }
+        // 通过文件列表传入的路径为空时不处理任何文件，而不是处理整个源代码目录
+        return listGiven || !files.isEmpty() ? files : null;
+    }
+
+    /**
+     * 检查源代码并输出问题
+     *
+     * @param service 文件处理服务
+     * @param options 命令行选项
+     * @param log     日志对象
+     * @return 退出码
+     */
+    private static int check(FileProcessingService service, CliOptions options, Log log) {
+        JavadocCheckReport report = service.checkSourceDirectory();
+        List<JavadocIssue> issues = report.getIssues();
+        for (int i = 0; i < issues.size() && i < MAX_LOGGED_ISSUES; i++) {
+            log.warn(issues.get(i).toString());
+        }
+        if (issues.size() > MAX_LOGGED_ISSUES) {
+            log.warn("还有 " + (issues.size() - MAX_LOGGED_ISSUES) + " 个问题未输出, 详见检查报告");
+        }
+        String reportFile = options.get("checkReportFile");
+        if (reportFile != null) {
+            try {
+                report.writeJson(new File(reportFile).toPath());
+                log.info("Javadoc检查报告: " + reportFile);
+            } catch (IOException e) {
+                log.error("写入Javadoc检查报告失败: " + reportFile, e);
+                return EXIT_FAILURE;
+            }
+        }
+        log.info("Javadoc检查完成, 共检查 " + report.getCheckedFiles() + " 个文件, 发现 " + issues.size() + " 个问题");
+
+        if (!report.getFailedFiles().isEmpty()) {
+            log.error("有 " + report.getFailedFiles().size() + " 个文件无法解析, Javadoc检查未完成");
+            return EXIT_FAILURE;
+        }
+        int maxViolations = options.getInt("maxViolations", 0);
+        if (issues.size() > maxViolations) {
+            log.error("发现 " + issues.size() + " 个Javadoc问题, 超过允许的最大数量 " + maxViolations);
+            return EXIT_FAILURE;
+        }
+        return EXIT_OK;
+    }
+
+    private static void printUsage(PrintStream out) {
+        out.println("用法: java -jar autofill-javadoc-maven-plugin-<版本>-cli.jar [选项] [目录或文件...]");
+        out.println();
+        out.println("目录作为源代码根目录处理其中所有的Java文件，文件只处理文件本身；只指定文件时以当前目录为源代码目录，");
+        out.println("同时指定目录和文件时目录只作为源代码根目录，只处理指定的文件");
+        out.println();
+        out.println("命令选项:");
+        out.println("  --stdin0              从标准输入读取以NUL分隔的路径，例如 git diff --cached --name-only -z");
+        out.println("  --filesFrom=<文件>    从文件读取路径，每行一个，\"-\"表示标准输入");
+        out.println("  --config=<文件>       从properties文件读取配置选项，命令行中的选项优先");
+        out.println("  --check               只检查缺失的Javadoc，不修改文件，问题超过maxViolations时退出码为1");
+        out.println("  --verbose             输出调试日志");
+        out.println("  --quiet               只输出警告和错误");
+        out.println("  --help                显示帮助");
+        out.println("  --version             显示版本");
+        out.println();
+        out.println("配置选项与Maven插件的参数同名，写作 --名称=值，布尔选项可以只写 --名称，列表用逗号分隔，例如:");
+        out.println("  --excludePatterns=.*Test\\.java --threads=2C --rewriteMode=MINIMAL --includePrivateMethods=false");
+        out.println("支持的配置选项: " + String.join(", ", new TreeSet<>(CliOptions.CONFIG_OPTIONS)));
+        out.println();
+        out.println("退出码: 0 成功, 1 有文件处理失败或检查未通过, 2 参数错误");
+    }
+}
@@ -0,0 +1,327 @@
+package com.liyao.autofillDoc.cli;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.config.RewriteMode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * 命令行选项
+ * 选项名与Maven插件的参数名相同，写作"--名称=值"，布尔选项可以只写"--名称"表示true；
+ * 列表选项的多个值用逗号分隔。配置文件是同样键名的properties文件，命令行中的选项覆盖配置文件中的同名选项
+ * <p>
+ * 默认值与Maven插件参数的默认值相同，只是没有默认的增量缓存文件和处理统计文件
+ */
+class CliOptions {
+
+    /**
+     * 可以在命令行和配置文件中使用的配置选项，对应{@link JavadocAutofillConfig.Builder}的方法
+     */
+    static final Set<String> CONFIG_OPTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "sourceDir", "sourceRoots", "addClassJavadoc", "addMethodJavadoc", "addParamJavadoc",
+            "addReturnJavadoc", "addThrowsJavadoc", "excludePatterns", "includePatterns", "includePrivateMethods",
+            "threads", "languageLevel", "doNotAssignCommentsPrecedingEmptyLines",
+            "ignoreAnnotationsWhenAttributingComments", "incremental", "incrementalCacheFile", "rewriteMode",
+            "encoding", "pipeline", "readThreads", "writeThreads", "queueCapacity", "metricsFile", "slowestFiles",
+            "rulesFile", "descriptionCacheSize", "memoryBudget", "changedSince", "changedFiles",
+            "prescan", "virtualThreads", "transactionalWrite", "maxFailedFiles", "checkReportFile",
+            "maxViolations")));
+
+    /**
+     * 只能在命令行中使用的选项
+     */
+    private static final Set<String> COMMAND_OPTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "config", "stdin0", "filesFrom", "check", "verbose", "quiet", "help", "version")));
+
+    /**
+     * 不带值时表示true的选项
+     */
+    private static final Set<String> FLAG_OPTIONS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "addClassJavadoc", "addMethodJavadoc", "addParamJavadoc", "addReturnJavadoc", "addThrowsJavadoc",
+            "includePrivateMethods", "doNotAssignCommentsPrecedingEmptyLines",
+            "ignoreAnnotationsWhenAttributingComments", "incremental", "pipeline", "prescan", "virtualThreads",
+            "transactionalWrite", "stdin0", "check", "verbose", "quiet", "help", "version")));
+
+    private final Map<String, String> values = new LinkedHashMap<>();
+    private final List<String> paths = new ArrayList<>();
+
+    private CliOptions() {
+    }
+
+    /**
+     * 解析命令行参数，配置了config选项时先加载配置文件
+     *
+     * @param args 命令行参数
+     * @return 命令行选项
+     * @throws IllegalArgumentException 参数格式不正确或选项不存在
+     * @throws IOException              读取配置文件失败
+     */
+    static CliOptions parse(String[] args) throws IOException {
+        CliOptions options = new CliOptions();
+        Map<String, String> commandLine = new LinkedHashMap<>();
+        boolean endOfOptions = false;
+        for (String arg : args) {
+            if (endOfOptions || !arg.startsWith("--")) {
+                options.paths.add(arg);
+                continue;
+            }
+            if (arg.equals("--")) {
+                endOfOptions = true;
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            String name = separator < 0 ? arg.substring(2) : arg.substring(2, separator);
+            checkName(name, true);
+            if (separator < 0 && !FLAG_OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("选项 --" + name + " 需要一个值, 格式为 --" + name + "=值");
+            }
+            commandLine.put(name, separator < 0 ? "true" : arg.substring(separator + 1));
+        }
+        String configFile = commandLine.get("config");
+        if (configFile != null) {
+            options.values.putAll(loadConfigFile(new File(configFile)));
+        }
+        options.values.putAll(commandLine);
+        return options;
+    }
+
+    /**
+     * 加载配置文件
+     *
+     * @param file 配置文件
+     * @return 配置选项
+     * @throws IOException              读取配置文件失败
+     * @throws IllegalArgumentException 配置文件中存在不支持的选项
+     */
+    private static Map<String, String> loadConfigFile(File file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        Map<String, String> loaded = new LinkedHashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            checkName(name, false);
+            loaded.put(name, properties.getProperty(name).trim());
+        }
+        return loaded;
+    }
+
+    private static void checkName(String name, boolean commandLine) {
+        if (!CONFIG_OPTIONS.contains(name) && !(commandLine && COMMAND_OPTIONS.contains(name))) {
+            throw new IllegalArgumentException("不支持的选项: " + (commandLine ? "--" : "") + name);
+        }
+    }
+
+    /**
+     * 读取待处理的路径列表
+     *
+     * @param in        输入流
+     * @param separator 路径分隔符
+     * @return 路径列表，忽略空路径
+     * @throws IOException 读取失败
+     */
+    static List<String> readPaths(InputStream in, char separator) throws IOException {
+        byte[] bytes = readFully(in);
+        String content = new String(bytes, StandardCharsets.UTF_8);
+        List<String> result = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= content.length(); i++) {
+            if (i == content.length() || content.charAt(i) == separator) {
+                String path = content.substring(start, i);
+                if (separator == '\n') {
+                    path = path.trim();
+                }
+                if (!path.isEmpty()) {
+                    result.add(path);
+                }
+                start = i + 1;
+            }
+        }
+        return result;
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return buffer.toByteArray();
+    }
+
+    /**
+     * 是否设置了命令行标志
+     *
+     * @param name 选项名
+     * @return 设置为true时返回true
+     */
+    boolean isSet(String name) {
+        return parseBoolean(name, values.get(name), false);
+    }
+
+    /**
+     * 获取选项的值
+     *
+     * @param name 选项名
+     * @return 选项的值，未设置时返回null
+     */
+    String get(String name) {
+        return values.get(name);
+    }
+
+    /**
+     * 获取整数选项
+     *
+     * @param name         选项名
+     * @param defaultValue 默认值
+     * @return 选项的值
+     * @throws IllegalArgumentException 不是整数
+     */
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("选项 " + name + " 需要一个整数: " + value, e);
+        }
+    }
+
+    /**
+     * 获取命令行中的路径参数
+     *
+     * @return 路径参数
+     */
+    List<String> getPaths() {
+        return paths;
+    }
+
+    /**
+     * 构建配置对象
+     *
+     * @param sourceRoots 命令行中指定的源代码根目录
+     * @param files       命令行中指定的文件，为null时处理源代码根目录下的所有文件
+     * @return 配置对象
+     * @throws IllegalArgumentException 选项的值不正确
+     */
+    JavadocAutofillConfig toConfig(List<File> sourceRoots, List<File> files) {
+        List<File> roots = new ArrayList<>(getFiles("sourceRoots"));
+        roots.addAll(sourceRoots);
+        File sourceDir = getFile("sourceDir");
+        if (sourceDir == null && roots.isEmpty()) {
+            // 只指定了文件时以当前目录为源代码目录，包含和排除模式按相对于当前目录的路径匹配
+            sourceDir = new File("").getAbsoluteFile();
+        }
+        List<File> changedFiles = null;
+        if (files != null || values.containsKey("changedFiles")) {
+            changedFiles = new ArrayList<>(getFiles("changedFiles"));
+            if (files != null) {
+                changedFiles.addAll(files);
+            }
+        }
+        JavadocAutofillConfig.Builder builder = new JavadocAutofillConfig.Builder()
+                .sourceDir(sourceDir)
+                .sourceRoots(roots)
+                .addClassJavadoc(getBoolean("addClassJavadoc", true))
+                .addMethodJavadoc(getBoolean("addMethodJavadoc", true))
+                .addParamJavadoc(getBoolean("addParamJavadoc", true))
+                .addReturnJavadoc(getBoolean("addReturnJavadoc", true))
+                .addThrowsJavadoc(getBoolean("addThrowsJavadoc", true))
+                .excludePatterns(getList("excludePatterns"))
+                .includePatterns(getList("includePatterns"))
+                .includePrivateMethods(getBoolean("includePrivateMethods", true))
+                .threads(getOrDefault("threads", "1C"))
+                .languageLevel(getOrDefault("languageLevel", "POPULAR"))
+                .doNotAssignCommentsPrecedingEmptyLines(getBoolean("doNotAssignCommentsPrecedingEmptyLines", true))
+                .ignoreAnnotationsWhenAttributingComments(getBoolean("ignoreAnnotationsWhenAttributingComments", false))
+                .incremental(getBoolean("incremental", true))
+                .incrementalCacheFile(getFile("incrementalCacheFile"))
+                .rewriteMode(RewriteMode.valueOf(getOrDefault("rewriteMode", "PRETTY_PRINT").trim()
+                        .toUpperCase(Locale.ROOT)))
+                .encoding(get("encoding"))
+                .pipeline(getBoolean("pipeline", false))
+                .readThreads(getInt("readThreads", 2))
+                .writeThreads(getInt("writeThreads", 1))
+                .queueCapacity(getInt("queueCapacity", 64))
+                .metricsFile(getFile("metricsFile"))
+                .slowestFiles(getInt("slowestFiles", 10))
+                .rulesFile(getFile("rulesFile"))
+                .descriptionCacheSize(getInt("descriptionCacheSize", 10000))
+                .memoryBudget(getOrDefault("memoryBudget", "50%"))
+                .changedSince(get("changedSince"))
+                .changedFiles(changedFiles)
+                .prescan(getBoolean("prescan", true))
+                .virtualThreads(getBoolean("virtualThreads", false))
+                .transactionalWrite(getBoolean("transactionalWrite", false))
+                .maxFailedFiles(getInt("maxFailedFiles", 0));
+        return builder.build();
+    }
+
+    private String getOrDefault(String name, String defaultValue) {
+        String value = values.get(name);
+        return value != null ? value : defaultValue;
+    }
+
+    private boolean getBoolean(String name, boolean defaultValue) {
+        return parseBoolean(name, values.get(name), defaultValue);
+    }
+
+    private static boolean parseBoolean(String name, String value, boolean defaultValue) {
+        if (value == null) {
+            return defaultValue;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        if (normalized.equals("true")) {
+            return true;
+        }
+        if (normalized.equals("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("选项 " + name + " 需要true或false: " + value);
+    }
+
+    private File getFile(String name) {
+        String value = values.get(name);
+        return value == null || value.trim().isEmpty() ? null : new File(value.trim());
+    }
+
+    private List<String> getList(String name) {
+        String value = values.get(name);
+        List<String> list = new ArrayList<>();
+        if (value != null) {
+            for (String item : value.split(",")) {
+                if (!item.trim().isEmpty()) {
+                    list.add(item.trim());
+                }
+            }
+        }
+        return list;
+    }
+
+    private List<File> getFiles(String name) {
+        List<File> files = new ArrayList<>();
+        for (String item : getList(name)) {
+            files.add(new File(item));
+        }
+        return files;
+    }
+}
@@ -0,0 +1,125 @@
+package com.liyao.autofillDoc.cli;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.PrintStream;
+
+/**
+ * 命令行日志
+ * 输出格式与Maven的构建日志相同，错误输出到标准错误，其余输出到标准输出
+ */
+class ConsoleLog implements Log {
+
+    private final PrintStream out;
+    private final PrintStream err;
+    private final boolean debugEnabled;
+    private final boolean infoEnabled;
+
+    /**
+     * 构造函数
+     *
+     * @param out          标准输出
+     * @param err          标准错误
+     * @param debugEnabled 是否输出调试日志
+     * @param infoEnabled  是否输出普通日志，为false时只输出警告和错误
+     */
+    ConsoleLog(PrintStream out, PrintStream err, boolean debugEnabled, boolean infoEnabled) {
+        this.out = out;
+        this.err = err;
+        this.debugEnabled = debugEnabled;
+        this.infoEnabled = infoEnabled;
+    }
+
+    private static void print(PrintStream stream, String level, CharSequence content, Throwable error) {
+        synchronized (stream) {
+            stream.println("[" + level + "] " + (content != null ? content : ""));
+            if (error != null) {
+                error.printStackTrace(stream);
+            }
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        debug(content, null);
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        if (debugEnabled) {
+            print(out, "DEBUG", content, error);
+        }
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        debug(null, error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return infoEnabled;
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        info(content, null);
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        if (infoEnabled) {
+            print(out, "INFO", content, error);
+        }
+    }
+
+    @Override
+    public void info(Throwable error) {
+        info(null, error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        warn(content, null);
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        print(out, "WARNING", content, error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        warn(null, error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        error(content, null);
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        print(err, "ERROR", content, error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        error(null, error);
+    }
+}
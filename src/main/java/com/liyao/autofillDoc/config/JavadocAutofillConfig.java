@@ -1,8 +1,16 @@
 package com.liyao.autofillDoc.config;
 
+import com.liyao.autofillDoc.util.PluginVersion;
+
 import java.io.File;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 
 /**
  * Javadoc自动填充配置类
@@ -50,6 +58,131 @@ public class JavadocAutofillConfig {
      */
     private final boolean includePrivateMethods;
 
+    /**
+     * 并行处理文件的线程数
+     */
+    private final int threads;
+
+    /**
+     * 解析源代码使用的Java语言级别
+     */
+    private final String languageLevel;
+
+    /**
+     * 是否不将空行之前的注释归属到后面的声明
+     */
+    private final boolean doNotAssignCommentsPrecedingEmptyLines;
+
+    /**
+     * 归属注释时是否忽略注解
+     */
+    private final boolean ignoreAnnotationsWhenAttributingComments;
+
+    /**
+     * 是否启用增量处理
+     */
+    private final boolean incremental;
+
+    /**
+     * 增量处理缓存文件
+     */
+    private final File incrementalCacheFile;
+
+    /**
+     * 文件改写模式
+     */
+    private final RewriteMode rewriteMode;
+
+    /**
+     * 源文件编码
+     */
+    private final Charset encoding;
+
+    /**
+     * 是否使用分阶段流水线处理文件
+     */
+    private final boolean pipeline;
+
+    /**
+     * 流水线读取阶段的线程数
+     */
+    private final int readThreads;
+
+    /**
+     * 流水线写入阶段的线程数
+     */
+    private final int writeThreads;
+
+    /**
+     * 流水线各阶段之间队列的容量
+     */
+    private final int queueCapacity;
+
+    /**
+     * 包含特定文件的模式列表
+     */
+    private final List<String> includePatterns;
+
+    /**
+     * 需要处理的源代码根目录列表
+     */
+    private final List<File> sourceRoots;
+
+    /**
+     * 处理统计文件，为null时不写入
+     */
+    private final File metricsFile;
+
+    /**
+     * 统计中记录的最慢文件数量
+     */
+    private final int slowestFiles;
+
+    /**
+     * 描述规则文件，为null时只使用内置规则
+     */
+    private final File rulesFile;
+
+    /**
+     * 每类描述最多缓存的条目数，为0时不缓存
+     */
+    private final int descriptionCacheSize;
+
+    /**
+     * 在途文件的内存预算（字节），为0时不限制
+     */
+    private final long memoryBudget;
+
+    /**
+     * 只处理相对于该Git引用发生变更的文件，为null时处理全部文件
+     */
+    private final String changedSince;
+
+    /**
+     * 只处理的变更文件列表，为null或空时不限制
+     */
+    private final List<File> changedFiles;
+
+    /**
+     * 是否在完整解析前用词法扫描跳过确定不需要修改的文件
+     */
+    private final boolean prescan;
+
+    /**
+     * 是否使用虚拟线程处理文件的读写，需要JDK 21及以上版本
+     */
+    private final boolean virtualThreads;
+
+    /**
+     * 是否把修改后的文件暂存起来，全部处理结束后批量提交
+     */
+    private final boolean transactionalWrite;
+
+    /**
+     * 批量提交时允许处理失败的文件数量，超过时放弃全部修改
+     */
+    private final int maxFailedFiles;
+
     /**
      * 构造函数
      * 
@@ -64,6 +197,31 @@ public class JavadocAutofillConfig {
         this.addThrowsJavadoc = builder.addThrowsJavadoc;
         this.excludePatterns = builder.excludePatterns;
         this.includePrivateMethods = builder.includePrivateMethods;
+        this.threads = builder.threads;
+        this.languageLevel = builder.languageLevel;
+        this.doNotAssignCommentsPrecedingEmptyLines = builder.doNotAssignCommentsPrecedingEmptyLines;
+        this.ignoreAnnotationsWhenAttributingComments = builder.ignoreAnnotationsWhenAttributingComments;
+        this.incremental = builder.incremental;
+        this.incrementalCacheFile = builder.incrementalCacheFile;
+        this.rewriteMode = builder.rewriteMode;
+        this.encoding = builder.encoding;
+        this.pipeline = builder.pipeline;
+        this.readThreads = builder.readThreads;
+        this.writeThreads = builder.writeThreads;
+        this.queueCapacity = builder.queueCapacity;
+        this.includePatterns = builder.includePatterns;
+        this.sourceRoots = resolveSourceRoots(builder.sourceDir, builder.sourceRoots);
+        this.metricsFile = builder.metricsFile;
+        this.slowestFiles = builder.slowestFiles;
+        this.rulesFile = builder.rulesFile;
+        this.descriptionCacheSize = builder.descriptionCacheSize;
+        this.memoryBudget = builder.memoryBudget;
+        this.changedSince = builder.changedSince;
+        this.changedFiles = builder.changedFiles;
+        this.prescan = builder.prescan;
+        this.virtualThreads = builder.virtualThreads;
+        this.transactionalWrite = builder.transactionalWrite;
+        this.maxFailedFiles = builder.maxFailedFiles;
     }
 
     /**
@@ -138,6 +296,289 @@ public class JavadocAutofillConfig {
         return includePrivateMethods;
     }
 
+    /**
+     * 获取并行处理文件的线程数
+     * 
+     * @return 线程数，1表示串行处理
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * 获取解析源代码使用的Java语言级别
+     * 
+     * @return 解析源代码使用的Java语言级别
+     */
+    public String getLanguageLevel() {
+        return languageLevel;
+    }
+
+    /**
+     * 是否不将空行之前的注释归属到后面的声明
+     * 
+     * @return 是否不将空行之前的注释归属到后面的声明
+     */
+    public boolean isDoNotAssignCommentsPrecedingEmptyLines() {
+        return doNotAssignCommentsPrecedingEmptyLines;
+    }
+
+    /**
+     * 归属注释时是否忽略注解
+     * 
+     * @return 归属注释时是否忽略注解
+     */
+    public boolean isIgnoreAnnotationsWhenAttributingComments() {
+        return ignoreAnnotationsWhenAttributingComments;
+    }
+
+    /**
+     * 是否启用增量处理
+     * 
+     * @return 是否启用增量处理
+     */
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    /**
+     * 获取增量处理缓存文件
+     * 
+     * @return 增量处理缓存文件
+     */
+    public File getIncrementalCacheFile() {
+        return incrementalCacheFile;
+    }
+
+    /**
+     * 计算配置指纹
+     * 只包含会影响处理结果的配置项，任何一项变化都会导致增量缓存失效
+     * 
+     * @return 配置指纹
+     */
+    public String fingerprint() {
+        return "version=" + PluginVersion.get()
+                + ";addClassJavadoc=" + addClassJavadoc
+                + ";addMethodJavadoc=" + addMethodJavadoc
+                + ";addParamJavadoc=" + addParamJavadoc
+                + ";addReturnJavadoc=" + addReturnJavadoc
+                + ";addThrowsJavadoc=" + addThrowsJavadoc
+                + ";excludePatterns=" + excludePatterns
+                + ";includePatterns=" + includePatterns
+                + ";includePrivateMethods=" + includePrivateMethods
+                + ";languageLevel=" + languageLevel
+                + ";doNotAssignCommentsPrecedingEmptyLines=" + doNotAssignCommentsPrecedingEmptyLines
+                + ";ignoreAnnotationsWhenAttributingComments=" + ignoreAnnotationsWhenAttributingComments
+                + ";rewriteMode=" + rewriteMode
+                + ";encoding=" + encoding.name()
+                + ";rulesFile=" + describeRulesFile();
+    }
+
+    /**
+     * 描述规则文件的路径、大小和修改时间，规则文件变化时使增量缓存失效
+     *
+     * @return 规则文件描述
+     */
+    private String describeRulesFile() {
+        if (rulesFile == null) {
+            return "none";
+        }
+        return rulesFile.getAbsolutePath() + "@" + rulesFile.length() + "@" + rulesFile.lastModified();
+    }
+
+    /**
+     * 获取文件改写模式
+     * 
+     * @return 文件改写模式
+     */
+    public RewriteMode getRewriteMode() {
+        return rewriteMode;
+    }
+
+    /**
+     * 获取源文件编码
+     * 
+     * @return 源文件编码
+     */
+    public Charset getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * 是否使用分阶段流水线处理文件
+     * 
+     * @return 是否使用分阶段流水线处理文件
+     */
+    public boolean isPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * 获取流水线读取阶段的线程数
+     * 
+     * @return 流水线读取阶段的线程数
+     */
+    public int getReadThreads() {
+        return readThreads;
+    }
+
+    /**
+     * 获取流水线写入阶段的线程数
+     * 
+     * @return 流水线写入阶段的线程数
+     */
+    public int getWriteThreads() {
+        return writeThreads;
+    }
+
+    /**
+     * 获取流水线各阶段之间队列的容量
+     * 
+     * @return 流水线各阶段之间队列的容量
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * 获取包含特定文件的模式列表
+     * 
+     * @return 包含特定文件的模式列表
+     */
+    public List<String> getIncludePatterns() {
+        return includePatterns;
+    }
+
+    /**
+     * 获取需要处理的源代码根目录列表
+     * 
+     * @return 需要处理的源代码根目录列表，未配置时只包含源代码目录
+     */
+    public List<File> getSourceRoots() {
+        return sourceRoots;
+    }
+
+    /**
+     * 合并源代码目录和额外的源代码根目录，去掉重复的目录
+     * 
+     * @param sourceDir   源代码目录
+     * @param sourceRoots 额外的源代码根目录
+     * @return 源代码根目录列表
+     */
+    private static List<File> resolveSourceRoots(File sourceDir, List<File> sourceRoots) {
+        Set<File> roots = new LinkedHashSet<>();
+        if (sourceDir != null) {
+            roots.add(sourceDir.getAbsoluteFile());
+        }
+        if (sourceRoots != null) {
+            for (File root : sourceRoots) {
+                if (root != null) {
+                    roots.add(root.getAbsoluteFile());
+                }
+            }
+        }
+        return Collections.unmodifiableList(new ArrayList<>(roots));
+    }
+
+    /**
+     * 获取处理统计文件，为null时不写入
+     * 
+     * @return 处理统计文件，为null时不写入
+     */
+    public File getMetricsFile() {
+        return metricsFile;
+    }
+
+    /**
+     * 获取统计中记录的最慢文件数量
+     * 
+     * @return 统计中记录的最慢文件数量
+     */
+    public int getSlowestFiles() {
+        return slowestFiles;
+    }
+
+    /**
+     * 获取描述规则文件，为null时只使用内置规则
+     * 
+     * @return 描述规则文件，为null时只使用内置规则
+     */
+    public File getRulesFile() {
+        return rulesFile;
+    }
+
+    /**
+     * 获取每类描述最多缓存的条目数，为0时不缓存
+     * 
+     * @return 每类描述最多缓存的条目数，为0时不缓存
+     */
+    public int getDescriptionCacheSize() {
+        return descriptionCacheSize;
+    }
+
+    /**
+     * 获取在途文件的内存预算（字节），为0时不限制
+     * 
+     * @return 在途文件的内存预算（字节），为0时不限制
+     */
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * 获取只处理相对于该Git引用发生变更的文件，为null时处理全部文件
+     * 
+     * @return 只处理相对于该Git引用发生变更的文件，为null时处理全部文件
+     */
+    public String getChangedSince() {
+        return changedSince;
+    }
+
+    /**
+     * 获取只处理的变更文件列表，为null或空时不限制
+     * 
+     * @return 只处理的变更文件列表，为null或空时不限制
+     */
+    public List<File> getChangedFiles() {
+        return changedFiles;
+    }
+
+    /**
+     * 是否在完整解析前用词法扫描跳过确定不需要修改的文件
+     * 
+     * @return 是否在完整解析前用词法扫描跳过确定不需要修改的文件
+     */
+    public boolean isPrescan() {
+        return prescan;
+    }
+
+    /**
+     * 是否使用虚拟线程处理文件的读写，需要JDK 21及以上版本
+     * 
+     * @return 是否使用虚拟线程处理文件的读写
+     */
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * 是否把修改后的文件暂存起来，全部处理结束后批量提交
+     * 
+     * @return 是否把修改后的文件暂存起来，全部处理结束后批量提交
+     */
+    public boolean isTransactionalWrite() {
+        return transactionalWrite;
+    }
+
+    /**
+     * 获取批量提交时允许处理失败的文件数量，超过时放弃全部修改
+     * 
+     * @return 批量提交时允许处理失败的文件数量
+     */
+    public int getMaxFailedFiles() {
+        return maxFailedFiles;
+    }
+
     /**
      * 构建器类
      */
@@ -150,6 +591,31 @@ public class JavadocAutofillConfig {
         private boolean addThrowsJavadoc = true;
         private List<String> excludePatterns = new ArrayList<>();
         private boolean includePrivateMethods = false;
+        private int threads = 1;
+        private String languageLevel = "POPULAR";
+        private boolean doNotAssignCommentsPrecedingEmptyLines = true;
+        private boolean ignoreAnnotationsWhenAttributingComments = false;
+        private boolean incremental = false;
+        private File incrementalCacheFile = null;
+        private RewriteMode rewriteMode = RewriteMode.PRETTY_PRINT;
+        private Charset encoding = StandardCharsets.UTF_8;
+        private boolean pipeline = false;
+        private int readThreads = 2;
+        private int writeThreads = 1;
+        private int queueCapacity = 64;
+        private List<String> includePatterns = new ArrayList<>();
+        private List<File> sourceRoots = new ArrayList<>();
+        private File metricsFile = null;
+        private int slowestFiles = 10;
+        private File rulesFile = null;
+        private int descriptionCacheSize = 10000;
+        private long memoryBudget = 0;
+        private String changedSince = null;
+        private List<File> changedFiles = null;
+        private boolean prescan = false;
+        private boolean virtualThreads = false;
+        private boolean transactionalWrite = false;
+        private int maxFailedFiles = 0;
 
         /**
          * 设置源代码目录
@@ -239,6 +705,315 @@ public class JavadocAutofillConfig {
             return this;
         }
 
+        /**
+         * 设置并行处理文件的线程数
+         * 
+         * @param threads 线程数，小于1时按1处理
+         * @return 构建器
+         */
+        public Builder threads(int threads) {
+            this.threads = Math.max(1, threads);
+            return this;
+        }
+
+        /**
+         * 按照Maven的线程数写法设置并行处理文件的线程数
+         * 支持"4"这样的固定线程数，以及"1C"、"0.5C"这样按CPU核数计算的写法
+         * 
+         * @param threads 线程数表达式
+         * @return 构建器
+         * @throws IllegalArgumentException 表达式格式不正确
+         */
+        public Builder threads(String threads) {
+            return threads(parseThreadCount(threads));
+        }
+
+        /**
+         * 设置解析源代码使用的Java语言级别
+         * 
+         * @param languageLevel 解析源代码使用的Java语言级别
+         * @return 构建器
+         */
+        public Builder languageLevel(String languageLevel) {
+            this.languageLevel = languageLevel;
+            return this;
+        }
+
+        /**
+         * 设置是否不将空行之前的注释归属到后面的声明
+         * 
+         * @param doNotAssignCommentsPrecedingEmptyLines 是否不将空行之前的注释归属到后面的声明
+         * @return 构建器
+         */
+        public Builder doNotAssignCommentsPrecedingEmptyLines(boolean doNotAssignCommentsPrecedingEmptyLines) {
+            this.doNotAssignCommentsPrecedingEmptyLines = doNotAssignCommentsPrecedingEmptyLines;
+            return this;
+        }
+
+        /**
+         * 设置归属注释时是否忽略注解
+         * 
+         * @param ignoreAnnotationsWhenAttributingComments 归属注释时是否忽略注解
+         * @return 构建器
+         */
+        public Builder ignoreAnnotationsWhenAttributingComments(boolean ignoreAnnotationsWhenAttributingComments) {
+            this.ignoreAnnotationsWhenAttributingComments = ignoreAnnotationsWhenAttributingComments;
+            return this;
+        }
+
+        /**
+         * 设置是否启用增量处理
+         * 
+         * @param incremental 是否启用增量处理
+         * @return 构建器
+         */
+        public Builder incremental(boolean incremental) {
+            this.incremental = incremental;
+            return this;
+        }
+
+        /**
+         * 设置增量处理缓存文件
+         * 
+         * @param incrementalCacheFile 增量处理缓存文件
+         * @return 构建器
+         */
+        public Builder incrementalCacheFile(File incrementalCacheFile) {
+            this.incrementalCacheFile = incrementalCacheFile;
+            return this;
+        }
+
+        /**
+         * 设置文件改写模式
+         * 
+         * @param rewriteMode 文件改写模式
+         * @return 构建器
+         */
+        public Builder rewriteMode(RewriteMode rewriteMode) {
+            this.rewriteMode = rewriteMode;
+            return this;
+        }
+
+        /**
+         * 设置源文件编码
+         * 
+         * @param encoding 源文件编码
+         * @return 构建器
+         */
+        public Builder encoding(Charset encoding) {
+            this.encoding = encoding != null ? encoding : StandardCharsets.UTF_8;
+            return this;
+        }
+
+        /**
+         * 按编码名称设置源文件编码
+         * 
+         * @param encoding 源文件编码名称，为空时使用UTF-8
+         * @return 构建器
+         * @throws IllegalArgumentException 不支持的编码
+         */
+        public Builder encoding(String encoding) {
+            return encoding(encoding == null || encoding.trim().isEmpty() ? null : Charset.forName(encoding.trim()));
+        }
+
+        /**
+         * 设置是否使用分阶段流水线处理文件
+         * 
+         * @param pipeline 是否使用分阶段流水线处理文件
+         * @return 构建器
+         */
+        public Builder pipeline(boolean pipeline) {
+            this.pipeline = pipeline;
+            return this;
+        }
+
+        /**
+         * 设置流水线读取阶段的线程数
+         * 
+         * @param readThreads 流水线读取阶段的线程数
+         * @return 构建器
+         */
+        public Builder readThreads(int readThreads) {
+            this.readThreads = Math.max(1, readThreads);
+            return this;
+        }
+
+        /**
+         * 设置流水线写入阶段的线程数
+         * 
+         * @param writeThreads 流水线写入阶段的线程数
+         * @return 构建器
+         */
+        public Builder writeThreads(int writeThreads) {
+            this.writeThreads = Math.max(1, writeThreads);
+            return this;
+        }
+
+        /**
+         * 设置流水线各阶段之间队列的容量
+         * 
+         * @param queueCapacity 流水线各阶段之间队列的容量
+         * @return 构建器
+         */
+        public Builder queueCapacity(int queueCapacity) {
+            this.queueCapacity = Math.max(1, queueCapacity);
+            return this;
+        }
+
+        /**
+         * 设置包含特定文件的模式列表
+         * 
+         * @param includePatterns 包含特定文件的模式列表
+         * @return 构建器
+         */
+        public Builder includePatterns(List<String> includePatterns) {
+            this.includePatterns = includePatterns;
+            return this;
+        }
+
+        /**
+         * 设置需要处理的源代码根目录列表，与源代码目录合并后一起处理
+         * 
+         * @param sourceRoots 需要处理的源代码根目录列表
+         * @return 构建器
+         */
+        public Builder sourceRoots(List<File> sourceRoots) {
+            this.sourceRoots = sourceRoots;
+            return this;
+        }
+
+        /**
+         * 设置处理统计文件，为null时不写入
+         * 
+         * @param metricsFile 处理统计文件，为null时不写入
+         * @return 构建器
+         */
+        public Builder metricsFile(File metricsFile) {
+            this.metricsFile = metricsFile;
+            return this;
+        }
+
+        /**
+         * 设置统计中记录的最慢文件数量
+         * 
+         * @param slowestFiles 统计中记录的最慢文件数量
+         * @return 构建器
+         */
+        public Builder slowestFiles(int slowestFiles) {
+            this.slowestFiles = Math.max(0, slowestFiles);
+            return this;
+        }
+
+        /**
+         * 设置描述规则文件，为null时只使用内置规则
+         * 
+         * @param rulesFile 描述规则文件，为null时只使用内置规则
+         * @return 构建器
+         */
+        public Builder rulesFile(File rulesFile) {
+            this.rulesFile = rulesFile;
+            return this;
+        }
+
+        /**
+         * 设置每类描述最多缓存的条目数，为0时不缓存
+         * 
+         * @param descriptionCacheSize 每类描述最多缓存的条目数，为0时不缓存
+         * @return 构建器
+         */
+        public Builder descriptionCacheSize(int descriptionCacheSize) {
+            this.descriptionCacheSize = Math.max(0, descriptionCacheSize);
+            return this;
+        }
+
+        /**
+         * 设置在途文件的内存预算（字节），小于等于0时不限制
+         * 
+         * @param memoryBudget 在途文件的内存预算（字节），小于等于0时不限制
+         * @return 构建器
+         */
+        public Builder memoryBudget(long memoryBudget) {
+            this.memoryBudget = Math.max(0, memoryBudget);
+            return this;
+        }
+
+        /**
+         * 设置在途文件的内存预算
+         * 支持最大堆内存的百分比（如"50%"）、带k/m/g单位的大小（如"512m"）或字节数，"0"表示不限制
+         * 
+         * @param memoryBudget 内存预算表达式
+         * @return 构建器
+         */
+        public Builder memoryBudget(String memoryBudget) {
+            return memoryBudget(parseMemoryBudget(memoryBudget));
+        }
+
+        /**
+         * 设置只处理相对于该Git引用发生变更的文件，为null时处理全部文件
+         * 
+         * @param changedSince 只处理相对于该Git引用发生变更的文件，为null时处理全部文件
+         * @return 构建器
+         */
+        public Builder changedSince(String changedSince) {
+            this.changedSince = changedSince;
+            return this;
+        }
+
+        /**
+         * 设置只处理的变更文件列表，为null或空时不限制
+         * 
+         * @param changedFiles 只处理的变更文件列表，为null或空时不限制
+         * @return 构建器
+         */
+        public Builder changedFiles(List<File> changedFiles) {
+            this.changedFiles = changedFiles;
+            return this;
+        }
+
+        /**
+         * 设置是否在完整解析前用词法扫描跳过确定不需要修改的文件
+         * 
+         * @param prescan 是否在完整解析前用词法扫描跳过确定不需要修改的文件
+         * @return 构建器
+         */
+        public Builder prescan(boolean prescan) {
+            this.prescan = prescan;
+            return this;
+        }
+
+        /**
+         * 设置是否使用虚拟线程处理文件的读写，需要JDK 21及以上版本
+         * 
+         * @param virtualThreads 是否使用虚拟线程处理文件的读写
+         * @return 构建器
+         */
+        public Builder virtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+            return this;
+        }
+
+        /**
+         * 设置是否把修改后的文件暂存起来，全部处理结束后批量提交
+         * 
+         * @param transactionalWrite 是否把修改后的文件暂存起来，全部处理结束后批量提交
+         * @return 构建器
+         */
+        public Builder transactionalWrite(boolean transactionalWrite) {
+            this.transactionalWrite = transactionalWrite;
+            return this;
+        }
+
+        /**
+         * 设置批量提交时允许处理失败的文件数量，超过时放弃全部修改
+         * 
+         * @param maxFailedFiles 允许处理失败的文件数量，小于0时按0处理
+         * @return 构建器
+         */
+        public Builder maxFailedFiles(int maxFailedFiles) {
+            this.maxFailedFiles = Math.max(0, maxFailedFiles);
+            return this;
+        }
+
         /**
          * 构建配置对象
          * 
@@ -247,5 +1022,57 @@ public class JavadocAutofillConfig {
         public JavadocAutofillConfig build() {
             return new JavadocAutofillConfig(this);
         }
+
+        /**
+         * 解析内存预算表达式
+         *
+         * @param memoryBudget 内存预算表达式，例如"50%"、"512m"、"2g"
+         * @return 预算字节数，0表示不限制
+         * @throws IllegalArgumentException 表达式格式不正确
+         */
+        private static long parseMemoryBudget(String memoryBudget) {
+            if (memoryBudget == null || memoryBudget.trim().isEmpty()) {
+                return 0;
+            }
+            String value = memoryBudget.trim().toLowerCase(Locale.ROOT);
+            try {
+                if (value.endsWith("%")) {
+                    double percent = Double.parseDouble(value.substring(0, value.length() - 1));
+                    return (long) (Runtime.getRuntime().maxMemory() * percent / 100);
+                }
+                long unit = 1;
+                char last = value.charAt(value.length() - 1);
+                if (last == 'k' || last == 'm' || last == 'g') {
+                    unit = last == 'k' ? 1L << 10 : last == 'm' ? 1L << 20 : 1L << 30;
+                    value = value.substring(0, value.length() - 1).trim();
+                }
+                return (long) (Double.parseDouble(value) * unit);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无效的内存预算配置: " + memoryBudget, e);
+            }
+        }
+
+        /**
+         * 解析线程数表达式
+         * 
+         * @param threads 线程数表达式，例如"4"、"1C"
+         * @return 线程数
+         * @throws IllegalArgumentException 表达式格式不正确
+         */
+        private static int parseThreadCount(String threads) {
+            if (threads == null || threads.trim().isEmpty()) {
+                return 1;
+            }
+            String value = threads.trim();
+            try {
+                if (value.endsWith("C") || value.endsWith("c")) {
+                    double factor = Double.parseDouble(value.substring(0, value.length() - 1));
+                    return (int) (factor * Runtime.getRuntime().availableProcessors());
+                }
+                return Integer.parseInt(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("无效的线程数配置: " + threads, e);
+            }
+        }
     }
 }
\ No newline at end of file
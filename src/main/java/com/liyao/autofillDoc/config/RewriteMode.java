@@ -0,0 +1,17 @@
+package com.liyao.autofillDoc.config;
+
+/**
+ * 文件改写模式
+ */
+public enum RewriteMode {
+
+    /**
+     * 使用JavaParser重新格式化输出整个文件
+     */
+    PRETTY_PRINT,
+
+    /**
+     * 只替换或插入发生变更的Javadoc注释，其余内容保持逐字节不变
+     */
+    MINIMAL
+}
@@ -0,0 +1,266 @@
+package com.liyao.autofillDoc.daemon;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.exception.JavadocProcessingException;
+import com.liyao.autofillDoc.service.FileProcessingService;
+import com.liyao.autofillDoc.service.SharedState;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Javadoc自动填充守护进程
+ * 在一个长期运行的进程中处理构建发来的请求，解析器、描述规则、描述缓存和增量缓存在多次构建之间保留，
+ * JavaParser和处理器的类加载与即时编译也只需要进行一次
+ * <p>
+ * 只监听本机回环地址，请求必须携带信息文件中的随机令牌；多个请求可以同时处理，
+ * 超过空闲时间没有请求或收到停止命令后退出
+ */
+public class AutofillDaemon {
+
+    /**
+     * 读取请求的超时时间，客户端连接后应立即发送请求
+     */
+    private static final int REQUEST_TIMEOUT_MILLIS = 10000;
+
+    /**
+     * 等待连接的轮询间隔，用于检查空闲时间和停止标记
+     */
+    private static final int ACCEPT_POLL_MILLIS = 1000;
+
+    /**
+     * 请求中配置项的最大数量
+     */
+    private static final int MAX_CONFIG_ENTRIES = 100000;
+
+    private final Log log;
+    private final File infoFile;
+    private final long idleTimeoutMillis;
+    private final SharedState sharedState = new SharedState();
+    private final AtomicInteger activeRequests = new AtomicInteger();
+    private final AtomicInteger threadCount = new AtomicInteger();
+    private final String token;
+    private volatile long lastActivity;
+    private volatile boolean stopped;
+    private volatile ServerSocket serverSocket;
+
+    /**
+     * 构造函数
+     *
+     * @param log               日志对象
+     * @param infoFile          守护进程信息文件，为null时使用默认位置
+     * @param idleTimeoutMillis 空闲超时时间（毫秒），小于等于0时一直运行直到收到停止命令
+     */
+    public AutofillDaemon(Log log, File infoFile, long idleTimeoutMillis) {
+        this.log = log;
+        this.infoFile = infoFile != null ? infoFile : DaemonProtocol.defaultInfoFile();
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        byte[] random = new byte[32];
+        new SecureRandom().nextBytes(random);
+        StringBuilder hex = new StringBuilder(random.length * 2);
+        for (byte b : random) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        this.token = hex.toString();
+    }
+
+    /**
+     * 启动守护进程并处理请求，直到空闲超时或收到停止命令
+     *
+     * @throws JavadocProcessingException 无法确定插件版本、已有守护进程在运行，或者无法监听端口、写入信息文件
+     */
+    public void run() {
+        if (DaemonProtocol.pluginVersion() == null) {
+            // 版本未知时客户端无法确认守护进程运行的是同一版本的代码
+            throw new JavadocProcessingException("无法确定插件版本, 不能启动守护进程, 请使用Maven构建的插件");
+        }
+        String runningVersion = new DaemonClient(log, infoFile).ping();
+        if (runningVersion != null) {
+            throw new JavadocProcessingException("守护进程已在运行(版本 " + runningVersion + "), 信息文件: " + infoFile);
+        }
+        ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "autofill-javadoc-daemon-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (ServerSocket server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress())) {
+            serverSocket = server;
+            server.setSoTimeout(ACCEPT_POLL_MILLIS);
+            DaemonProtocol.writeInfo(infoFile, new DaemonProtocol.Info(server.getLocalPort(), token,
+                    DaemonProtocol.pluginVersion()));
+            log.info("Javadoc自动填充守护进程已启动, 端口: " + server.getLocalPort() + ", 信息文件: " + infoFile);
+            lastActivity = System.currentTimeMillis();
+            while (!stopped) {
+                Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    if (isIdle()) {
+                        log.info("守护进程空闲超过 " + (idleTimeoutMillis / 1000) + " 秒, 退出");
+                        break;
+                    }
+                    continue;
+                } catch (SocketException e) {
+                    if (stopped) {
+                        break;
+                    }
+                    throw e;
+                }
+                activeRequests.incrementAndGet();
+                lastActivity = System.currentTimeMillis();
+                executor.execute(() -> {
+                    try {
+                        handle(socket);
+                    } finally {
+                        lastActivity = System.currentTimeMillis();
+                        activeRequests.decrementAndGet();
+                    }
+                });
+            }
+        } catch (IOException e) {
+            throw new JavadocProcessingException("守护进程运行失败: " + e.getMessage(), e);
+        } finally {
+            executor.shutdown();
+            awaitRequests(executor);
+            deleteInfoFile();
+        }
+        log.info("Javadoc自动填充守护进程已停止");
+    }
+
+    /**
+     * 停止守护进程，正在处理的请求会继续完成
+     */
+    public void stop() {
+        stopped = true;
+        ServerSocket server = serverSocket;
+        if (server != null) {
+            try {
+                server.close();
+            } catch (IOException e) {
+                log.debug("关闭守护进程端口失败", e);
+            }
+        }
+    }
+
+    private boolean isIdle() {
+        return idleTimeoutMillis > 0 && activeRequests.get() == 0
+                && System.currentTimeMillis() - lastActivity >= idleTimeoutMillis;
+    }
+
+    /**
+     * 处理一个连接上的请求
+     *
+     * @param socket 客户端连接
+     */
+    private void handle(Socket socket) {
+        try (Socket client = socket) {
+            client.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(client.getOutputStream()));
+            byte[] received = DaemonProtocol.readString(in).getBytes(StandardCharsets.UTF_8);
+            if (!MessageDigest.isEqual(received, token.getBytes(StandardCharsets.UTF_8))) {
+                log.warn("拒绝令牌不正确的请求: " + client.getRemoteSocketAddress());
+                return;
+            }
+            String command = DaemonProtocol.readString(in);
+            switch (command) {
+                case DaemonProtocol.COMMAND_PING:
+                    sendOk(out);
+                    break;
+                case DaemonProtocol.COMMAND_STOP:
+                    sendOk(out);
+                    log.info("收到停止命令");
+                    stop();
+                    break;
+                case DaemonProtocol.COMMAND_AUTOFILL:
+                    boolean debugEnabled = in.readBoolean();
+                    int count = in.readInt();
+                    if (count < 0 || count > MAX_CONFIG_ENTRIES) {
+                        throw new IOException("无效的配置数量: " + count);
+                    }
+                    Map<String, String> values = new HashMap<>(count * 2);
+                    for (int i = 0; i < count; i++) {
+                        values.put(DaemonProtocol.readString(in), DaemonProtocol.readString(in));
+                    }
+                    client.setSoTimeout(0);
+                    autofill(values, new RemoteLog(out, debugEnabled));
+                    break;
+                default:
+                    log.warn("未知的守护进程命令: " + command);
+            }
+        } catch (IOException e) {
+            log.warn("处理守护进程请求失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 处理源代码目录，处理期间的日志发回客户端
+     *
+     * @param values    编码后的配置
+     * @param remoteLog 远程日志
+     * @throws IOException 发送结果失败
+     */
+    private void autofill(Map<String, String> values, RemoteLog remoteLog) throws IOException {
+        long start = System.nanoTime();
+        int processedCount;
+        try {
+            JavadocAutofillConfig config = ConfigCodec.decode(values);
+            processedCount = new FileProcessingService(remoteLog, config, sharedState).processSourceDirectory();
+        } catch (RuntimeException e) {
+            log.warn("处理请求失败: " + e.getMessage());
+            remoteLog.sendError(e.getMessage() != null ? e.getMessage() : e.toString());
+            return;
+        }
+        remoteLog.sendResult(processedCount);
+        log.info("处理请求完成, 共处理 " + processedCount + " 个文件, 耗时 "
+                + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+    }
+
+    private static void sendOk(DataOutputStream out) throws IOException {
+        out.writeByte(DaemonProtocol.FRAME_OK);
+        DaemonProtocol.writeString(out, DaemonProtocol.pluginVersion());
+        out.flush();
+    }
+
+    private void awaitRequests(ExecutorService executor) {
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * 删除信息文件；信息文件已被其他守护进程覆盖时保留
+     */
+    private void deleteInfoFile() {
+        try {
+            DaemonProtocol.Info info = DaemonProtocol.readInfo(infoFile);
+            if (info != null && token.equals(info.token)) {
+                Files.deleteIfExists(infoFile.toPath());
+            }
+        } catch (IOException e) {
+            log.debug("删除守护进程信息文件失败: " + infoFile, e);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.liyao.autofillDoc.daemon;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.config.RewriteMode;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * 配置编解码器
+ * 把配置对象转换为键值对发送给守护进程，守护进程再还原为配置对象；
+ * 文件路径一律转换为绝对路径，守护进程的工作目录与客户端不同也不影响结果
+ * <p>
+ * 内存预算已经在客户端按客户端的最大堆内存换算为字节数
+ */
+final class ConfigCodec {
+
+    private ConfigCodec() {
+    }
+
+    /**
+     * 编码配置对象
+     *
+     * @param config 配置对象
+     * @return 键值对
+     */
+    static Map<String, String> encode(JavadocAutofillConfig config) {
+        Map<String, String> values = new TreeMap<>();
+        putFile(values, "sourceDir", config.getSourceDir());
+        putList(values, "sourceRoots", config.getSourceRoots(), File::getAbsolutePath);
+        values.put("addClassJavadoc", String.valueOf(config.isAddClassJavadoc()));
+        values.put("addMethodJavadoc", String.valueOf(config.isAddMethodJavadoc()));
+        values.put("addParamJavadoc", String.valueOf(config.isAddParamJavadoc()));
+        values.put("addReturnJavadoc", String.valueOf(config.isAddReturnJavadoc()));
+        values.put("addThrowsJavadoc", String.valueOf(config.isAddThrowsJavadoc()));
+        putList(values, "excludePatterns", config.getExcludePatterns(), Function.identity());
+        putList(values, "includePatterns", config.getIncludePatterns(), Function.identity());
+        values.put("includePrivateMethods", String.valueOf(config.isIncludePrivateMethods()));
+        values.put("threads", String.valueOf(config.getThreads()));
+        putString(values, "languageLevel", config.getLanguageLevel());
+        values.put("doNotAssignCommentsPrecedingEmptyLines",
+                String.valueOf(config.isDoNotAssignCommentsPrecedingEmptyLines()));
+        values.put("ignoreAnnotationsWhenAttributingComments",
+                String.valueOf(config.isIgnoreAnnotationsWhenAttributingComments()));
+        values.put("incremental", String.valueOf(config.isIncremental()));
+        putFile(values, "incrementalCacheFile", config.getIncrementalCacheFile());
+        if (config.getRewriteMode() != null) {
+            values.put("rewriteMode", config.getRewriteMode().name());
+        }
+        values.put("encoding", config.getEncoding().name());
+        values.put("pipeline", String.valueOf(config.isPipeline()));
+        values.put("readThreads", String.valueOf(config.getReadThreads()));
+        values.put("writeThreads", String.valueOf(config.getWriteThreads()));
+        values.put("queueCapacity", String.valueOf(config.getQueueCapacity()));
+        putFile(values, "metricsFile", config.getMetricsFile());
+        values.put("slowestFiles", String.valueOf(config.getSlowestFiles()));
+        putFile(values, "rulesFile", config.getRulesFile());
+        values.put("descriptionCacheSize", String.valueOf(config.getDescriptionCacheSize()));
+        values.put("memoryBudget", String.valueOf(config.getMemoryBudget()));
+        putString(values, "changedSince", config.getChangedSince());
+        putList(values, "changedFiles", config.getChangedFiles(), File::getAbsolutePath);
+        values.put("prescan", String.valueOf(config.isPrescan()));
+        values.put("virtualThreads", String.valueOf(config.isVirtualThreads()));
+        values.put("transactionalWrite", String.valueOf(config.isTransactionalWrite()));
+        values.put("maxFailedFiles", String.valueOf(config.getMaxFailedFiles()));
+        return values;
+    }
+
+    /**
+     * 解码配置对象
+     *
+     * @param values 键值对
+     * @return 配置对象
+     * @throws IllegalArgumentException 配置值格式不正确
+     */
+    static JavadocAutofillConfig decode(Map<String, String> values) {
+        JavadocAutofillConfig.Builder builder = new JavadocAutofillConfig.Builder()
+                .sourceDir(getFile(values, "sourceDir"))
+                .sourceRoots(getList(values, "sourceRoots", File::new))
+                .addClassJavadoc(getBoolean(values, "addClassJavadoc"))
+                .addMethodJavadoc(getBoolean(values, "addMethodJavadoc"))
+                .addParamJavadoc(getBoolean(values, "addParamJavadoc"))
+                .addReturnJavadoc(getBoolean(values, "addReturnJavadoc"))
+                .addThrowsJavadoc(getBoolean(values, "addThrowsJavadoc"))
+                .excludePatterns(getList(values, "excludePatterns", Function.identity()))
+                .includePatterns(getList(values, "includePatterns", Function.identity()))
+                .includePrivateMethods(getBoolean(values, "includePrivateMethods"))
+                .threads(getInt(values, "threads"))
+                .languageLevel(values.get("languageLevel"))
+                .doNotAssignCommentsPrecedingEmptyLines(getBoolean(values, "doNotAssignCommentsPrecedingEmptyLines"))
+                .ignoreAnnotationsWhenAttributingComments(getBoolean(values, "ignoreAnnotationsWhenAttributingComments"))
+                .incremental(getBoolean(values, "incremental"))
+                .incrementalCacheFile(getFile(values, "incrementalCacheFile"))
+                .encoding(values.get("encoding"))
+                .pipeline(getBoolean(values, "pipeline"))
+                .readThreads(getInt(values, "readThreads"))
+                .writeThreads(getInt(values, "writeThreads"))
+                .queueCapacity(getInt(values, "queueCapacity"))
+                .metricsFile(getFile(values, "metricsFile"))
+                .slowestFiles(getInt(values, "slowestFiles"))
+                .rulesFile(getFile(values, "rulesFile"))
+                .descriptionCacheSize(getInt(values, "descriptionCacheSize"))
+                .memoryBudget(Long.parseLong(values.getOrDefault("memoryBudget", "0")))
+                .changedSince(values.get("changedSince"))
+                .changedFiles(getList(values, "changedFiles", File::new))
+                .prescan(getBoolean(values, "prescan"))
+                .virtualThreads(getBoolean(values, "virtualThreads"))
+                .transactionalWrite(getBoolean(values, "transactionalWrite"))
+                .maxFailedFiles(getInt(values, "maxFailedFiles"));
+        if (values.containsKey("rewriteMode")) {
+            builder.rewriteMode(RewriteMode.valueOf(values.get("rewriteMode")));
+        }
+        return builder.build();
+    }
+
+    private static void putString(Map<String, String> values, String key, String value) {
+        if (value != null) {
+            values.put(key, value);
+        }
+    }
+
+    private static void putFile(Map<String, String> values, String key, File file) {
+        if (file != null) {
+            values.put(key, file.getAbsolutePath());
+        }
+    }
+
+    /**
+     * 列表按"键.size"和"键.序号"编码，列表为null时不写入，解码后仍为null
+     */
+    private static <T> void putList(Map<String, String> values, String key, List<T> list,
+                                    Function<T, String> encoder) {
+        if (list == null) {
+            return;
+        }
+        values.put(key + ".size", String.valueOf(list.size()));
+        for (int i = 0; i < list.size(); i++) {
+            values.put(key + "." + i, encoder.apply(list.get(i)));
+        }
+    }
+
+    private static File getFile(Map<String, String> values, String key) {
+        String value = values.get(key);
+        return value != null ? new File(value) : null;
+    }
+
+    private static boolean getBoolean(Map<String, String> values, String key) {
+        return Boolean.parseBoolean(values.get(key));
+    }
+
+    private static int getInt(Map<String, String> values, String key) {
+        return Integer.parseInt(values.get(key));
+    }
+
+    private static <T> List<T> getList(Map<String, String> values, String key, Function<String, T> decoder) {
+        String size = values.get(key + ".size");
+        if (size == null) {
+            return null;
+        }
+        int count = Integer.parseInt(size);
+        List<T> list = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            list.add(decoder.apply(values.get(key + "." + i)));
+        }
+        return list;
+    }
+}
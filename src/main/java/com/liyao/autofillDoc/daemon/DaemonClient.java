@@ -0,0 +1,224 @@
+package com.liyao.autofillDoc.daemon;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.exception.JavadocProcessingException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+
+/**
+ * 守护进程客户端
+ * 把处理请求交给正在运行的守护进程，并把守护进程发回的日志输出到当前构建的日志中；
+ * 守护进程未运行、版本不一致或者连接失败时返回null，由调用方在当前进程中处理
+ */
+public class DaemonClient {
+
+    /**
+     * 连接守护进程的超时时间
+     */
+    private static final int CONNECT_TIMEOUT_MILLIS = 1000;
+
+    /**
+     * ping和stop命令等待应答的超时时间
+     */
+    private static final int REPLY_TIMEOUT_MILLIS = 5000;
+
+    private final Log log;
+    private final File infoFile;
+
+    /**
+     * 构造函数
+     *
+     * @param log      日志对象
+     * @param infoFile 守护进程信息文件，为null时使用默认位置
+     */
+    public DaemonClient(Log log, File infoFile) {
+        this.log = log;
+        this.infoFile = infoFile != null ? infoFile : DaemonProtocol.defaultInfoFile();
+    }
+
+    /**
+     * 请求守护进程处理源代码目录
+     *
+     * @param config 配置对象
+     * @return 处理的文件数量；守护进程不可用时返回null
+     * @throws JavadocProcessingException 守护进程处理失败
+     */
+    public Integer autofill(JavadocAutofillConfig config) {
+        Map<String, String> values = ConfigCodec.encode(config);
+        try (Connection connection = connect(DaemonProtocol.COMMAND_AUTOFILL)) {
+            if (connection == null) {
+                return null;
+            }
+            DataOutputStream out = connection.out;
+            out.writeBoolean(log.isDebugEnabled());
+            out.writeInt(values.size());
+            for (Map.Entry<String, String> entry : values.entrySet()) {
+                DaemonProtocol.writeString(out, entry.getKey());
+                DaemonProtocol.writeString(out, entry.getValue());
+            }
+            out.flush();
+            log.info("使用Javadoc自动填充守护进程处理, 端口: " + connection.socket.getPort());
+            return readResult(connection.in);
+        } catch (IOException e) {
+            log.warn("与守护进程的连接中断, 改为在当前进程中处理: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 检查守护进程是否可用
+     *
+     * @return 守护进程的插件版本，不可用时返回null
+     */
+    public String ping() {
+        return sendCommand(DaemonProtocol.COMMAND_PING);
+    }
+
+    /**
+     * 停止守护进程，正在处理的请求会继续完成
+     *
+     * @return 守护进程的插件版本，守护进程未运行时返回null
+     */
+    public String stop() {
+        return sendCommand(DaemonProtocol.COMMAND_STOP);
+    }
+
+    private String sendCommand(String command) {
+        try (Connection connection = connect(command)) {
+            if (connection == null) {
+                return null;
+            }
+            connection.socket.setSoTimeout(REPLY_TIMEOUT_MILLIS);
+            if (connection.in.readByte() != DaemonProtocol.FRAME_OK) {
+                return null;
+            }
+            return DaemonProtocol.readString(connection.in);
+        } catch (IOException e) {
+            log.debug("守护进程不可用: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 读取日志帧并输出，直到收到结果帧或错误帧
+     *
+     * @param in 连接的输入流
+     * @return 处理的文件数量
+     * @throws IOException                连接中断或收到无法识别的数据
+     * @throws JavadocProcessingException 守护进程处理失败
+     */
+    private Integer readResult(DataInputStream in) throws IOException {
+        while (true) {
+            byte frame = in.readByte();
+            switch (frame) {
+                case DaemonProtocol.FRAME_LOG:
+                    byte level = in.readByte();
+                    replay(level, DaemonProtocol.readString(in));
+                    break;
+                case DaemonProtocol.FRAME_RESULT:
+                    return in.readInt();
+                case DaemonProtocol.FRAME_ERROR:
+                    throw new JavadocProcessingException(DaemonProtocol.readString(in));
+                default:
+                    throw new IOException("无法识别的守护进程应答: " + frame);
+            }
+        }
+    }
+
+    private void replay(byte level, String message) {
+        switch (level) {
+            case DaemonProtocol.LEVEL_DEBUG:
+                log.debug(message);
+                break;
+            case DaemonProtocol.LEVEL_WARN:
+                log.warn(message);
+                break;
+            case DaemonProtocol.LEVEL_ERROR:
+                log.error(message);
+                break;
+            default:
+                log.info(message);
+        }
+    }
+
+    /**
+     * 连接守护进程并发送令牌和命令
+     *
+     * @param command 命令
+     * @return 连接；当前插件版本无法确定、守护进程未运行或版本不一致时返回null
+     */
+    private Connection connect(String command) {
+        String version = DaemonProtocol.pluginVersion();
+        if (version == null) {
+            log.debug("无法确定当前插件的版本, 不使用守护进程");
+            return null;
+        }
+        DaemonProtocol.Info info;
+        try {
+            info = DaemonProtocol.readInfo(infoFile);
+        } catch (IOException e) {
+            log.debug("读取守护进程信息文件失败: " + infoFile, e);
+            return null;
+        }
+        if (info == null) {
+            log.debug("守护进程未运行, 信息文件不存在: " + infoFile);
+            return null;
+        }
+        // 停止命令不涉及处理逻辑，允许停止旧版本插件启动的守护进程
+        if (!version.equals(info.version) && !DaemonProtocol.COMMAND_STOP.equals(command)) {
+            log.debug("守护进程的插件版本 " + info.version + " 与当前版本 " + version + " 不一致");
+            return null;
+        }
+        Socket socket = new Socket();
+        try {
+            socket.connect(new InetSocketAddress(InetAddress.getLoopbackAddress(), info.port), CONNECT_TIMEOUT_MILLIS);
+            Connection connection = new Connection(socket);
+            DaemonProtocol.writeString(connection.out, info.token);
+            DaemonProtocol.writeString(connection.out, command);
+            connection.out.flush();
+            return connection;
+        } catch (IOException e) {
+            log.debug("连接守护进程失败: " + e.getMessage());
+            closeQuietly(socket);
+            return null;
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException e) {
+            // 连接已经不可用，忽略关闭时的异常
+        }
+    }
+
+    /**
+     * 与守护进程的连接
+     */
+    private static final class Connection implements AutoCloseable {
+        private final Socket socket;
+        private final DataInputStream in;
+        private final DataOutputStream out;
+
+        private Connection(Socket socket) throws IOException {
+            this.socket = socket;
+            this.in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.liyao.autofillDoc.daemon;
+
+import com.liyao.autofillDoc.util.PluginVersion;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.Properties;
+
+/**
+ * 守护进程通信协议
+ * 守护进程只监听本机回环地址，启动时把端口、访问令牌和插件版本写入当前用户目录下的信息文件，客户端读取信息文件后连接
+ * <p>
+ * 每个连接只处理一个请求：客户端依次发送令牌、命令和参数，守护进程返回若干日志帧，最后返回一个结果帧或错误帧；
+ * 字符串以长度加UTF-8字节的形式传输
+ */
+final class DaemonProtocol {
+
+    /**
+     * 处理源代码目录，参数为编码后的配置
+     */
+    static final String COMMAND_AUTOFILL = "autofill";
+
+    /**
+     * 检查守护进程是否可用
+     */
+    static final String COMMAND_PING = "ping";
+
+    /**
+     * 停止守护进程
+     */
+    static final String COMMAND_STOP = "stop";
+
+    /**
+     * 日志帧：日志级别和日志内容
+     */
+    static final byte FRAME_LOG = 'L';
+
+    /**
+     * 结果帧：处理的文件数量
+     */
+    static final byte FRAME_RESULT = 'R';
+
+    /**
+     * 错误帧：错误信息
+     */
+    static final byte FRAME_ERROR = 'E';
+
+    /**
+     * 应答帧：守护进程的插件版本，用于ping和stop命令
+     */
+    static final byte FRAME_OK = 'O';
+
+    static final byte LEVEL_DEBUG = 0;
+    static final byte LEVEL_INFO = 1;
+    static final byte LEVEL_WARN = 2;
+    static final byte LEVEL_ERROR = 3;
+
+    /**
+     * 单个字符串的最大长度，防止异常数据导致分配过大的内存
+     */
+    private static final int MAX_STRING_BYTES = 16 << 20;
+
+    private static final String KEY_PORT = "port";
+    private static final String KEY_TOKEN = "token";
+    private static final String KEY_VERSION = "version";
+
+    private DaemonProtocol() {
+    }
+
+    /**
+     * 获取默认的守护进程信息文件
+     *
+     * @return 当前用户目录下的.autofill-javadoc/daemon.properties
+     */
+    static File defaultInfoFile() {
+        return new File(System.getProperty("user.home"), ".autofill-javadoc" + File.separator + "daemon.properties");
+    }
+
+    /**
+     * 获取当前插件的版本，用于确认客户端与守护进程使用同一版本的插件
+     *
+     * @return 插件版本，无法确定时返回null，此时不能使用守护进程
+     */
+    static String pluginVersion() {
+        return PluginVersion.get();
+    }
+
+    /**
+     * 写入守护进程信息文件，文件只允许当前用户读写
+     *
+     * @param infoFile 信息文件
+     * @param info     守护进程信息
+     * @throws IOException 写入失败
+     */
+    static void writeInfo(File infoFile, Info info) throws IOException {
+        Path target = infoFile.toPath().toAbsolutePath();
+        Files.createDirectories(target.getParent());
+        Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.deleteIfExists(tempFile);
+        if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tempFile, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        } else {
+            Files.createFile(tempFile);
+        }
+        Properties properties = new Properties();
+        properties.setProperty(KEY_PORT, String.valueOf(info.port));
+        properties.setProperty(KEY_TOKEN, info.token);
+        properties.setProperty(KEY_VERSION, info.version);
+        try (OutputStream out = Files.newOutputStream(tempFile)) {
+            properties.store(out, "autofill-javadoc daemon");
+        }
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 读取守护进程信息文件
+     *
+     * @param infoFile 信息文件
+     * @return 守护进程信息，文件不存在或内容不完整时返回null
+     * @throws IOException 读取失败
+     */
+    static Info readInfo(File infoFile) throws IOException {
+        if (!infoFile.isFile()) {
+            return null;
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(infoFile.toPath())) {
+            properties.load(in);
+        }
+        String port = properties.getProperty(KEY_PORT);
+        String token = properties.getProperty(KEY_TOKEN);
+        if (port == null || token == null) {
+            return null;
+        }
+        try {
+            return new Info(Integer.parseInt(port.trim()), token, properties.getProperty(KEY_VERSION, ""));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 写入字符串
+     *
+     * @param out   输出流
+     * @param value 字符串，null按空字符串写入
+     * @throws IOException 写入失败
+     */
+    static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = (value != null ? value : "").getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * 读取字符串
+     *
+     * @param in 输入流
+     * @return 字符串
+     * @throws IOException 读取失败或长度不合法
+     */
+    static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_STRING_BYTES) {
+            throw new IOException("无效的字符串长度: " + length);
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 守护进程信息
+     */
+    static final class Info {
+        final int port;
+        final String token;
+        final String version;
+
+        Info(int port, String token, String version) {
+            this.port = port;
+            this.token = token;
+            this.version = version;
+        }
+    }
+}
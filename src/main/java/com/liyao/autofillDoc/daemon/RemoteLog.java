@@ -0,0 +1,159 @@
+package com.liyao.autofillDoc.daemon;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+/**
+ * 远程日志
+ * 守护进程处理请求时把日志以日志帧的形式发回客户端，由客户端输出到构建日志中；
+ * 异常的堆栈信息拼接在日志内容之后
+ * <p>
+ * 多个工作线程可以同时写日志；客户端断开后日志被丢弃，不影响正在进行的处理
+ */
+class RemoteLog implements Log {
+
+    private final DataOutputStream out;
+    private final boolean debugEnabled;
+    private boolean broken;
+
+    /**
+     * 构造函数
+     *
+     * @param out          连接的输出流
+     * @param debugEnabled 客户端是否输出调试日志
+     */
+    RemoteLog(DataOutputStream out, boolean debugEnabled) {
+        this.out = out;
+        this.debugEnabled = debugEnabled;
+    }
+
+    /**
+     * 发送结果帧
+     *
+     * @param processedCount 处理的文件数量
+     * @throws IOException 发送失败
+     */
+    synchronized void sendResult(int processedCount) throws IOException {
+        out.writeByte(DaemonProtocol.FRAME_RESULT);
+        out.writeInt(processedCount);
+        out.flush();
+    }
+
+    /**
+     * 发送错误帧
+     *
+     * @param message 错误信息
+     * @throws IOException 发送失败
+     */
+    synchronized void sendError(String message) throws IOException {
+        out.writeByte(DaemonProtocol.FRAME_ERROR);
+        DaemonProtocol.writeString(out, message);
+        out.flush();
+    }
+
+    private synchronized void send(byte level, CharSequence content, Throwable error) {
+        if (broken) {
+            return;
+        }
+        String message = content != null ? content.toString() : "";
+        if (error != null) {
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            message = message.isEmpty() ? trace.toString() : message + System.lineSeparator() + trace;
+        }
+        try {
+            out.writeByte(DaemonProtocol.FRAME_LOG);
+            out.writeByte(level);
+            DaemonProtocol.writeString(out, message);
+            out.flush();
+        } catch (IOException e) {
+            broken = true;
+        }
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return debugEnabled;
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        debug(content, null);
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        if (debugEnabled) {
+            send(DaemonProtocol.LEVEL_DEBUG, content, error);
+        }
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        debug(null, error);
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return true;
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        send(DaemonProtocol.LEVEL_INFO, content, null);
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        send(DaemonProtocol.LEVEL_INFO, content, error);
+    }
+
+    @Override
+    public void info(Throwable error) {
+        send(DaemonProtocol.LEVEL_INFO, null, error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return true;
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        send(DaemonProtocol.LEVEL_WARN, content, null);
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        send(DaemonProtocol.LEVEL_WARN, content, error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        send(DaemonProtocol.LEVEL_WARN, null, error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return true;
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        send(DaemonProtocol.LEVEL_ERROR, content, null);
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        send(DaemonProtocol.LEVEL_ERROR, content, error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        send(DaemonProtocol.LEVEL_ERROR, null, error);
+    }
+}
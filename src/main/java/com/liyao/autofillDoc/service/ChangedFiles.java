@@ -0,0 +1,162 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.exception.JavadocProcessingException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 变更文件集合
+ * 只处理变更文件时，待处理的文件来自本地Git仓库中相对于指定引用的变更，或者直接指定的文件列表，而不是遍历整个源代码目录
+ * <p>
+ * 相对于引用的变更包括：从引用与HEAD的分叉点到当前工作区之间修改、新增或重命名的已跟踪文件，以及未被忽略的未跟踪文件；
+ * 只在本地执行git命令，不访问远程仓库
+ */
+public class ChangedFiles {
+
+    private ChangedFiles() {
+    }
+
+    /**
+     * 获取变更文件
+     *
+     * @param changedSince Git引用，例如origin/main，为null或空时不使用Git
+     * @param changedFiles 直接指定的变更文件，可以为null
+     * @param workDir      执行git命令的目录，应位于Git仓库中
+     * @param log          日志对象
+     * @return 变更文件的绝对路径，按路径排序；两者都没有配置时返回null
+     * @throws JavadocProcessingException 执行git命令失败
+     */
+    public static Set<Path> resolve(String changedSince, List<File> changedFiles, File workDir, Log log) {
+        boolean useGit = changedSince != null && !changedSince.trim().isEmpty();
+        if (!useGit && (changedFiles == null || changedFiles.isEmpty())) {
+            return null;
+        }
+        Set<Path> files = new TreeSet<>();
+        if (changedFiles != null) {
+            for (File file : changedFiles) {
+                if (file != null) {
+                    files.add(file.toPath().toAbsolutePath().normalize());
+                }
+            }
+        }
+        if (useGit) {
+            files.addAll(fromGit(changedSince.trim(), workDir, log));
+        }
+        return files;
+    }
+
+    /**
+     * 获取相对于Git引用的变更文件
+     *
+     * @param ref     Git引用
+     * @param workDir 执行git命令的目录
+     * @param log     日志对象
+     * @return 变更文件的绝对路径
+     * @throws JavadocProcessingException 执行git命令失败
+     */
+    static Set<Path> fromGit(String ref, File workDir, Log log) {
+        Path topLevel = new File(firstLine(git(workDir, "rev-parse", "--show-toplevel"))).toPath();
+        String mergeBase = firstLine(git(workDir, "merge-base", ref, "HEAD"));
+        log.debug("变更文件基准: " + ref + " (" + mergeBase + ")");
+
+        Set<Path> files = new TreeSet<>();
+        // 与工作区比较，包含尚未提交的修改；已删除的文件不需要处理
+        for (String name : split(git(workDir, "diff", "--name-only", "-z", "--diff-filter=d", mergeBase, "--"))) {
+            files.add(topLevel.resolve(name).normalize());
+        }
+        for (String name : split(git(workDir, "ls-files", "--others", "--exclude-standard", "-z", "--full-name",
+                ":/"))) {
+            files.add(topLevel.resolve(name).normalize());
+        }
+        return files;
+    }
+
+    /**
+     * 执行git命令并返回标准输出
+     *
+     * @param workDir 工作目录
+     * @param args    git参数
+     * @return 标准输出
+     * @throws JavadocProcessingException 命令无法执行或返回非0退出码
+     */
+    private static String git(File workDir, String... args) {
+        List<String> command = new ArrayList<>(args.length + 1);
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        Process process;
+        try {
+            process = new ProcessBuilder(command).directory(workDir).start();
+        } catch (IOException e) {
+            throw new JavadocProcessingException("无法执行git命令, 请确认已安装git: " + String.join(" ", command), e);
+        }
+        try {
+            process.getOutputStream().close();
+            // git的错误输出很短，先读完标准输出再读错误输出不会阻塞
+            String output = readFully(process.getInputStream());
+            String error = readFully(process.getErrorStream());
+            int exitCode = process.waitFor();
+            if (exitCode != 0) {
+                throw new JavadocProcessingException("git命令执行失败(" + exitCode + "): " + String.join(" ", command)
+                        + (error.trim().isEmpty() ? "" : ", " + error.trim()));
+            }
+            return output;
+        } catch (IOException e) {
+            throw new JavadocProcessingException("读取git命令输出失败: " + String.join(" ", command), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JavadocProcessingException("等待git命令被中断: " + String.join(" ", command), e);
+        } finally {
+            process.destroy();
+        }
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = in.read(chunk)) != -1) {
+            buffer.write(chunk, 0, read);
+        }
+        return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static String firstLine(String output) {
+        int end = output.indexOf('\n');
+        return (end < 0 ? output : output.substring(0, end)).trim();
+    }
+
+    /**
+     * 按NUL分隔符拆分git的-z输出
+     */
+    private static List<String> split(String output) {
+        if (output.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<String> names = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < output.length(); i++) {
+            if (output.charAt(i) == '\0') {
+                if (i > start) {
+                    names.add(output.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        if (start < output.length()) {
+            names.add(output.substring(start));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,128 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.util.DescriptionRules;
+import com.liyao.autofillDoc.util.JavadocUtils;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 描述缓存
+ * 参数名、返回值类型和异常名在整个项目中大量重复，生成的描述只取决于名称、类型和描述规则，
+ * 因此按输入缓存生成结果，避免对同一个名称反复执行正则替换和关键字匹配
+ * <p>
+ * 每类描述最多缓存指定数量的条目，缓存满后新的输入直接计算而不再加入缓存；可以被多个线程同时使用
+ * 通过{@link #withMetrics(ProcessingMetrics)}可以在多次运行之间共享缓存内容，各次运行分别记录命中次数
+ */
+public class DescriptionCache {
+
+    private final DescriptionRules rules;
+    private final ProcessingMetrics metrics;
+    private final int maxEntries;
+    private final Map<String, String> paramDescriptions;
+    private final Map<String, String> returnDescriptions;
+    private final Map<String, String> throwsDescriptions;
+
+    /**
+     * 构造函数
+     *
+     * @param rules      描述规则
+     * @param metrics    处理统计，记录命中和未命中次数
+     * @param maxEntries 每类描述最多缓存的条目数，为0时不缓存
+     */
+    public DescriptionCache(DescriptionRules rules, ProcessingMetrics metrics, int maxEntries) {
+        this.rules = rules;
+        this.metrics = metrics;
+        this.maxEntries = Math.max(0, maxEntries);
+        this.paramDescriptions = new ConcurrentHashMap<>();
+        this.returnDescriptions = new ConcurrentHashMap<>();
+        this.throwsDescriptions = new ConcurrentHashMap<>();
+    }
+
+    private DescriptionCache(DescriptionCache shared, ProcessingMetrics metrics) {
+        this.rules = shared.rules;
+        this.metrics = metrics;
+        this.maxEntries = shared.maxEntries;
+        this.paramDescriptions = shared.paramDescriptions;
+        this.returnDescriptions = shared.returnDescriptions;
+        this.throwsDescriptions = shared.throwsDescriptions;
+    }
+
+    /**
+     * 创建共享缓存内容、使用另一个处理统计的缓存
+     *
+     * @param metrics 处理统计
+     * @return 共享缓存内容的描述缓存
+     */
+    public DescriptionCache withMetrics(ProcessingMetrics metrics) {
+        return new DescriptionCache(this, metrics);
+    }
+
+    /**
+     * 获取参数描述，泛型参数类型会以清理尖括号后的形式附加在描述后面
+     *
+     * @param paramName 参数名称
+     * @param paramType 参数类型
+     * @return 参数描述
+     */
+    public String paramDescription(String paramName, String paramType) {
+        String key = paramName + ' ' + paramType;
+        String description = lookup(paramDescriptions, key);
+        if (description == null) {
+            description = JavadocUtils.generateParamDescription(paramName, rules);
+            if (paramType.contains("<")) {
+                description += "，类型为 " + JavadocUtils.cleanAngleBrackets(paramType);
+            }
+            store(paramDescriptions, key, description);
+        }
+        return description;
+    }
+
+    /**
+     * 获取返回值描述
+     *
+     * @param returnType 返回值类型
+     * @return 返回值描述
+     */
+    public String returnDescription(String returnType) {
+        String description = lookup(returnDescriptions, returnType);
+        if (description == null) {
+            description = JavadocUtils.generateReturnDescription(returnType, rules);
+            store(returnDescriptions, returnType, description);
+        }
+        return description;
+    }
+
+    /**
+     * 获取异常描述
+     *
+     * @param exceptionName 异常名称
+     * @return 异常描述
+     */
+    public String throwsDescription(String exceptionName) {
+        String description = lookup(throwsDescriptions, exceptionName);
+        if (description == null) {
+            description = JavadocUtils.generateThrowsDescription(exceptionName, rules);
+            store(throwsDescriptions, exceptionName, description);
+        }
+        return description;
+    }
+
+    private String lookup(Map<String, String> cache, String key) {
+        if (maxEntries == 0) {
+            return null;
+        }
+        String description = cache.get(key);
+        metrics.increment(description != null
+                ? ProcessingMetrics.Counter.DESCRIPTION_CACHE_HITS
+                : ProcessingMetrics.Counter.DESCRIPTION_CACHE_MISSES);
+        return description;
+    }
+
+    private void store(Map<String, String> cache, String key, String description) {
+        // 多个线程同时计算同一个输入时结果相同，覆盖也没有问题
+        if (maxEntries > 0 && cache.size() < maxEntries) {
+            cache.put(key, description);
+        }
+    }
+}
@@ -2,15 +2,33 @@ package com.liyao.autofillDoc.service;
 
 import com.liyao.autofillDoc.config.JavadocAutofillConfig;
 import com.liyao.autofillDoc.exception.JavadocProcessingException;
+import com.liyao.autofillDoc.util.PathPatternMatcher;
 import org.apache.maven.plugin.logging.Log;
 
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.nio.file.FileVisitResult;
 import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.stream.Stream;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 /**
  * 文件处理服务
@@ -21,6 +39,21 @@ public class FileProcessingService {
     private final Log log;
     private final JavadocAutofillConfig config;
     private final JavadocProcessor javadocProcessor;
+    private final IncrementalCache incrementalCache;
+    private final SourceFileWriter writer;
+    private final PathPatternMatcher pathMatcher;
+    private final ProcessingMetrics metrics;
+    private final MemoryBudget memoryBudget;
+    private final SharedState sharedState;
+    private final ThreadFactory virtualThreadFactory;
+    private final Semaphore parsePermits;
+    private final WriteTransaction transaction;
+    private final Map<Path, StagedContent> stagedContents = new ConcurrentHashMap<>();
+
+    /**
+     * 已开始处理但既没有完成也没有记录为失败的文件数，处理结束后不为0说明有文件的处理线程意外退出
+     */
+    private final AtomicInteger unfinishedFiles = new AtomicInteger();
 
     /**
      * 构造函数
@@ -29,9 +62,40 @@ public class FileProcessingService {
      * @param config 配置对象
      */
     public FileProcessingService(Log log, JavadocAutofillConfig config) {
+        this(log, config, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param log         日志对象
+     * @param config      配置对象
+     * @param sharedState 多次运行之间共享的状态，为null时每次运行都从头创建解析器和缓存
+     */
+    public FileProcessingService(Log log, JavadocAutofillConfig config, SharedState sharedState) {
         this.log = log;
         this.config = config;
-        this.javadocProcessor = new JavadocProcessor(log, config);
+        this.sharedState = sharedState;
+        this.metrics = new ProcessingMetrics(config.getSlowestFiles());
+        this.memoryBudget = new MemoryBudget(config.getMemoryBudget(), metrics);
+        this.javadocProcessor = new JavadocProcessor(log, config, metrics, sharedState);
+        if (config.isIncremental() && config.getIncrementalCacheFile() != null) {
+            Path cacheFile = config.getIncrementalCacheFile().toPath();
+            this.incrementalCache = sharedState != null
+                    ? sharedState.borrowIncrementalCache(cacheFile, config.fingerprint(), log)
+                    : IncrementalCache.load(cacheFile, config.fingerprint(), log);
+        } else {
+            this.incrementalCache = null;
+        }
+        this.writer = new SourceFileWriter();
+        this.transaction = config.isTransactionalWrite() ? new WriteTransaction() : null;
+        this.pathMatcher = new PathPatternMatcher(config.getExcludePatterns(), config.getIncludePatterns());
+        this.virtualThreadFactory = config.isVirtualThreads() ? VirtualThreads.factory("autofill-javadoc-vt-") : null;
+        if (config.isVirtualThreads() && virtualThreadFactory == null) {
+            log.warn("当前JDK不支持虚拟线程(需要JDK 21及以上版本), 使用普通线程池处理文件");
+        }
+        // 虚拟线程模式下读写不限并发，解析转换的并发数仍限制为配置的线程数
+        this.parsePermits = virtualThreadFactory != null ? new Semaphore(config.getThreads()) : null;
     }
 
     /**
@@ -41,17 +105,18 @@ public class FileProcessingService {
      * @throws JavadocProcessingException 处理异常
      */
     public int processSourceDirectory() {
-        File sourceDir = config.getSourceDir();
-
-        if (!sourceDir.exists()) {
-            log.warn("源代码目录不存在: " + sourceDir);
+        List<File> sourceRoots = existingSourceRoots();
+        if (sourceRoots.isEmpty()) {
             return 0;
         }
 
         AtomicInteger processedCount = new AtomicInteger(0);
+        AtomicInteger upToDateCount = new AtomicInteger(0);
         List<String> excludePatterns = config.getExcludePatterns();
+        List<String> includePatterns = config.getIncludePatterns();
 
-        log.info("开始处理Java文件, 排除模式数量: " + (excludePatterns != null ? excludePatterns.size() : 0));
+        log.info("开始处理Java文件, 排除模式数量: " + (excludePatterns != null ? excludePatterns.size() : 0)
+                + ", 包含模式数量: " + (includePatterns != null ? includePatterns.size() : 0));
 
         if (!config.isIncludePrivateMethods()) {
             log.info("isIncludePrivateMethods设置为false, 跳过私有方法处理");
@@ -77,47 +142,798 @@ public class FileProcessingService {
             log.info("addMethodJavadoc设置为false, 跳过方法注释处理");
         }
 
-        try (Stream<Path> paths = Files.walk(sourceDir.toPath())) {
-            paths.filter(path -> path.toString().endsWith(".java"))
-                    .forEach(path -> {
-                        try {
-                            boolean fileModified = processJavaFile(path.toFile());
-                            if (fileModified) {
-                                processedCount.incrementAndGet();
-                            }
-                        } catch (JavadocProcessingException e) {
-                            // 记录异常但继续处理其他文件
-                            log.error(e.getMessage(), e.getCause());
-                        }
-                    });
-        } catch (IOException e) {
-            log.error("遍历Java文件失败", e);
-            throw new JavadocProcessingException("遍历源代码目录失败: " + sourceDir, e);
+        if (memoryBudget.getBudgetBytes() > 0) {
+            log.info("在途文件内存预算: " + (memoryBudget.getBudgetBytes() >> 20) + " MB");
+        }
+
+        List<JavadocProcessingException> failures = Collections.synchronizedList(new ArrayList<>());
+        unfinishedFiles.set(0);
+        try {
+            if (config.isPipeline()) {
+                if (virtualThreadFactory != null) {
+                    log.info("流水线模式下各阶段使用固定的线程, 不使用虚拟线程");
+                }
+                processInPipeline(sourceRoots, processedCount, upToDateCount, failures);
+            } else {
+                List<Path> javaFiles = collectJavaFiles(sourceRoots);
+                forEachFile(javaFiles, path -> processFile(path, processedCount, upToDateCount, failures));
+            }
+        } catch (RuntimeException | Error e) {
+            // 处理中断时暂存的修改不能提交，删除临时文件后源代码保持不变
+            if (transaction != null) {
+                int staged = transaction.size();
+                transaction.rollback();
+                discardStagedContents(staged);
+            }
+            throw e;
+        }
+
+        int unfinished = unfinishedFiles.get();
+        if (unfinished > 0) {
+            metrics.add(ProcessingMetrics.Counter.FILES_FAILED, unfinished);
+            failures.add(new JavadocProcessingException("有 " + unfinished + " 个文件没有完成处理"));
         }
 
+        if (transaction != null && !commitTransaction(failures, unfinished)) {
+            processedCount.set(0);
+        }
+
+        if (incrementalCache != null) {
+            incrementalCache.save();
+            if (sharedState != null) {
+                sharedState.returnIncrementalCache(incrementalCache, config.getIncrementalCacheFile().toPath());
+            }
+            if (upToDateCount.get() > 0) {
+                log.info("增量处理: 跳过 " + upToDateCount.get() + " 个未变化的文件");
+            }
+        }
+
+        logFailures(failures);
+
         if (processedCount.get() == 0) {
             log.info("未找到需要处理的Java文件");
         }
+
+        reportMetrics();
          
         return processedCount.get();
     }
 
+    /**
+     * 获取处理统计
+     *
+     * @return 处理统计
+     */
+    public ProcessingMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * 输出处理统计摘要并写入统计文件，写入失败不影响处理结果
+     */
+    private void reportMetrics() {
+        metrics.logSummary(log);
+        File metricsFile = config.getMetricsFile();
+        if (metricsFile == null) {
+            return;
+        }
+        try {
+            metrics.writeJson(metricsFile.toPath());
+            log.info("处理统计文件: " + metricsFile);
+        } catch (IOException e) {
+            log.warn("写入处理统计文件失败: " + metricsFile, e);
+        }
+    }
+
+    /**
+     * 使用分阶段流水线处理Java文件
+     * 文件发现、读取、解析转换和写入各自使用独立的线程，阶段之间通过有界队列衔接，
+     * 磁盘等待与解析计算可以重叠进行，队列容量限制了同时驻留在内存中的文件数量，内存预算限制了这些文件的总大小
+     *
+     * @param sourceRoots    源代码根目录列表
+     * @param processedCount 已处理文件计数
+     * @param upToDateCount  未变化而跳过的文件计数
+     * @param failures       处理失败的异常列表
+     * @throws JavadocProcessingException 遍历目录失败或处理被中断
+     */
+    private void processInPipeline(List<File> sourceRoots, AtomicInteger processedCount, AtomicInteger upToDateCount,
+            List<JavadocProcessingException> failures) {
+        log.info("使用流水线处理Java文件, 读取线程数: " + config.getReadThreads()
+                + ", 解析线程数: " + config.getThreads() + ", 写入线程数: " + config.getWriteThreads()
+                + ", 队列容量: " + config.getQueueCapacity());
+        ProcessingPipeline pipeline = new ProcessingPipeline(log, config.getQueueCapacity());
+        pipeline.<Path, InFlightFile, InFlightFile>run(
+                sink -> {
+                    // 流水线模式下遍历耗时包含等待下游队列的时间
+                    ProcessingMetrics.PhaseTimer timer = metrics.start(ProcessingMetrics.Phase.WALK);
+                    try {
+                        walkJavaFiles(sourceRoots, sink);
+                    } finally {
+                        timer.stop();
+                    }
+                },
+                path -> {
+                    unfinishedFiles.incrementAndGet();
+                    InFlightFile file;
+                    try {
+                        file = readStage(path, upToDateCount);
+                    } catch (Exception | StackOverflowError e) {
+                        recordFailure(path, e, failures);
+                        file = null;
+                    }
+                    if (file == null) {
+                        unfinishedFiles.decrementAndGet();
+                    }
+                    return file;
+                }, config.getReadThreads(),
+                file -> {
+                    boolean forwarded = false;
+                    try {
+                        file.content = transformStage(file);
+                        if (file.content == null) {
+                            writeStage(file.source, null);
+                        } else {
+                            forwarded = true;
+                        }
+                    } catch (Exception | StackOverflowError e) {
+                        recordFailure(file.source.getPath(), e, failures);
+                    } finally {
+                        // 传递给写入阶段的文件由写入阶段释放预留，其余情况在这里释放，包括取消流水线的错误
+                        if (!forwarded) {
+                            file.reservation.close();
+                        }
+                    }
+                    if (!forwarded) {
+                        unfinishedFiles.decrementAndGet();
+                        return null;
+                    }
+                    return file;
+                }, config.getThreads(),
+                file -> {
+                    try {
+                        if (writeStage(file.source, file.content)) {
+                            processedCount.incrementAndGet();
+                        }
+                    } catch (Exception | StackOverflowError e) {
+                        recordFailure(file.source.getPath(), e, failures);
+                    } finally {
+                        file.reservation.close();
+                    }
+                    unfinishedFiles.decrementAndGet();
+                }, config.getWriteThreads());
+    }
+
+    /**
+     * 提交批量写入事务
+     * 处理失败的文件数超过允许的数量，或者有文件没有完成处理时放弃全部修改；
+     * 替换过程中出错时已替换的文件会恢复为原始内容，错误加入失败列表
+     *
+     * @param failures   处理失败的异常列表
+     * @param unfinished 没有完成处理的文件数
+     * @return 修改是否已提交
+     */
+    private boolean commitTransaction(List<JavadocProcessingException> failures, int unfinished) {
+        int staged = transaction.size();
+        if (staged == 0) {
+            return true;
+        }
+        if (unfinished > 0) {
+            transaction.rollback();
+            discardStagedContents(staged);
+            log.error("有 " + unfinished + " 个文件没有完成处理, 放弃全部 " + staged + " 个文件的修改, 源代码保持不变");
+            return false;
+        }
+        if (failures.size() > config.getMaxFailedFiles()) {
+            transaction.rollback();
+            discardStagedContents(staged);
+            log.error("有 " + failures.size() + " 个文件处理失败, 超过允许的 " + config.getMaxFailedFiles()
+                    + " 个, 放弃全部 " + staged + " 个文件的修改, 源代码保持不变");
+            return false;
+        }
+        List<Path> committed;
+        ProcessingMetrics.PhaseTimer timer = metrics.start(ProcessingMetrics.Phase.COMMIT);
+        try {
+            committed = transaction.commit();
+        } catch (IOException | RuntimeException e) {
+            discardStagedContents(staged);
+            metrics.increment(ProcessingMetrics.Counter.FILES_FAILED);
+            failures.add(new JavadocProcessingException("提交修改失败, 已回滚全部 " + staged + " 个文件的修改: "
+                    + e.getMessage(), e));
+            return false;
+        } finally {
+            timer.stop();
+        }
+        for (Path path : committed) {
+            metrics.increment(ProcessingMetrics.Counter.FILES_WRITTEN);
+            log.info("处理完成: " + path);
+            StagedContent content = stagedContents.remove(path);
+            if (content != null) {
+                try {
+                    incrementalCache.record(path, content.size, content.digest);
+                } catch (IOException e) {
+                    incrementalCache.invalidate(path);
+                }
+            }
+        }
+        log.info("批量提交 " + committed.size() + " 个文件的修改");
+        return true;
+    }
+
+    /**
+     * 放弃暂存的修改，使这些文件的缓存记录失效以便下次重新处理
+     *
+     * @param staged 暂存的文件数量
+     */
+    private void discardStagedContents(int staged) {
+        metrics.add(ProcessingMetrics.Counter.FILES_ROLLED_BACK, staged);
+        for (Path path : stagedContents.keySet()) {
+            incrementalCache.invalidate(path);
+        }
+        stagedContents.clear();
+    }
+
+    /**
+     * 检查源代码目录中缺失的Javadoc
+     * 只解析和分析文件，不生成新内容也不写入文件，不使用增量缓存
+     *
+     * @return 检查报告
+     * @throws JavadocProcessingException 处理异常
+     */
+    public JavadocCheckReport checkSourceDirectory() {
+        JavadocCheckReport report = new JavadocCheckReport();
+        List<File> sourceRoots = existingSourceRoots();
+        if (sourceRoots.isEmpty()) {
+            return report;
+        }
+
+        List<Path> javaFiles = collectJavaFiles(sourceRoots);
+        List<JavadocProcessingException> failures = Collections.synchronizedList(new ArrayList<>());
+        forEachFile(javaFiles, path -> checkFile(path, report, failures));
+        logFailures(failures);
+        return report;
+    }
+
+    /**
+     * 获取存在的源代码根目录
+     *
+     * @return 源代码根目录列表
+     */
+    private List<File> existingSourceRoots() {
+        List<File> sourceRoots = new ArrayList<>();
+        for (File sourceRoot : config.getSourceRoots()) {
+            if (sourceRoot.exists()) {
+                sourceRoots.add(sourceRoot);
+            } else {
+                log.debug("源代码目录不存在: " + sourceRoot);
+            }
+        }
+        if (sourceRoots.isEmpty()) {
+            log.warn("源代码目录不存在: " + config.getSourceRoots());
+        } else if (sourceRoots.size() > 1) {
+            log.info("处理 " + sourceRoots.size() + " 个源代码目录");
+        }
+        return sourceRoots;
+    }
+
+    /**
+     * 收集源代码根目录下的所有Java文件
+     *
+     * @param sourceRoots 源代码根目录列表
+     * @return Java文件列表
+     * @throws JavadocProcessingException 遍历目录失败
+     */
+    private List<Path> collectJavaFiles(List<File> sourceRoots) {
+        List<Path> javaFiles = new ArrayList<>();
+        ProcessingMetrics.PhaseTimer timer = metrics.start(ProcessingMetrics.Phase.WALK);
+        try {
+            walkJavaFiles(sourceRoots, javaFiles::add);
+        } catch (IOException e) {
+            log.error("遍历Java文件失败", e);
+            throw new JavadocProcessingException("遍历源代码目录失败: " + sourceRoots, e);
+        } finally {
+            timer.stop();
+        }
+        return javaFiles;
+    }
+
+    /**
+     * 遍历所有源代码根目录下需要处理的Java文件
+     * 根目录之间存在嵌套时，同一个文件只会被处理一次；配置了变更文件时只处理其中位于源代码根目录下的文件，不遍历目录
+     *
+     * @param sourceRoots 源代码根目录列表
+     * @param action      对每个Java文件执行的操作
+     * @throws IOException 遍历目录失败
+     */
+    private void walkJavaFiles(List<File> sourceRoots, Consumer<Path> action) throws IOException {
+        Set<Path> changedFiles = ChangedFiles.resolve(config.getChangedSince(), config.getChangedFiles(),
+                sourceRoots.get(0), log);
+        if (changedFiles != null) {
+            visitChangedFiles(sourceRoots, changedFiles, action);
+            return;
+        }
+        if (sourceRoots.size() == 1) {
+            walkJavaFiles(sourceRoots.get(0), action);
+            return;
+        }
+        Set<Path> visited = new HashSet<>();
+        for (File sourceRoot : sourceRoots) {
+            walkJavaFiles(sourceRoot, path -> {
+                if (visited.add(path.toAbsolutePath().normalize())) {
+                    action.accept(path);
+                }
+            });
+        }
+    }
+
+    /**
+     * 处理变更文件中位于源代码根目录下的Java文件，排除模式与遍历目录时相同
+     * 文件位于多个嵌套的根目录下时，排除模式相对于列表中第一个包含它的根目录匹配
+     *
+     * @param sourceRoots  源代码根目录列表
+     * @param changedFiles 变更文件的绝对路径
+     * @param action       对每个Java文件执行的操作
+     */
+    private void visitChangedFiles(List<File> sourceRoots, Set<Path> changedFiles, Consumer<Path> action) {
+        List<Path> roots = new ArrayList<>(sourceRoots.size());
+        for (File sourceRoot : sourceRoots) {
+            roots.add(sourceRoot.toPath().toAbsolutePath().normalize());
+        }
+        int matched = 0;
+        for (Path file : changedFiles) {
+            if (!file.toString().endsWith(".java") || !Files.isRegularFile(file)) {
+                continue;
+            }
+            Path root = null;
+            for (Path candidate : roots) {
+                if (file.startsWith(candidate)) {
+                    root = candidate;
+                    break;
+                }
+            }
+            if (root == null) {
+                continue;
+            }
+            matched++;
+            metrics.increment(ProcessingMetrics.Counter.FILES_DISCOVERED);
+            if (pathMatcher.isExcluded(root, file)) {
+                metrics.increment(ProcessingMetrics.Counter.FILES_EXCLUDED);
+                log.info("根据排除模式跳过文件: " + file);
+            } else {
+                action.accept(file);
+            }
+        }
+        log.info("只处理变更文件: 共 " + changedFiles.size() + " 个变更文件, 其中 " + matched + " 个位于源代码目录中");
+    }
+
+    /**
+     * 遍历源代码目录下所有需要处理的Java文件
+     * 被排除模式整体覆盖的目录直接跳过，不会再访问其中的文件
+     *
+     * @param sourceDir 源代码目录
+     * @param action    对每个Java文件执行的操作
+     * @throws IOException 遍历目录失败
+     */
+    private void walkJavaFiles(File sourceDir, Consumer<Path> action) throws IOException {
+        Path root = sourceDir.toPath();
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root) && pathMatcher.isExcludedDirectory(root, dir)) {
+                    log.info("根据排除模式跳过目录: " + dir);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (file.toString().endsWith(".java")) {
+                    metrics.increment(ProcessingMetrics.Counter.FILES_DISCOVERED);
+                    if (pathMatcher.isExcluded(root, file)) {
+                        metrics.increment(ProcessingMetrics.Counter.FILES_EXCLUDED);
+                        log.info("根据排除模式跳过文件: " + file);
+                    } else {
+                        action.accept(file);
+                    }
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 按配置的线程数对每个Java文件执行任务
+     *
+     * @param javaFiles 待处理的Java文件列表
+     * @param task      单个文件的处理任务，不应抛出异常
+     * @throws JavadocProcessingException 处理被中断
+     */
+    private void forEachFile(List<Path> javaFiles, Consumer<Path> task) {
+        int threads = Math.min(config.getThreads(), javaFiles.size());
+        if (virtualThreadFactory != null && javaFiles.size() > 1) {
+            log.info("使用虚拟线程处理 " + javaFiles.size() + " 个Java文件, 解析线程数: " + config.getThreads()
+                    + ", 同时处理的文件数: " + config.getQueueCapacity());
+            processOnVirtualThreads(javaFiles, task);
+        } else if (threads > 1) {
+            log.info("并行处理 " + javaFiles.size() + " 个Java文件, 线程数: " + threads);
+            processInParallel(javaFiles, threads, task);
+        } else {
+            javaFiles.forEach(task);
+        }
+    }
+
+    /**
+     * 统一输出失败信息，避免多线程下的异常堆栈交错
+     *
+     * @param failures 处理失败的异常列表
+     */
+    private void logFailures(List<JavadocProcessingException> failures) {
+        for (JavadocProcessingException failure : failures) {
+            log.error(failure.getMessage(), failure.getCause());
+        }
+        if (!failures.isEmpty()) {
+            log.warn("共有 " + failures.size() + " 个文件处理失败");
+        }
+    }
+
+    /**
+     * 使用固定大小的线程池并行处理Java文件
+     *
+     * @param javaFiles 待处理的Java文件列表
+     * @param threads   线程数
+     * @param task      单个文件的处理任务
+     * @throws JavadocProcessingException 处理被中断
+     */
+    private void processInParallel(List<Path> javaFiles, int threads, Consumer<Path> task) {
+        AtomicInteger threadIndex = new AtomicInteger(0);
+        ExecutorService executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "autofill-javadoc-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<?>> futures = new ArrayList<>(javaFiles.size());
+        Throwable failure = null;
+        try {
+            for (Path path : javaFiles) {
+                futures.add(executor.submit(() -> task.accept(path)));
+            }
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.debug("等待Java文件处理完成...");
+            }
+            // 任务本身不抛出异常，这里取到的都是无法按单个文件失败处理的错误
+            for (Future<?> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JavadocProcessingException("并行处理Java文件被中断", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        if (failure != null) {
+            rethrow(failure);
+        }
+    }
+
+    /**
+     * 重新抛出工作线程中发生的错误，错误保持原样，其他异常包装为JavadocProcessingException
+     *
+     * @param failure 工作线程中发生的错误
+     * @throws JavadocProcessingException 工作线程中发生了异常
+     */
+    private static void rethrow(Throwable failure) {
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure instanceof JavadocProcessingException) {
+            throw (JavadocProcessingException) failure;
+        }
+        throw new JavadocProcessingException("处理Java文件失败: " + failure.getMessage(), failure);
+    }
+
+    /**
+     * 为每个Java文件启动一个虚拟线程
+     * 读取和写入等待磁盘时只占用虚拟线程，不占用平台线程；解析转换前需要获取解析许可，
+     * 因此占用CPU的并发数不超过配置的线程数。同时处理的文件数受队列容量限制，避免一次打开过多文件
+     * <p>
+     * 任务中发生的错误在所有虚拟线程结束后重新抛出，发生错误后不再启动新的文件
+     *
+     * @param javaFiles 待处理的Java文件列表
+     * @param task      单个文件的处理任务，不应抛出异常
+     * @throws JavadocProcessingException 处理被中断
+     */
+    private void processOnVirtualThreads(List<Path> javaFiles, Consumer<Path> task) {
+        int maxInFlight = config.getQueueCapacity();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Set<Thread> running = ConcurrentHashMap.newKeySet();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try {
+            for (Path path : javaFiles) {
+                inFlight.acquire();
+                if (failure.get() != null) {
+                    inFlight.release();
+                    break;
+                }
+                Thread thread = virtualThreadFactory.newThread(() -> {
+                    try {
+                        task.accept(path);
+                    } catch (Throwable e) {
+                        if (!failure.compareAndSet(null, e)) {
+                            failure.get().addSuppressed(e);
+                        }
+                    } finally {
+                        running.remove(Thread.currentThread());
+                        inFlight.release();
+                    }
+                });
+                running.add(thread);
+                thread.start();
+            }
+            // 取回全部许可即表示所有文件都已处理完成
+            inFlight.acquire(maxInFlight);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (Thread thread : running) {
+                thread.interrupt();
+            }
+            throw new JavadocProcessingException("并行处理Java文件被中断", e);
+        }
+        if (failure.get() != null) {
+            rethrow(failure.get());
+        }
+    }
+
+    /**
+     * 获取解析许可，只在虚拟线程模式下限制解析转换的并发数
+     *
+     * @throws JavadocProcessingException 等待被中断
+     */
+    private void acquireParsePermit() {
+        if (parsePermits == null) {
+            return;
+        }
+        try {
+            parsePermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new JavadocProcessingException("等待解析许可被中断", e);
+        }
+    }
+
+    private void releaseParsePermit() {
+        if (parsePermits != null) {
+            parsePermits.release();
+        }
+    }
+
+    /**
+     * 处理单个Java文件并记录处理结果
+     * 异常会被收集起来而不是直接抛出，保证单个文件失败不影响其他文件；
+     * 表达式嵌套过深或过长时JavaParser会栈溢出，同样按单个文件失败记录
+     *
+     * @param path           Java文件路径
+     * @param processedCount 已处理文件计数
+     * @param upToDateCount  未变化而跳过的文件计数
+     * @param failures       处理失败的异常列表
+     */
+    private void processFile(Path path, AtomicInteger processedCount, AtomicInteger upToDateCount,
+            List<JavadocProcessingException> failures) {
+        unfinishedFiles.incrementAndGet();
+        try {
+            if (processJavaFile(path, upToDateCount)) {
+                processedCount.incrementAndGet();
+            }
+        } catch (JavadocProcessingException e) {
+            // 记录异常但继续处理其他文件
+            recordFailure(path, e, failures);
+        }
+        unfinishedFiles.decrementAndGet();
+    }
+
+    /**
+     * 记录处理失败的文件，使其缓存记录失效以便下次重新处理
+     *
+     * @param path     Java文件路径
+     * @param e        异常
+     * @param failures 处理失败的异常列表
+     */
+    private void recordFailure(Path path, Throwable e, List<JavadocProcessingException> failures) {
+        if (incrementalCache != null) {
+            incrementalCache.invalidate(path);
+        }
+        metrics.increment(ProcessingMetrics.Counter.FILES_FAILED);
+        failures.add(e instanceof JavadocProcessingException
+                ? (JavadocProcessingException) e
+                : JavadocProcessingException.createFileProcessingException(path.toString(), e));
+    }
+
+    /**
+     * 检查单个Java文件并记录检查结果
+     *
+     * @param path     Java文件路径
+     * @param report   检查报告
+     * @param failures 检查失败的异常列表
+     */
+    private void checkFile(Path path, JavadocCheckReport report, List<JavadocProcessingException> failures) {
+        try {
+            MemoryBudget.Reservation reservation = memoryBudget.reserve(Files.size(path));
+            try {
+                SourceFile source = SourceFile.read(path, config.getEncoding());
+                acquireParsePermit();
+                try {
+                    report.addFile(javadocProcessor.check(source));
+                } finally {
+                    releaseParsePermit();
+                }
+            } finally {
+                reservation.close();
+            }
+        } catch (JavadocProcessingException e) {
+            report.addFailure(path.toString());
+            failures.add(e);
+        } catch (Exception | StackOverflowError e) {
+            report.addFailure(path.toString());
+            failures.add(JavadocProcessingException.createFileProcessingException(path.toString(), e));
+        }
+    }
+
     /**
      * 处理单个Java文件
+     * 文件只读取一次，增量检查、解析和输出比较共用同一份内容
      *
-     * @param file Java文件
-     * @return 是否成功处理文件
+     * @param path          Java文件路径
+     * @param upToDateCount 未变化而跳过的文件计数
+     * @return 文件是否被修改
      * @throws JavadocProcessingException 处理异常
      */
-    private boolean processJavaFile(File file) {
+    private boolean processJavaFile(Path path, AtomicInteger upToDateCount) {
         try {
-            return javadocProcessor.processJavaFile(file);
+            InFlightFile file = readStage(path, upToDateCount);
+            if (file == null) {
+                return false;
+            }
+            try {
+                return writeStage(file.source, transformStage(file));
+            } finally {
+                file.reservation.close();
+            }
         } catch (JavadocProcessingException e) {
             // 直接抛出JavadocProcessingException异常
             throw e;
-        } catch (Exception e) {
+        } catch (Exception | StackOverflowError e) {
             // 包装其他异常为JavadocProcessingException
-            throw JavadocProcessingException.createFileProcessingException(file.getPath(), e);
+            throw JavadocProcessingException.createFileProcessingException(path.toString(), e);
+        }
+    }
+
+    /**
+     * 读取阶段：检查增量缓存，按文件大小预留内存后读取需要处理的文件
+     * 内存预算不足时在读取之前等待，避免多个大文件同时进入解析
+     *
+     * @param path          Java文件路径
+     * @param upToDateCount 未变化而跳过的文件计数
+     * @return 在途文件，持有内存预留；文件未发生变化时返回null
+     * @throws IOException 读取文件失败
+     */
+    private InFlightFile readStage(Path path, AtomicInteger upToDateCount) throws IOException {
+        if (incrementalCache != null && incrementalCache.isUpToDate(path)) {
+            upToDateCount.incrementAndGet();
+            metrics.increment(ProcessingMetrics.Counter.FILES_UP_TO_DATE);
+            return null;
+        }
+
+        MemoryBudget.Reservation reservation = memoryBudget.reserve(Files.size(path));
+        SourceFile source;
+        ProcessingMetrics.PhaseTimer timer = metrics.start(ProcessingMetrics.Phase.READ);
+        try {
+            source = SourceFile.read(path, config.getEncoding());
+        } catch (IOException | RuntimeException e) {
+            reservation.close();
+            throw e;
+        } finally {
+            timer.stop();
+        }
+        if (incrementalCache != null && incrementalCache.isUpToDate(path, source.getBytes())) {
+            reservation.close();
+            upToDateCount.incrementAndGet();
+            metrics.increment(ProcessingMetrics.Counter.FILES_UP_TO_DATE);
+            return null;
+        }
+        return new InFlightFile(source, reservation);
+    }
+
+    /**
+     * 解析转换阶段：解析文件并补全Javadoc
+     * 转换完成后语法树已不再被引用，内存预留随之缩减为只保留文件内容的部分
+     *
+     * @param file 在途文件
+     * @return 修改后的文件内容；文件无需修改时返回null
+     * @throws JavadocProcessingException 处理异常
+     */
+    private String transformStage(InFlightFile file) {
+        String newContent;
+        acquireParsePermit();
+        try {
+            newContent = javadocProcessor.process(file.source);
+        } finally {
+            releaseParsePermit();
+        }
+        file.reservation.shrink(file.source.getBytes().length);
+        if (newContent != null) {
+            metrics.increment(ProcessingMetrics.Counter.FILES_MODIFIED);
+        }
+        return newContent;
+    }
+
+    /**
+     * 写入阶段：写入修改后的文件并更新增量缓存
+     * 批量提交时修改后的内容只写入临时文件，增量缓存在提交成功后才记录
+     *
+     * @param source     原始文件内容
+     * @param newContent 修改后的文件内容，为null时只更新增量缓存
+     * @return 文件是否被修改
+     * @throws IOException 写入文件失败
+     */
+    private boolean writeStage(SourceFile source, String newContent) throws IOException {
+        Path path = source.getPath();
+        byte[] output = source.getBytes();
+        if (newContent != null) {
+            output = source.encode(newContent);
+            ProcessingMetrics.PhaseTimer timer = metrics.start(ProcessingMetrics.Phase.WRITE);
+            try {
+                if (transaction != null) {
+                    transaction.stage(path, output);
+                    if (incrementalCache != null) {
+                        stagedContents.put(path, new StagedContent(output.length, IncrementalCache.digest(output)));
+                    }
+                    return true;
+                }
+                writer.write(path, output);
+            } finally {
+                timer.stop();
+            }
+            metrics.increment(ProcessingMetrics.Counter.FILES_WRITTEN);
+            log.info("处理完成: " + path);
+        }
+        if (incrementalCache != null) {
+            incrementalCache.record(path, output);
+        }
+        return newContent != null;
+    }
+
+    /**
+     * 暂存文件的内容摘要，提交成功后用于记录增量缓存，不保留文件内容本身
+     */
+    private static final class StagedContent {
+        private final long size;
+        private final String digest;
+
+        private StagedContent(long size, String digest) {
+            this.size = size;
+            this.digest = digest;
+        }
+    }
+
+    /**
+     * 在途文件：已读取、尚未写入的文件及其内存预留
+     */
+    private static final class InFlightFile {
+        private final SourceFile source;
+        private final MemoryBudget.Reservation reservation;
+        private String content;
+
+        private InFlightFile(SourceFile source, MemoryBudget.Reservation reservation) {
+            this.source = source;
+            this.reservation = reservation;
         }
     }
-}
\ No newline at end of file
+}
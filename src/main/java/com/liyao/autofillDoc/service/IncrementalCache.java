@@ -0,0 +1,289 @@
+package com.liyao.autofillDoc.service;
+
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 增量处理缓存
+ * 记录每个文件上次处理后的大小、修改时间和内容摘要，未发生变化的文件无需再次解析
+ * 缓存与配置指纹绑定，任何配置变化都会使整个缓存失效
+ * <p>
+ * 守护进程中缓存对象会在多次运行之间保留，缓存文件被其他进程修改或删除后重新加载
+ */
+public class IncrementalCache {
+
+    private static final String HEADER = "# autofill-javadoc incremental cache";
+    private static final String FINGERPRINT_PREFIX = "fingerprint=";
+
+    private final Path cacheFile;
+    private final String fingerprint;
+    private volatile Log log;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Set<String> touched = ConcurrentHashMap.newKeySet();
+    private volatile boolean dirty;
+
+    /**
+     * 最近一次读取或写入时缓存文件的修改时间，缓存文件不存在时为-1
+     */
+    private volatile long fileStamp = -1;
+
+    /**
+     * 构造函数
+     *
+     * @param cacheFile   缓存文件
+     * @param fingerprint 配置指纹
+     * @param log         日志对象
+     */
+    private IncrementalCache(Path cacheFile, String fingerprint, Log log) {
+        this.cacheFile = cacheFile;
+        this.fingerprint = digest(fingerprint.getBytes(StandardCharsets.UTF_8));
+        this.log = log;
+    }
+
+    /**
+     * 加载缓存文件
+     * 缓存文件不存在、无法读取或配置指纹不一致时返回空缓存
+     *
+     * @param cacheFile   缓存文件
+     * @param fingerprint 配置指纹
+     * @param log         日志对象
+     * @return 增量处理缓存
+     */
+    public static IncrementalCache load(Path cacheFile, String fingerprint, Log log) {
+        IncrementalCache cache = new IncrementalCache(cacheFile, fingerprint, log);
+        if (!Files.isRegularFile(cacheFile)) {
+            return cache;
+        }
+        cache.fileStamp = stampOf(cacheFile);
+        try (BufferedReader reader = Files.newBufferedReader(cacheFile, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            String fingerprintLine = reader.readLine();
+            if (!HEADER.equals(header) || !(FINGERPRINT_PREFIX + cache.fingerprint).equals(fingerprintLine)) {
+                log.info("配置已变化, 增量缓存失效");
+                cache.dirty = true;
+                return cache;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", 4);
+                if (parts.length == 4) {
+                    cache.entries.put(parts[3],
+                            new Entry(Long.parseLong(parts[0]), Long.parseLong(parts[1]), parts[2]));
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("读取增量缓存失败, 将重新处理所有文件: " + cacheFile, e);
+            cache.entries.clear();
+            cache.dirty = true;
+        }
+        return cache;
+    }
+
+    /**
+     * 仅根据文件大小和修改时间判断文件自上次处理后是否未发生变化，不读取文件内容
+     *
+     * @param file Java文件
+     * @return 未发生变化返回true
+     * @throws IOException 读取文件属性失败
+     */
+    public boolean isUpToDate(Path file) throws IOException {
+        String key = keyOf(file);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return false;
+        }
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.size() != entry.size || attributes.lastModifiedTime().toMillis() != entry.lastModified) {
+            return false;
+        }
+        touched.add(key);
+        return true;
+    }
+
+    /**
+     * 根据已读取的文件内容判断文件自上次处理后是否未发生变化
+     * 用于修改时间变化但内容未变的情况，例如切换分支后文件被重新检出
+     *
+     * @param file    Java文件
+     * @param content 文件内容
+     * @return 未发生变化返回true
+     * @throws IOException 读取文件属性失败
+     */
+    public boolean isUpToDate(Path file, byte[] content) throws IOException {
+        String key = keyOf(file);
+        Entry entry = entries.get(key);
+        if (entry == null || content.length != entry.size || !digest(content).equals(entry.digest)) {
+            return false;
+        }
+        entries.put(key, new Entry(entry.size, Files.getLastModifiedTime(file).toMillis(), entry.digest));
+        touched.add(key);
+        dirty = true;
+        return true;
+    }
+
+    /**
+     * 记录文件当前的状态
+     *
+     * @param file    Java文件
+     * @param content 文件当前内容（处理后写入的内容或未修改的原始内容）
+     * @throws IOException 读取文件属性失败
+     */
+    public void record(Path file, byte[] content) throws IOException {
+        record(file, content.length, digest(content));
+    }
+
+    /**
+     * 根据内容摘要记录文件当前的状态，用于写入时内容已不在内存中的文件
+     *
+     * @param file   Java文件
+     * @param size   文件内容的字节数
+     * @param digest 文件内容的摘要，由{@link #digest(byte[])}计算
+     * @throws IOException 读取文件属性失败
+     */
+    void record(Path file, long size, String digest) throws IOException {
+        String key = keyOf(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        entries.put(key, new Entry(size, lastModified, digest));
+        touched.add(key);
+        dirty = true;
+    }
+
+    /**
+     * 移除文件的缓存记录，用于处理失败的文件
+     *
+     * @param file Java文件
+     */
+    public void invalidate(Path file) {
+        if (entries.remove(keyOf(file)) != null) {
+            dirty = true;
+        }
+    }
+
+    /**
+     * 保存缓存文件
+     * 先写入临时文件再替换，避免构建中断时留下损坏的缓存；已删除的文件不再保留记录
+     */
+    public void save() {
+        if (!dirty) {
+            return;
+        }
+        try {
+            Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+            Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                writer.write(FINGERPRINT_PREFIX + fingerprint);
+                writer.newLine();
+                for (Map.Entry<String, Entry> item : entries.entrySet()) {
+                    String path = item.getKey();
+                    if (!touched.contains(path) && !Files.exists(Paths.get(path))) {
+                        continue;
+                    }
+                    Entry entry = item.getValue();
+                    writer.write(entry.size + "\t" + entry.lastModified + "\t" + entry.digest + "\t" + path);
+                    writer.newLine();
+                }
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+            fileStamp = stampOf(cacheFile);
+            dirty = false;
+        } catch (IOException e) {
+            log.warn("保存增量缓存失败: " + cacheFile, e);
+        }
+    }
+
+    /**
+     * 判断内存中的缓存能否继续使用：配置指纹相同，并且缓存文件在最近一次读取或写入之后没有被修改或删除
+     *
+     * @param cacheFile   缓存文件
+     * @param fingerprint 配置指纹
+     * @return 可以继续使用时返回true
+     */
+    boolean isReusable(Path cacheFile, String fingerprint) {
+        return this.cacheFile.equals(cacheFile)
+                && this.fingerprint.equals(digest(fingerprint.getBytes(StandardCharsets.UTF_8)))
+                && fileStamp == stampOf(cacheFile);
+    }
+
+    /**
+     * 更换日志对象，在下一次运行中继续使用缓存时调用
+     *
+     * @param log 日志对象
+     */
+    void setLog(Log log) {
+        this.log = log;
+    }
+
+    /**
+     * 获取缓存文件的修改时间
+     *
+     * @param cacheFile 缓存文件
+     * @return 修改时间，文件不存在或无法读取时返回-1
+     */
+    private static long stampOf(Path cacheFile) {
+        try {
+            return Files.getLastModifiedTime(cacheFile).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * 计算内容摘要
+     *
+     * @param content 文件内容
+     * @return 十六进制格式的SHA-256摘要
+     */
+    static String digest(byte[] content) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(content);
+            StringBuilder hex = new StringBuilder(hash.length * 2);
+            for (byte b : hash) {
+                hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("当前JVM不支持SHA-256", e);
+        }
+    }
+
+    /**
+     * 获取文件在缓存中的键
+     *
+     * @param file Java文件
+     * @return 规范化后的绝对路径
+     */
+    private static String keyOf(Path file) {
+        return file.toAbsolutePath().normalize().toString();
+    }
+
+    /**
+     * 缓存记录
+     */
+    private static final class Entry {
+        private final long size;
+        private final long lastModified;
+        private final String digest;
+
+        private Entry(long size, long lastModified, String digest) {
+            this.size = size;
+            this.lastModified = lastModified;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.liyao.autofillDoc.service;
+
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParseProblemException;
+import com.github.javaparser.ParseResult;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ParserConfiguration.LanguageLevel;
+import com.github.javaparser.ast.CompilationUnit;
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * JavaParser提供者
+ * 为每个工作线程提供独立的JavaParser实例，避免StaticJavaParser的全局可变配置在多线程下互相干扰
+ * <p>
+ * 解析器放在池中复用，解析时取出一个空闲的实例，解析完成后归还，同一时刻每个实例只被一个线程使用；
+ * 解析器不绑定线程，每次运行新建的工作线程也能使用之前创建的实例，池的大小不超过同时解析的线程数
+ */
+public class JavaParserProvider {
+
+    private final LanguageLevel languageLevel;
+    private final boolean doNotAssignCommentsPrecedingEmptyLines;
+    private final boolean ignoreAnnotationsWhenAttributingComments;
+
+    /**
+     * 空闲的解析器实例
+     */
+    private final Queue<JavaParser> idleParsers = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 构造函数
+     *
+     * @param config 配置对象
+     * @throws IllegalArgumentException 语言级别配置不正确
+     */
+    public JavaParserProvider(JavadocAutofillConfig config) {
+        this.languageLevel = resolveLanguageLevel(config.getLanguageLevel());
+        this.doNotAssignCommentsPrecedingEmptyLines = config.isDoNotAssignCommentsPrecedingEmptyLines();
+        this.ignoreAnnotationsWhenAttributingComments = config.isIgnoreAnnotationsWhenAttributingComments();
+    }
+
+    /**
+     * 使用池中空闲的解析器解析Java源代码，没有空闲实例时创建新的实例
+     *
+     * @param source Java源代码
+     * @return 编译单元
+     * @throws ParseProblemException 源代码存在语法错误
+     */
+    public CompilationUnit parse(String source) {
+        JavaParser parser = idleParsers.poll();
+        if (parser == null) {
+            parser = createParser();
+        }
+        ParseResult<CompilationUnit> result;
+        try {
+            result = parser.parse(source);
+        } finally {
+            idleParsers.offer(parser);
+        }
+        if (!result.isSuccessful() || !result.getResult().isPresent()) {
+            throw new ParseProblemException(result.getProblems());
+        }
+        return result.getResult().get();
+    }
+
+    /**
+     * 创建解析器
+     * 注释归属和词法单元都必须保留，JavaParser从词法单元中收集注释，关闭后将读取不到已有的Javadoc
+     *
+     * @return 解析器
+     */
+    private JavaParser createParser() {
+        ParserConfiguration configuration = new ParserConfiguration()
+                .setLanguageLevel(languageLevel)
+                .setAttributeComments(true)
+                .setStoreTokens(true)
+                .setDoNotAssignCommentsPrecedingEmptyLines(doNotAssignCommentsPrecedingEmptyLines)
+                .setIgnoreAnnotationsWhenAttributingComments(ignoreAnnotationsWhenAttributingComments);
+        return new JavaParser(configuration);
+    }
+
+    /**
+     * 解析语言级别配置
+     * 支持JavaParser的枚举名（如JAVA_17）、别名（POPULAR、CURRENT、BLEEDING_EDGE、RAW）以及版本号（如8、1.8、17）
+     *
+     * @param languageLevel 语言级别配置
+     * @return 语言级别
+     * @throws IllegalArgumentException 语言级别配置不正确
+     */
+    private static LanguageLevel resolveLanguageLevel(String languageLevel) {
+        if (languageLevel == null || languageLevel.trim().isEmpty()) {
+            return LanguageLevel.POPULAR;
+        }
+        String value = languageLevel.trim().toUpperCase(Locale.ROOT);
+        switch (value) {
+            case "POPULAR":
+                return LanguageLevel.POPULAR;
+            case "CURRENT":
+                return LanguageLevel.CURRENT;
+            case "BLEEDING_EDGE":
+                return LanguageLevel.BLEEDING_EDGE;
+            case "RAW":
+                return LanguageLevel.RAW;
+            default:
+                break;
+        }
+        if (Character.isDigit(value.charAt(0))) {
+            // 1.5 及以后的版本统一使用不带"1."前缀的写法
+            if (value.startsWith("1.") && value.length() > 2 && value.charAt(2) >= '5') {
+                value = value.substring(2);
+            }
+            value = "JAVA_" + value.replace('.', '_');
+        }
+        try {
+            return LanguageLevel.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("不支持的Java语言级别: " + languageLevel, e);
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.liyao.autofillDoc.service;
+
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.AnnotationMemberDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.nodeTypes.NodeWithJavadoc;
+import com.github.javaparser.ast.nodeTypes.NodeWithSimpleName;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 单个文件的Javadoc变更集合
+ * 记录处理过程中被修改Javadoc的节点及其原始注释，供最小化改写时只替换变更的注释区域
+ * 同时记录发现的Javadoc缺失问题，供检查模式生成报告
+ */
+public class JavadocChangeSet {
+
+    private final String file;
+
+    /**
+     * 节点到变更记录的映射，节点的equals是结构比较，因此按引用区分
+     */
+    private final Map<Node, JavadocEdit> edits = new IdentityHashMap<>();
+
+    private final List<JavadocIssue> issues = new ArrayList<>();
+
+    /**
+     * 整体缺少Javadoc的节点，不再重复报告其中缺少的标签
+     */
+    private final Set<Node> undocumented = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * 构造函数
+     *
+     * @param file 文件路径
+     */
+    public JavadocChangeSet(String file) {
+        this.file = file;
+    }
+
+    /**
+     * 设置节点的Javadoc注释并记录变更
+     * 新内容与节点当前的Javadoc完全一致时不做任何修改，也不记录变更
+     *
+     * @param node    声明节点
+     * @param comment Javadoc注释内容
+     * @return 是否实际修改了Javadoc
+     */
+    public boolean setJavadoc(NodeWithJavadoc<?> node, String comment) {
+        if (node.getJavadoc().map(javadoc -> javadoc.toText().equals(comment)).orElse(false)) {
+            return false;
+        }
+        Node target = (Node) node;
+        edits.computeIfAbsent(target, key -> new JavadocEdit(key, key.getComment().orElse(null)));
+        node.setJavadocComment(comment);
+        return true;
+    }
+
+    /**
+     * 记录Javadoc缺失问题
+     *
+     * @param node 声明节点
+     * @param kind 问题类型
+     * @param name 缺少的参数名或异常名，没有时为null
+     */
+    public void report(Node node, JavadocIssue.Kind kind, String name) {
+        if (kind == JavadocIssue.Kind.MISSING_JAVADOC) {
+            undocumented.add(node);
+        } else if (undocumented.contains(node)) {
+            return;
+        }
+        int line = node.getBegin().map(position -> position.line).orElse(0);
+        issues.add(new JavadocIssue(file, line, describe(node), kind, name));
+    }
+
+    /**
+     * 获取所有Javadoc缺失问题
+     *
+     * @return 问题列表
+     */
+    public List<JavadocIssue> getIssues() {
+        return issues;
+    }
+
+    /**
+     * 文件是否被修改
+     *
+     * @return 存在变更返回true
+     */
+    public boolean isModified() {
+        return !edits.isEmpty();
+    }
+
+    /**
+     * 获取所有变更记录
+     *
+     * @return 变更记录
+     */
+    public Collection<JavadocEdit> getEdits() {
+        return new ArrayList<>(edits.values());
+    }
+
+    /**
+     * 生成声明的可读名称
+     * 类型使用嵌套的类型名，方法使用"类型名#方法签名"，枚举常量使用"枚举名.常量名"
+     *
+     * @param node 声明节点
+     * @return 声明名称
+     */
+    private static String describe(Node node) {
+        Node parent = node.getParentNode().orElse(null);
+        while (parent != null && !(parent instanceof TypeDeclaration)) {
+            parent = parent.getParentNode().orElse(null);
+        }
+        String owner = parent != null ? describe(parent) : null;
+        String name;
+        if (node instanceof CallableDeclaration) {
+            name = ((CallableDeclaration<?>) node).getSignature().asString();
+        } else if (node instanceof AnnotationMemberDeclaration) {
+            name = ((AnnotationMemberDeclaration) node).getNameAsString() + "()";
+        } else if (node instanceof NodeWithSimpleName) {
+            name = ((NodeWithSimpleName<?>) node).getNameAsString();
+        } else {
+            name = node.getClass().getSimpleName();
+        }
+        if (owner == null) {
+            return name;
+        }
+        if (node instanceof TypeDeclaration || node instanceof EnumConstantDeclaration) {
+            return owner + "." + name;
+        }
+        return owner + "#" + name;
+    }
+
+    /**
+     * 单个节点的Javadoc变更
+     */
+    public static final class JavadocEdit {
+
+        private final Node node;
+        private final Comment originalComment;
+
+        private JavadocEdit(Node node, Comment originalComment) {
+            this.node = node;
+            this.originalComment = originalComment;
+        }
+
+        /**
+         * 获取被修改的节点
+         *
+         * @return 声明节点
+         */
+        public Node getNode() {
+            return node;
+        }
+
+        /**
+         * 获取修改前节点上的注释
+         *
+         * @return 原始注释，不存在时返回null
+         */
+        public Comment getOriginalComment() {
+            return originalComment;
+        }
+
+        /**
+         * 获取修改后的Javadoc文本
+         *
+         * @return Javadoc文本
+         */
+        public List<String> getJavadocLines() {
+            String text = ((NodeWithJavadoc<?>) node).getJavadoc()
+                    .map(javadoc -> javadoc.toText())
+                    .orElse("");
+            List<String> lines = new ArrayList<>();
+            for (String line : text.split("\\R", -1)) {
+                lines.add(trimTrailing(line));
+            }
+            // 去掉首尾空行
+            while (!lines.isEmpty() && lines.get(0).isEmpty()) {
+                lines.remove(0);
+            }
+            while (!lines.isEmpty() && lines.get(lines.size() - 1).isEmpty()) {
+                lines.remove(lines.size() - 1);
+            }
+            return lines;
+        }
+
+        private static String trimTrailing(String line) {
+            int end = line.length();
+            while (end > 0 && Character.isWhitespace(line.charAt(end - 1))) {
+                end--;
+            }
+            return line.substring(0, end);
+        }
+    }
+}
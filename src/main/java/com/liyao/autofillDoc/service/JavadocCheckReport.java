@@ -0,0 +1,112 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.util.JsonUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Javadoc检查报告
+ * 汇总检查模式下发现的Javadoc缺失问题，多个线程可以同时向报告中添加结果
+ */
+public class JavadocCheckReport {
+
+    private int checkedFiles;
+    private final List<JavadocIssue> issues = new ArrayList<>();
+    private final List<String> failedFiles = new ArrayList<>();
+
+    /**
+     * 添加单个文件的检查结果
+     *
+     * @param issues 文件中的Javadoc缺失问题
+     */
+    public synchronized void addFile(List<JavadocIssue> issues) {
+        checkedFiles++;
+        this.issues.addAll(issues);
+    }
+
+    /**
+     * 添加检查失败的文件
+     *
+     * @param file 文件路径
+     */
+    public synchronized void addFailure(String file) {
+        failedFiles.add(file);
+    }
+
+    /**
+     * 获取已检查的文件数量
+     *
+     * @return 文件数量
+     */
+    public synchronized int getCheckedFiles() {
+        return checkedFiles;
+    }
+
+    /**
+     * 获取所有Javadoc缺失问题，按文件路径和行号排序
+     *
+     * @return 问题列表
+     */
+    public synchronized List<JavadocIssue> getIssues() {
+        List<JavadocIssue> sorted = new ArrayList<>(issues);
+        sorted.sort(Comparator.comparing(JavadocIssue::getFile).thenComparingInt(JavadocIssue::getLine));
+        return sorted;
+    }
+
+    /**
+     * 获取检查失败的文件
+     *
+     * @return 文件路径列表
+     */
+    public synchronized List<String> getFailedFiles() {
+        List<String> sorted = new ArrayList<>(failedFiles);
+        Collections.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * 以JSON格式写入报告文件
+     *
+     * @param reportFile 报告文件
+     * @throws IOException 写入文件失败
+     */
+    public void writeJson(Path reportFile) throws IOException {
+        Path parent = reportFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        List<JavadocIssue> sortedIssues = getIssues();
+        List<String> sortedFailures = getFailedFiles();
+        try (BufferedWriter writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+            writer.write("{\n");
+            writer.write("  \"files\": " + getCheckedFiles() + ",\n");
+            writer.write("  \"violations\": " + sortedIssues.size() + ",\n");
+            writer.write("  \"failedFiles\": [");
+            for (int i = 0; i < sortedFailures.size(); i++) {
+                writer.write(i == 0 ? "\n" : ",\n");
+                writer.write("    " + JsonUtils.quote(sortedFailures.get(i)));
+            }
+            writer.write(sortedFailures.isEmpty() ? "],\n" : "\n  ],\n");
+            writer.write("  \"issues\": [");
+            for (int i = 0; i < sortedIssues.size(); i++) {
+                JavadocIssue issue = sortedIssues.get(i);
+                writer.write(i == 0 ? "\n" : ",\n");
+                writer.write("    {\"file\": " + JsonUtils.quote(issue.getFile())
+                        + ", \"line\": " + issue.getLine()
+                        + ", \"element\": " + JsonUtils.quote(issue.getElement())
+                        + ", \"kind\": " + JsonUtils.quote(issue.getKind().name())
+                        + ", \"name\": " + JsonUtils.quote(issue.getName()) + "}");
+            }
+            writer.write(sortedIssues.isEmpty() ? "]\n" : "\n  ]\n");
+            writer.write("}\n");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.liyao.autofillDoc.service;
+
+/**
+ * Javadoc缺失问题
+ * 用于检查模式下报告类型或方法缺少的Javadoc内容
+ */
+public class JavadocIssue {
+
+    /**
+     * 问题类型
+     */
+    public enum Kind {
+        /**
+         * 缺少Javadoc注释
+         */
+        MISSING_JAVADOC,
+        /**
+         * 缺少@param标签
+         */
+        MISSING_PARAM,
+        /**
+         * 缺少@return标签
+         */
+        MISSING_RETURN,
+        /**
+         * 缺少@throws标签
+         */
+        MISSING_THROWS
+    }
+
+    private final String file;
+    private final int line;
+    private final String element;
+    private final Kind kind;
+    private final String name;
+
+    /**
+     * 构造函数
+     *
+     * @param file    文件路径
+     * @param line    声明所在行号，未知时为0
+     * @param element 声明名称，例如类名或"类名#方法签名"
+     * @param kind    问题类型
+     * @param name    缺少的参数名或异常名，没有时为null
+     */
+    public JavadocIssue(String file, int line, String element, Kind kind, String name) {
+        this.file = file;
+        this.line = line;
+        this.element = element;
+        this.kind = kind;
+        this.name = name;
+    }
+
+    /**
+     * 获取文件路径
+     *
+     * @return 文件路径
+     */
+    public String getFile() {
+        return file;
+    }
+
+    /**
+     * 获取声明所在行号
+     *
+     * @return 行号，未知时为0
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * 获取声明名称
+     *
+     * @return 声明名称
+     */
+    public String getElement() {
+        return element;
+    }
+
+    /**
+     * 获取问题类型
+     *
+     * @return 问题类型
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * 获取缺少的参数名或异常名
+     *
+     * @return 参数名或异常名，没有时为null
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return file + ":" + line + " " + element + " " + kind + (name != null ? " " + name : "");
+    }
+}
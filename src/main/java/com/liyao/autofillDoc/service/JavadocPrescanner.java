@@ -0,0 +1,1158 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 源文件词法预扫描
+ * 不构建语法树，只对源代码做一遍词法扫描，判断文件是否可能需要补全Javadoc：
+ * 需要处理的声明前是否紧挨着Javadoc注释，Javadoc中是否有非标准标签，参数、返回值和throws子句是否都有对应的标签。
+ * 扫描只识别声明的结构，方法体中只关心匿名类和局部类
+ * <p>
+ * 判断是保守的：遇到无法确定的写法（记录类、Unicode转义、声明中间的注释、括号不匹配等）一律视为可能需要修改，
+ * 交给完整解析处理；只有确定完整解析也不会修改的文件才会被跳过
+ */
+public class JavadocPrescanner {
+
+    /**
+     * 标准Javadoc标签，与处理器移除非标准标签时保留的标签相同
+     */
+    private static final Set<String> STANDARD_TAGS = new HashSet<>(Arrays.asList(
+            "author", "deprecated", "exception", "param", "return", "see", "serial", "serialData", "serialField",
+            "since", "throws", "version"));
+
+    /**
+     * 声明中可以出现的修饰符
+     */
+    private static final Set<String> MODIFIERS = new HashSet<>(Arrays.asList(
+            "public", "protected", "private", "static", "final", "abstract", "synchronized", "native",
+            "strictfp", "transient", "volatile", "default", "sealed"));
+
+    private static final int CU = 0;
+    private static final int TYPE = 1;
+    private static final int ANNOTATION = 2;
+    private static final int ENUM = 3;
+    private static final int BLOCK = 4;
+
+    /**
+     * 词法单元类型，标点符号直接使用字符本身
+     */
+    private static final int IDENT = -1;
+    private static final int LITERAL = -2;
+    private static final int BRACES = -3;
+    private static final int EOF = -4;
+    private static final int INVALID = -5;
+
+    /**
+     * 每层花括号中最多跟踪的圆括号嵌套深度
+     */
+    private static final int MAX_PAREN_DEPTH = 63;
+
+    private final boolean classJavadoc;
+    private final boolean methodJavadoc;
+    private final boolean paramJavadoc;
+    private final boolean returnJavadoc;
+    private final boolean throwsJavadoc;
+    private final boolean anyMethodRule;
+    private final boolean includePrivateMethods;
+    private final boolean detachAfterEmptyLine;
+
+    /**
+     * 构造函数
+     *
+     * @param config 配置对象
+     */
+    public JavadocPrescanner(JavadocAutofillConfig config) {
+        this.classJavadoc = config.isAddClassJavadoc();
+        this.methodJavadoc = config.isAddMethodJavadoc();
+        this.paramJavadoc = config.isAddParamJavadoc();
+        this.returnJavadoc = config.isAddReturnJavadoc();
+        this.throwsJavadoc = config.isAddThrowsJavadoc();
+        this.anyMethodRule = methodJavadoc || paramJavadoc || returnJavadoc || throwsJavadoc;
+        this.includePrivateMethods = config.isIncludePrivateMethods();
+        this.detachAfterEmptyLine = config.isDoNotAssignCommentsPrecedingEmptyLines();
+    }
+
+    /**
+     * 判断文件是否可能需要补全Javadoc
+     *
+     * @param content 源文件内容
+     * @return 可能需要修改或无法确定时返回true；确定不需要修改时返回false
+     */
+    public boolean mayNeedChanges(String content) {
+        if (hasUnicodeEscape(content)) {
+            return true;
+        }
+        return new Scan(content).run();
+    }
+
+    /**
+     * 源代码中是否有Unicode转义，转义在词法分析之前展开，可能改变注释和字符串的边界
+     *
+     * @param content 源文件内容
+     * @return 有Unicode转义时返回true
+     */
+    private static boolean hasUnicodeEscape(String content) {
+        int index = content.indexOf('\\');
+        while (index >= 0) {
+            int end = index;
+            while (end < content.length() && content.charAt(end) == '\\') {
+                end++;
+            }
+            // 连续反斜杠中只有奇数位置的反斜杠能开始一个转义
+            if (end < content.length() && content.charAt(end) == 'u' && (end - index) % 2 == 1) {
+                return true;
+            }
+            index = content.indexOf('\\', end);
+        }
+        return false;
+    }
+
+    /**
+     * 一层花括号的扫描状态，类型体中同时记录当前声明的头部
+     */
+    private static final class Frame {
+        int kind;
+        boolean topLevel;
+        boolean enumConstants;
+
+        /**
+         * 当前声明头部的词法单元，每个单元占三个位置：类型、起始位置、结束位置
+         */
+        int[] tokens = new int[96];
+        int size;
+
+        int docStart;
+        int docEnd;
+        boolean documented;
+        boolean uncertain;
+        boolean assigned;
+        boolean closedParen;
+        boolean defaultValue;
+        boolean bodyOpen;
+
+        int parens;
+        long newArgs;
+        boolean afterNew;
+        boolean newArgsClosed;
+        int pendingType;
+        boolean afterRecord;
+
+        void reset(int kind, boolean topLevel) {
+            this.kind = kind;
+            this.topLevel = topLevel;
+            this.enumConstants = kind == ENUM;
+            this.parens = 0;
+            this.newArgs = 0;
+            this.afterNew = false;
+            this.newArgsClosed = false;
+            this.pendingType = 0;
+            this.afterRecord = false;
+            resetMember();
+        }
+
+        void resetMember() {
+            size = 0;
+            documented = false;
+            uncertain = false;
+            assigned = false;
+            closedParen = false;
+            defaultValue = false;
+            bodyOpen = false;
+        }
+
+        void add(int type, int start, int end) {
+            if (size + 3 > tokens.length) {
+                tokens = Arrays.copyOf(tokens, tokens.length * 2);
+            }
+            tokens[size++] = type;
+            tokens[size++] = start;
+            tokens[size++] = end;
+        }
+    }
+
+    /**
+     * 一次扫描，持有当前文件的位置、花括号栈和Javadoc标签的临时数据
+     */
+    private final class Scan {
+        private final String s;
+        private final int length;
+        private int pos;
+
+        private int tokenStart;
+        private int tokenEnd;
+
+        private int commentStart = -1;
+        private int commentEnd;
+        private boolean commentJavadoc;
+        private int newlinesAfterComment;
+        private boolean commentsAfterLast;
+
+        private final List<Frame> frames = new ArrayList<>();
+        private int depth;
+
+        private int[] view = new int[32];
+        private int viewSize;
+
+        private final StringBuilder doc = new StringBuilder();
+        private int[] tags = new int[32];
+        private int tagCount;
+
+        Scan(String content) {
+            this.s = content;
+            this.length = content.length();
+        }
+
+        /**
+         * 扫描整个文件
+         *
+         * @return 可能需要修改时返回true
+         */
+        boolean run() {
+            push(CU, false);
+            while (true) {
+                int type = next();
+                if (type == INVALID) {
+                    return true;
+                }
+                if (type == EOF) {
+                    // 花括号未闭合或最后一个声明不完整时交给解析器报告
+                    return depth != 1 || frames.get(0).size > 0;
+                }
+                if (accept(type)) {
+                    return true;
+                }
+            }
+        }
+
+        private Frame top() {
+            return frames.get(depth - 1);
+        }
+
+        private void push(int kind, boolean topLevel) {
+            if (depth == frames.size()) {
+                frames.add(new Frame());
+            }
+            frames.get(depth++).reset(kind, topLevel);
+        }
+
+        /**
+         * 处理一个词法单元
+         *
+         * @param type 词法单元类型
+         * @return 确定文件可能需要修改时返回true
+         */
+        private boolean accept(int type) {
+            Frame frame = top();
+            if (frame.kind != BLOCK) {
+                attributeComment(frame, type);
+            }
+            commentStart = -1;
+            commentsAfterLast = false;
+
+            if (type == '{') {
+                return openBrace(frame);
+            }
+            if (type == '}') {
+                return closeBrace(frame);
+            }
+            if (frame.kind == BLOCK) {
+                return acceptInBlock(frame, type);
+            }
+            if (frame.enumConstants) {
+                return acceptEnumConstant(frame, type);
+            }
+            if (type == ';' && frame.parens == 0) {
+                boolean result = frame.size > 0 && declaration(frame, false) < 0;
+                frame.resetMember();
+                return result;
+            }
+            trackMember(frame, type);
+            frame.add(type, tokenStart, tokenEnd);
+            return trackExpression(frame, type);
+        }
+
+        /**
+         * 记录声明前紧挨着的注释；声明中间出现注释时注释归属不确定
+         */
+        private void attributeComment(Frame frame, int type) {
+            if (frame.size == 0) {
+                if (type == '}' || type == ';') {
+                    return;
+                }
+                frame.documented = commentStart >= 0 && commentJavadoc;
+                frame.docStart = commentStart;
+                frame.docEnd = commentEnd;
+                // 开启doNotAssignCommentsPrecedingEmptyLines时空行后的注释可能不属于声明
+                frame.uncertain = frame.documented && detachAfterEmptyLine && newlinesAfterComment > 1;
+            } else if (commentsAfterLast) {
+                frame.uncertain = true;
+            }
+        }
+
+        private void trackMember(Frame frame, int type) {
+            if (frame.parens != 0) {
+                return;
+            }
+            if (type == '=') {
+                frame.assigned = true;
+            } else if (type == ')') {
+                frame.closedParen = true;
+            } else if (type == IDENT && frame.kind == ANNOTATION && frame.closedParen && is("default")) {
+                frame.defaultValue = true;
+            }
+        }
+
+        /**
+         * 跟踪圆括号和new表达式，识别匿名类的类体
+         *
+         * @return 圆括号不匹配或嵌套过深时返回true
+         */
+        private boolean trackExpression(Frame frame, int type) {
+            boolean closedNewArgs = false;
+            if (type == '(') {
+                if (frame.parens == MAX_PAREN_DEPTH) {
+                    return true;
+                }
+                frame.parens++;
+                if (frame.afterNew) {
+                    frame.newArgs |= 1L << frame.parens;
+                } else {
+                    frame.newArgs &= ~(1L << frame.parens);
+                }
+                frame.afterNew = false;
+            } else if (type == ')') {
+                if (frame.parens == 0) {
+                    return true;
+                }
+                closedNewArgs = (frame.newArgs & (1L << frame.parens)) != 0;
+                frame.parens--;
+            } else if (type == IDENT) {
+                if (is("new")) {
+                    frame.afterNew = true;
+                }
+            } else if (type != '.' && type != '<' && type != '>' && type != '?' && type != ','
+                    && type != '@' && type != '[' && type != ']') {
+                frame.afterNew = false;
+            }
+            frame.newArgsClosed = closedNewArgs;
+            return false;
+        }
+
+        private boolean acceptInBlock(Frame frame, int type) {
+            if (type == IDENT) {
+                if (frame.afterRecord) {
+                    // 局部记录类
+                    return true;
+                }
+                boolean qualified = previousIsDot();
+                if (!qualified && (is("class") || is("interface"))) {
+                    frame.pendingType = TYPE;
+                } else if (!qualified && is("enum")) {
+                    frame.pendingType = ENUM;
+                }
+                frame.afterRecord = !qualified && is("record");
+            } else {
+                frame.afterRecord = false;
+            }
+            return trackExpression(frame, type);
+        }
+
+        private boolean previousIsDot() {
+            int index = tokenStart - 1;
+            while (index >= 0 && Character.isWhitespace(s.charAt(index))) {
+                index--;
+            }
+            return index >= 0 && s.charAt(index) == '.';
+        }
+
+        private boolean acceptEnumConstant(Frame frame, int type) {
+            if (frame.parens == 0 && (type == ',' || type == ';')) {
+                boolean result = enumConstant(frame);
+                frame.resetMember();
+                if (type == ';') {
+                    frame.enumConstants = false;
+                }
+                return result;
+            }
+            frame.add(type, tokenStart, tokenEnd);
+            return trackExpression(frame, type);
+        }
+
+        /**
+         * 顶层枚举的每个常量都需要Javadoc
+         */
+        private boolean enumConstant(Frame frame) {
+            return frame.size > 0 && frame.topLevel && (!frame.documented || frame.uncertain);
+        }
+
+        private boolean openBrace(Frame frame) {
+            if (frame.kind == BLOCK) {
+                int kind = frame.newArgsClosed ? TYPE : frame.pendingType != 0 ? frame.pendingType : BLOCK;
+                frame.pendingType = 0;
+                frame.afterNew = false;
+                frame.newArgsClosed = false;
+                frame.afterRecord = false;
+                push(kind, false);
+                return false;
+            }
+            boolean expression = frame.parens > 0 || (frame.enumConstants ? false
+                    : frame.assigned || frame.defaultValue);
+            if (expression) {
+                // 初始化表达式、注解参数或者默认值中的花括号，匿名类的类体仍然需要检查
+                frame.add(BRACES, tokenStart, tokenStart);
+                int kind = frame.newArgsClosed ? TYPE : BLOCK;
+                frame.afterNew = false;
+                frame.newArgsClosed = false;
+                push(kind, false);
+                return false;
+            }
+            if (frame.enumConstants) {
+                // 枚举常量的类体
+                frame.add(BRACES, tokenStart, tokenStart);
+                push(TYPE, false);
+                return false;
+            }
+            int kind = declaration(frame, true);
+            if (kind < 0) {
+                return true;
+            }
+            frame.bodyOpen = true;
+            push(kind, frame.kind == CU);
+            return false;
+        }
+
+        private boolean closeBrace(Frame frame) {
+            if (frame.kind == CU) {
+                return true;
+            }
+            if (frame.kind != BLOCK) {
+                if (frame.enumConstants) {
+                    if (frame.parens != 0 || enumConstant(frame)) {
+                        return true;
+                    }
+                } else if (frame.size > 0) {
+                    return true;
+                }
+            }
+            if (frame.parens != 0) {
+                return true;
+            }
+            depth--;
+            Frame parent = top();
+            if (parent.bodyOpen) {
+                parent.resetMember();
+            }
+            parent.afterNew = false;
+            parent.newArgsClosed = false;
+            return false;
+        }
+
+        /**
+         * 分析声明头部
+         *
+         * @param frame   所在的类型体
+         * @param hasBody 声明后是否跟着花括号
+         * @return 花括号对应的扫描状态类型；没有花括号时返回BLOCK；可能需要修改时返回-1
+         */
+        private int declaration(Frame frame, boolean hasBody) {
+            if (!buildView(frame)) {
+                return -1;
+            }
+            int typeKind = typeDeclaration(frame);
+            if (typeKind != 0) {
+                if (typeKind < 0 || !hasBody) {
+                    return -1;
+                }
+                if (frame.kind == CU && typeNeedsChanges(frame, typeKind)) {
+                    return -1;
+                }
+                return typeKind;
+            }
+            if (frame.kind == CU) {
+                // 编译单元中只允许package和import语句，模块声明等交给解析器
+                return !hasBody && viewSize > 0 && (viewIs(0, "package") || viewIs(0, "import")) ? BLOCK : -1;
+            }
+            if (viewSize == 0 || (viewSize == 1 && viewIs(0, "static"))) {
+                return hasBody ? BLOCK : -1;
+            }
+            int open = -1;
+            for (int i = 0; i < viewSize; i++) {
+                int type = viewType(i);
+                if (type == '=') {
+                    break;
+                }
+                if (type == '(') {
+                    open = i;
+                    break;
+                }
+            }
+            if (open < 0) {
+                // 字段声明
+                return hasBody ? -1 : BLOCK;
+            }
+            return method(frame, open, hasBody) ? -1 : BLOCK;
+        }
+
+        /**
+         * 去掉注解后的声明头部
+         *
+         * @return 注解格式无法识别时返回false
+         */
+        private boolean buildView(Frame frame) {
+            viewSize = 0;
+            int count = frame.size / 3;
+            int i = 0;
+            while (i < count) {
+                int type = frame.tokens[i * 3];
+                if (type == '@' && i + 1 < count && frame.tokens[(i + 1) * 3] == IDENT
+                        && !tokenIs(frame, i + 1, "interface")) {
+                    i += 2;
+                    while (i + 1 < count && frame.tokens[i * 3] == '.' && frame.tokens[(i + 1) * 3] == IDENT) {
+                        i += 2;
+                    }
+                    if (i < count && frame.tokens[i * 3] == '(') {
+                        int level = 0;
+                        do {
+                            int inner = frame.tokens[i * 3];
+                            if (inner == '(') {
+                                level++;
+                            } else if (inner == ')') {
+                                level--;
+                            }
+                            i++;
+                        } while (level > 0 && i < count);
+                        if (level > 0) {
+                            return false;
+                        }
+                    }
+                    continue;
+                }
+                if (viewSize == view.length) {
+                    view = Arrays.copyOf(view, view.length * 2);
+                }
+                view[viewSize++] = i * 3;
+                i++;
+            }
+            return true;
+        }
+
+        /**
+         * 判断声明是否为类型声明
+         *
+         * @return 类型声明对应的扫描状态类型；不是类型声明时返回0；记录类等无法确定的声明返回-1
+         */
+        private int typeDeclaration(Frame frame) {
+            for (int i = 0; i < viewSize; i++) {
+                int type = viewType(i);
+                if (type == '=' || type == '(') {
+                    return 0;
+                }
+                if (type == '@' && i + 1 < viewSize && viewIs(i + 1, "interface")) {
+                    return ANNOTATION;
+                }
+                if (type != IDENT || (i > 0 && viewType(i - 1) == '.')) {
+                    continue;
+                }
+                if (viewIs(i, "class") || viewIs(i, "interface")) {
+                    return TYPE;
+                }
+                if (viewIs(i, "enum")) {
+                    return ENUM;
+                }
+                if (viewIs(i, "record") && i + 1 < viewSize && viewType(i + 1) == IDENT) {
+                    return -1;
+                }
+            }
+            return 0;
+        }
+
+        /**
+         * 顶层类型是否需要修改：缺少Javadoc，或者Javadoc中有非标准标签
+         */
+        private boolean typeNeedsChanges(Frame frame, int typeKind) {
+            boolean required = classJavadoc || typeKind == ENUM;
+            if (!required) {
+                return false;
+            }
+            if (!frame.documented || frame.uncertain) {
+                return true;
+            }
+            if (!classJavadoc) {
+                return false;
+            }
+            if (!parseJavadoc(frame)) {
+                return true;
+            }
+            return hasNonStandardTag();
+        }
+
+        /**
+         * 分析方法、构造函数或注解成员的声明
+         *
+         * @param open 参数列表左括号在头部中的位置
+         * @return 可能需要修改时返回true
+         */
+        private boolean method(Frame frame, int open, boolean hasBody) {
+            if (open == 0 || viewType(open - 1) != IDENT) {
+                return true;
+            }
+            boolean isPrivate = false;
+            int index = 0;
+            while (index < open - 1 && viewType(index) == IDENT && isModifier(index)) {
+                isPrivate |= viewIs(index, "private");
+                index++;
+            }
+            int typeParamsStart = -1;
+            int typeParamsEnd = -1;
+            if (viewType(index) == '<') {
+                typeParamsStart = index;
+                int level = 0;
+                do {
+                    int type = viewType(index);
+                    if (type == '<') {
+                        level++;
+                    } else if (type == '>') {
+                        level--;
+                    }
+                    index++;
+                } while (level > 0 && index < open - 1);
+                if (level > 0) {
+                    return true;
+                }
+                typeParamsEnd = index;
+            }
+            int returnTypeTokens = open - 1 - index;
+            if (returnTypeTokens <= 0) {
+                // 构造函数不需要处理，注解成员不会没有类型
+                return frame.kind == ANNOTATION || !hasBody;
+            }
+            boolean isVoid = returnTypeTokens == 1 && viewIs(index, "void");
+
+            int close = matchingParen(open);
+            if (close < 0) {
+                return true;
+            }
+            int after = close + 1;
+            while (after + 1 < viewSize && viewType(after) == '[' && viewType(after + 1) == ']') {
+                after += 2;
+            }
+            int throwsStart = -1;
+            if (after < viewSize) {
+                if (viewIs(after, "throws")) {
+                    throwsStart = after + 1;
+                } else if (!(frame.kind == ANNOTATION && viewIs(after, "default"))) {
+                    return true;
+                }
+            }
+
+            if (frame.kind == ANNOTATION) {
+                if (!returnJavadoc) {
+                    return false;
+                }
+                if (hasBody || throwsStart >= 0 || !frame.documented || frame.uncertain || !parseJavadoc(frame)) {
+                    return true;
+                }
+                int tag = firstTag("return", null);
+                return tag < 0 || !isUsable(tag);
+            }
+            if (!anyMethodRule || (isPrivate && !includePrivateMethods)) {
+                return false;
+            }
+            if (frame.uncertain) {
+                return true;
+            }
+            if (!frame.documented) {
+                return methodJavadoc;
+            }
+            if (!parseJavadoc(frame) || hasNonStandardTag()) {
+                return true;
+            }
+            if (paramJavadoc && (missingTypeParamTags(typeParamsStart, typeParamsEnd)
+                    || missingParamTags(open, close))) {
+                return true;
+            }
+            if (returnJavadoc) {
+                int count = countTags("return");
+                if (isVoid ? count > 0 : count != 1 || !isUsable(firstTag("return", null))) {
+                    return true;
+                }
+            }
+            return throwsJavadoc && throwsStart >= 0 && missingThrowsTags(throwsStart);
+        }
+
+        private boolean isModifier(int index) {
+            int start = tokenStartOf(index);
+            int end = tokenEndOf(index);
+            return end - start <= 12 && MODIFIERS.contains(s.substring(start, end));
+        }
+
+        private int matchingParen(int open) {
+            int level = 0;
+            for (int i = open; i < viewSize; i++) {
+                int type = viewType(i);
+                if (type == '(') {
+                    level++;
+                } else if (type == ')' && --level == 0) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * 每个泛型类型参数都需要内容不为空的"@param &lt;T&gt;"标签
+         */
+        private boolean missingTypeParamTags(int start, int end) {
+            if (start < 0) {
+                return false;
+            }
+            int level = 0;
+            boolean expectName = false;
+            for (int i = start; i < end; i++) {
+                int type = viewType(i);
+                if (type == '<') {
+                    level++;
+                    expectName = level == 1;
+                } else if (type == '>') {
+                    level--;
+                } else if (type == ',' && level == 1) {
+                    expectName = true;
+                } else if (expectName) {
+                    if (type != IDENT) {
+                        return true;
+                    }
+                    String name = "<" + viewText(i) + ">";
+                    int tag = firstTag("param", name);
+                    if (tag < 0 || isBlank(tag)) {
+                        return true;
+                    }
+                    expectName = false;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 每个参数都需要内容不为空且不含尖括号的@param标签
+         */
+        private boolean missingParamTags(int open, int close) {
+            int level = 0;
+            int segmentStart = open + 1;
+            for (int i = open + 1; i <= close; i++) {
+                int type = viewType(i);
+                if (i == close || (type == ',' && level == 0)) {
+                    if (i > segmentStart && missingParamTag(segmentStart, i)) {
+                        return true;
+                    }
+                    segmentStart = i + 1;
+                } else if (type == '<' || type == '(' || type == '[') {
+                    level++;
+                } else if (type == '>' || type == ')' || type == ']') {
+                    level--;
+                }
+            }
+            return false;
+        }
+
+        private boolean missingParamTag(int start, int end) {
+            int last = end - 1;
+            while (last - 1 >= start && viewType(last) == ']' && viewType(last - 1) == '[') {
+                last -= 2;
+            }
+            if (last < start || viewType(last) != IDENT) {
+                return true;
+            }
+            if (viewIs(last, "this")) {
+                // 接收者参数不是方法的参数
+                return false;
+            }
+            int tag = firstTag("param", viewText(last));
+            return tag < 0 || !isUsable(tag);
+        }
+
+        /**
+         * 每个声明的异常都需要内容不为空且不含尖括号的@throws标签
+         */
+        private boolean missingThrowsTags(int start) {
+            StringBuilder name = new StringBuilder();
+            for (int i = start; i <= viewSize; i++) {
+                int type = i < viewSize ? viewType(i) : ',';
+                if (type == ',') {
+                    if (name.length() == 0) {
+                        return true;
+                    }
+                    int tag = firstTag("throws", name.toString());
+                    if (tag < 0 || !isUsable(tag)) {
+                        return true;
+                    }
+                    name.setLength(0);
+                } else if (type == IDENT || type == '.') {
+                    name.append(s, tokenStartOf(i), tokenEndOf(i));
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int viewType(int index) {
+            return top().tokens[view[index]];
+        }
+
+        private int tokenStartOf(int index) {
+            return top().tokens[view[index] + 1];
+        }
+
+        private int tokenEndOf(int index) {
+            return top().tokens[view[index] + 2];
+        }
+
+        private String viewText(int index) {
+            return s.substring(tokenStartOf(index), tokenEndOf(index));
+        }
+
+        private boolean viewIs(int index, String word) {
+            return viewType(index) == IDENT && regionIs(tokenStartOf(index), tokenEndOf(index), word);
+        }
+
+        private boolean tokenIs(Frame frame, int index, String word) {
+            return regionIs(frame.tokens[index * 3 + 1], frame.tokens[index * 3 + 2], word);
+        }
+
+        private boolean is(String word) {
+            return regionIs(tokenStart, tokenEnd, word);
+        }
+
+        private boolean regionIs(int start, int end, String word) {
+            return end - start == word.length() && s.startsWith(word, start);
+        }
+
+        // ---------------------------------------------------------------- Javadoc标签
+
+        /**
+         * 按JavaParser的规则拆分Javadoc的块标签
+         * 每行去掉开头的空白和一个星号（以及星号后的一个空格），从第一行以@开头的行起，每个以@开头的行开始一个新标签；
+         * 标签名之后的第一个词是@param、@throws和@exception的参数名，其余为标签内容
+         *
+         * @return 注释中有会影响拆分结果的特殊空白字符时返回false
+         */
+        private boolean parseJavadoc(Frame frame) {
+            int from = frame.docStart + 3;
+            int to = frame.docEnd - 2;
+            doc.setLength(0);
+            int lineStart = from;
+            while (lineStart <= to) {
+                int lineEnd = lineStart;
+                while (lineEnd < to && s.charAt(lineEnd) != '\n' && s.charAt(lineEnd) != '\r') {
+                    lineEnd++;
+                }
+                int index = lineStart;
+                while (lineEnd - index > 1 && (s.charAt(index) == ' ' || s.charAt(index) == '\t')) {
+                    index++;
+                }
+                int contentStart = lineStart;
+                if (index < lineEnd && s.charAt(index) == '*') {
+                    contentStart = index + 1;
+                    if (contentStart < lineEnd && (s.charAt(contentStart) == ' ' || s.charAt(contentStart) == '\t')) {
+                        contentStart++;
+                    }
+                }
+                for (int i = contentStart; i < lineEnd; i++) {
+                    char c = s.charAt(i);
+                    if ((c < ' ' && c != '\t' && c != '\f' && c != 0x0B) || (c > ' ' && Character.isWhitespace(c))) {
+                        return false;
+                    }
+                }
+                doc.append(s, contentStart, lineEnd).append('\n');
+                if (lineEnd < to && s.charAt(lineEnd) == '\r' && lineEnd + 1 < to && s.charAt(lineEnd + 1) == '\n') {
+                    lineEnd++;
+                }
+                lineStart = lineEnd + 1;
+            }
+
+            tagCount = 0;
+            int tagStart = -1;
+            int lineBegin = 0;
+            while (lineBegin < doc.length()) {
+                int lineEnd = doc.indexOf("\n", lineBegin);
+                int first = lineBegin;
+                while (first < lineEnd && doc.charAt(first) <= ' ') {
+                    first++;
+                }
+                if (first < lineEnd && doc.charAt(first) == '@') {
+                    if (tagStart >= 0) {
+                        addTag(tagStart, lineBegin);
+                    }
+                    tagStart = first + 1;
+                }
+                lineBegin = lineEnd + 1;
+            }
+            if (tagStart >= 0) {
+                addTag(tagStart, doc.length());
+            }
+            return true;
+        }
+
+        /**
+         * 记录一个标签：标签名、参数名和内容在doc中的位置
+         */
+        private void addTag(int start, int end) {
+            end = trimEnd(start, end);
+            int nameEnd = nextWord(start, end);
+            int argStart = trimStart(nameEnd, end);
+            int argEnd = argStart;
+            if (hasArgument(start, nameEnd)) {
+                argEnd = nextWord(argStart, end);
+            }
+            int contentStart = trimStart(argEnd, end);
+            if (tagCount * 6 + 6 > tags.length) {
+                tags = Arrays.copyOf(tags, tags.length * 2);
+            }
+            int[] t = tags;
+            int base = tagCount * 6;
+            t[base] = start;
+            t[base + 1] = nameEnd;
+            t[base + 2] = argStart;
+            t[base + 3] = argEnd;
+            t[base + 4] = contentStart;
+            t[base + 5] = end;
+            tagCount++;
+        }
+
+        private boolean hasArgument(int start, int end) {
+            return docIs(start, end, "param") || docIs(start, end, "throws") || docIs(start, end, "exception");
+        }
+
+        private int nextWord(int start, int end) {
+            int index = start;
+            while (index < end && !Character.isWhitespace(doc.charAt(index))) {
+                index++;
+            }
+            return index;
+        }
+
+        private int trimStart(int start, int end) {
+            while (start < end && doc.charAt(start) <= ' ') {
+                start++;
+            }
+            return start;
+        }
+
+        private int trimEnd(int start, int end) {
+            while (end > start && doc.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return end;
+        }
+
+        private boolean docIs(int start, int end, String word) {
+            if (end - start != word.length()) {
+                return false;
+            }
+            for (int i = 0; i < word.length(); i++) {
+                if (doc.charAt(start + i) != word.charAt(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private boolean hasNonStandardTag() {
+            for (int i = 0; i < tagCount; i++) {
+                int base = i * 6;
+                if (!STANDARD_TAGS.contains(doc.substring(tags[base], tags[base + 1]))) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * 查找第一个指定名称和参数名的标签
+         *
+         * @return 标签序号，没有找到时返回-1
+         */
+        private int firstTag(String tagName, String argument) {
+            for (int i = 0; i < tagCount; i++) {
+                int base = i * 6;
+                if (docIs(tags[base], tags[base + 1], tagName)
+                        && (argument == null || docIs(tags[base + 2], tags[base + 3], argument))) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private int countTags(String tagName) {
+            int count = 0;
+            for (int i = 0; i < tagCount; i++) {
+                if (docIs(tags[i * 6], tags[i * 6 + 1], tagName)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        private boolean isBlank(int tag) {
+            return tags[tag * 6 + 4] >= tags[tag * 6 + 5];
+        }
+
+        /**
+         * 标签内容不为空，并且不含处理器会清理的尖括号
+         */
+        private boolean isUsable(int tag) {
+            if (isBlank(tag)) {
+                return false;
+            }
+            for (int i = tags[tag * 6 + 4]; i < tags[tag * 6 + 5]; i++) {
+                if (doc.charAt(i) == '<') {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // ---------------------------------------------------------------- 词法分析
+
+        /**
+         * 读取下一个词法单元，跳过空白和注释并记录最近的注释
+         *
+         * @return 词法单元类型
+         */
+        private int next() {
+            while (pos < length) {
+                char c = s.charAt(pos);
+                if (c == '\n' || c == '\r') {
+                    if (c == '\n' || pos + 1 >= length || s.charAt(pos + 1) != '\n') {
+                        newlinesAfterComment++;
+                    }
+                    pos++;
+                } else if (c == ' ' || c == '\t' || c == '\f') {
+                    pos++;
+                } else if (c == '/' && pos + 1 < length && s.charAt(pos + 1) == '/') {
+                    int end = pos + 2;
+                    while (end < length && s.charAt(end) != '\n' && s.charAt(end) != '\r') {
+                        end++;
+                    }
+                    comment(pos, end, false);
+                    pos = end;
+                } else if (c == '/' && pos + 1 < length && s.charAt(pos + 1) == '*') {
+                    int end = s.indexOf("*/", pos + 2);
+                    if (end < 0) {
+                        return INVALID;
+                    }
+                    end += 2;
+                    // "/**/"不是Javadoc，"/***/"的归属也交给解析器判断
+                    comment(pos, end, end - pos > 5 && s.charAt(pos + 2) == '*');
+                    pos = end;
+                } else {
+                    break;
+                }
+            }
+            if (pos >= length) {
+                return EOF;
+            }
+            tokenStart = pos;
+            char c = s.charAt(pos);
+            if (c == '"') {
+                return stringLiteral();
+            }
+            if (c == '\'') {
+                return quoted('\'');
+            }
+            if (c >= '0' && c <= '9' || (c == '.' && pos + 1 < length && Character.isDigit(s.charAt(pos + 1)))) {
+                return number();
+            }
+            int codePoint = s.codePointAt(pos);
+            if (Character.isJavaIdentifierStart(codePoint)) {
+                pos += Character.charCount(codePoint);
+                while (pos < length) {
+                    codePoint = s.codePointAt(pos);
+                    if (!Character.isJavaIdentifierPart(codePoint)) {
+                        break;
+                    }
+                    pos += Character.charCount(codePoint);
+                }
+                tokenEnd = pos;
+                return IDENT;
+            }
+            if ("(){}[];,.@=<>!~?:+-*/&|^%".indexOf(c) >= 0) {
+                pos++;
+                tokenEnd = pos;
+                return c;
+            }
+            return INVALID;
+        }
+
+        private void comment(int start, int end, boolean javadoc) {
+            commentStart = start;
+            commentEnd = end;
+            commentJavadoc = javadoc;
+            newlinesAfterComment = 0;
+            commentsAfterLast = true;
+        }
+
+        private int stringLiteral() {
+            if (s.startsWith("\"\"\"", pos)) {
+                int index = pos + 3;
+                while (index < length) {
+                    char c = s.charAt(index);
+                    if (c == '\\') {
+                        index += 2;
+                    } else if (c == '"' && s.startsWith("\"\"\"", index)) {
+                        pos = index + 3;
+                        tokenEnd = pos;
+                        return LITERAL;
+                    } else {
+                        index++;
+                    }
+                }
+                return INVALID;
+            }
+            return quoted('"');
+        }
+
+        private int quoted(char quote) {
+            int index = pos + 1;
+            while (index < length) {
+                char c = s.charAt(index);
+                if (c == '\\') {
+                    index += 2;
+                } else if (c == quote) {
+                    pos = index + 1;
+                    tokenEnd = pos;
+                    return LITERAL;
+                } else if (c == '\n' || c == '\r') {
+                    return INVALID;
+                } else {
+                    index++;
+                }
+            }
+            return INVALID;
+        }
+
+        private int number() {
+            boolean hex = s.startsWith("0x", pos) || s.startsWith("0X", pos);
+            int index = pos + 1;
+            while (index < length) {
+                char c = s.charAt(index);
+                char previous = s.charAt(index - 1);
+                boolean exponent = hex ? previous == 'p' || previous == 'P' : previous == 'e' || previous == 'E';
+                if (Character.isLetterOrDigit(c) || c == '_' || c == '.' || ((c == '+' || c == '-') && exponent)) {
+                    index++;
+                } else {
+                    break;
+                }
+            }
+            pos = index;
+            tokenEnd = pos;
+            return LITERAL;
+        }
+    }
+}
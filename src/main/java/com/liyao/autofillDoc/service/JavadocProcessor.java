@@ -1,25 +1,31 @@
 package com.liyao.autofillDoc.service;
 
-import com.github.javaparser.StaticJavaParser;
 import com.github.javaparser.ast.CompilationUnit;
 import com.github.javaparser.ast.Node;
 import com.github.javaparser.ast.body.*;
+import com.github.javaparser.ast.comments.JavadocComment;
+import com.github.javaparser.ast.nodeTypes.NodeWithJavadoc;
 import com.github.javaparser.ast.type.ReferenceType;
 import com.github.javaparser.ast.type.TypeParameter;
 import com.github.javaparser.javadoc.Javadoc;
 import com.github.javaparser.javadoc.JavadocBlockTag;
 import com.github.javaparser.javadoc.description.JavadocDescription;
 import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.config.RewriteMode;
 import com.liyao.autofillDoc.exception.JavadocProcessingException;
+import com.liyao.autofillDoc.util.DescriptionRules;
+import com.liyao.autofillDoc.util.JavadocTagIndex;
 import com.liyao.autofillDoc.util.JavadocUtils;
+import com.liyao.autofillDoc.util.PathPatternMatcher;
 import org.apache.maven.plugin.logging.Log;
 
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Iterator;
+import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Javadoc处理器
@@ -30,6 +36,14 @@ public class JavadocProcessor {
     private final Log log;
     private final JavadocAutofillConfig config;
     private final MethodDescriptionService methodDescriptionService;
+    private final JavaParserProvider parserProvider;
+    private final JavadocSplicer splicer;
+    private final SourceFileWriter writer;
+    private final PathPatternMatcher pathMatcher;
+    private final ProcessingMetrics metrics;
+    private final DescriptionRules rules;
+    private final DescriptionCache descriptionCache;
+    private final JavadocPrescanner prescanner;
 
     /**
      * 构造函数
@@ -38,44 +52,98 @@ public class JavadocProcessor {
      * @param config 配置对象
      */
     public JavadocProcessor(Log log, JavadocAutofillConfig config) {
+        this(log, config, new ProcessingMetrics(0));
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param log     日志对象
+     * @param config  配置对象
+     * @param metrics 处理统计
+     */
+    public JavadocProcessor(Log log, JavadocAutofillConfig config, ProcessingMetrics metrics) {
+        this(log, config, metrics, null);
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param log         日志对象
+     * @param config      配置对象
+     * @param metrics     处理统计
+     * @param sharedState 多次运行之间共享的状态，为null时创建独立的规则、解析器和描述缓存
+     */
+    public JavadocProcessor(Log log, JavadocAutofillConfig config, ProcessingMetrics metrics,
+                            SharedState sharedState) {
         this.log = log;
         this.config = config;
-        this.methodDescriptionService = new MethodDescriptionService();
+        if (sharedState != null) {
+            SharedState.Resources resources = sharedState.resources(config);
+            this.rules = resources.rules;
+            this.descriptionCache = resources.descriptionCache.withMetrics(metrics);
+            this.parserProvider = resources.parserProvider;
+        } else {
+            this.rules = loadDescriptionRules(config.getRulesFile());
+            this.descriptionCache = new DescriptionCache(rules, metrics, config.getDescriptionCacheSize());
+            this.parserProvider = new JavaParserProvider(config);
+        }
+        this.methodDescriptionService = new MethodDescriptionService(rules);
+        this.splicer = new JavadocSplicer();
+        this.writer = new SourceFileWriter();
+        this.pathMatcher = new PathPatternMatcher(config.getExcludePatterns(), config.getIncludePatterns());
+        this.metrics = metrics;
+        this.prescanner = config.isPrescan() ? new JavadocPrescanner(config) : null;
+    }
+
+    /**
+     * 加载描述规则，未配置规则文件时使用内置规则
+     *
+     * @param rulesFile 规则文件，可以为null
+     * @return 描述规则
+     * @throws JavadocProcessingException 读取规则文件失败或规则格式不正确
+     */
+    static DescriptionRules loadDescriptionRules(File rulesFile) {
+        if (rulesFile == null) {
+            return DescriptionRules.defaults();
+        }
+        try {
+            return DescriptionRules.load(rulesFile);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new JavadocProcessingException("加载描述规则失败: " + rulesFile, e);
+        }
     }
 
     /**
      * 处理枚举类型的JavaDoc注释
-     * 此方法遍历给定的编译单元中的所有类型，识别出枚举类型，并为其添加JavaDoc注释
+     * 此方法遍历索引中的顶层枚举类型及其常量，并为其添加JavaDoc注释
      * 如果枚举类型或其常量缺少JavaDoc注释，则会自动生成一个简单的描述性注释
      *
-     * @param cu           编译单元，代表一个Java源文件
-     * @param fileModified 单元素数组，用于指示文件是否已被修改
-     */
-    private void processEnumJavadoc(CompilationUnit cu, boolean[] fileModified) {
-        // 遍历编译单元中的所有类型，过滤出枚举类型
-        cu.getTypes().stream()
-                .filter(BodyDeclaration::isEnumDeclaration)
-                .forEach(enumType -> {
-                    // 如果枚举类型缺少JavaDoc注释，则生成并设置一个简单的描述性注释
-                    if (!enumType.getJavadoc().isPresent()) {
-                        String doc = enumType.getNameAsString() + " 枚举的描述\n";
-                        enumType.setJavadocComment(doc);
-                        log.debug("添加枚举注释: " + enumType.getNameAsString());
-                        fileModified[0] = true;
-                    }
-                    // 如果枚举类型是EnumDeclaration的实例，则为其每个常量添加JavaDoc注释
-                    if (enumType instanceof EnumDeclaration) {
-                        ((EnumDeclaration) enumType).getEntries().forEach(entry -> {
-                            // 如果枚举常量缺少JavaDoc注释，则生成并设置一个简单的描述性注释
-                            if (!entry.getJavadoc().isPresent()) {
-                                String entryDoc = entry.getNameAsString() + " 枚举常量的描述\n";
-                                entry.setJavadocComment(entryDoc);
-                                log.debug("添加枚举常量注释: " + entry.getNameAsString());
-                                fileModified[0] = true;
-                            }
-                        });
-                    }
-                });
+     * @param index        源文件结构索引
+     * @param changes      文件的Javadoc变更集合
+     */
+    private void processEnumJavadoc(SourceIndex index, JavadocChangeSet changes) {
+        index.getEnums().forEach(enumType -> {
+            // 如果枚举类型缺少JavaDoc注释，则生成并设置一个简单的描述性注释
+            if (!existingJavadoc(enumType).isPresent()) {
+                changes.report(enumType, JavadocIssue.Kind.MISSING_JAVADOC, null);
+                String doc = enumType.getNameAsString() + " 枚举的描述\n";
+                changes.setJavadoc(enumType, doc);
+                metrics.increment(ProcessingMetrics.Counter.JAVADOCS_CREATED);
+                log.debug("添加枚举注释: " + enumType.getNameAsString());
+            }
+        });
+        index.getEnumConstants().forEach(entry -> {
+            metrics.increment(ProcessingMetrics.Counter.ENUM_CONSTANTS_VISITED);
+            // 如果枚举常量缺少JavaDoc注释，则生成并设置一个简单的描述性注释
+            if (!existingJavadoc(entry).isPresent()) {
+                changes.report(entry, JavadocIssue.Kind.MISSING_JAVADOC, null);
+                String entryDoc = entry.getNameAsString() + " 枚举常量的描述\n";
+                changes.setJavadoc(entry, entryDoc);
+                metrics.increment(ProcessingMetrics.Counter.JAVADOCS_CREATED);
+                log.debug("添加枚举常量注释: " + entry.getNameAsString());
+            }
+        });
     }
 
     /**
@@ -93,75 +161,190 @@ public class JavadocProcessor {
                 return false;
             }
 
+            SourceFile source = SourceFile.read(file.toPath(), config.getEncoding());
+            String newContent = process(source);
+            if (newContent == null) {
+                return false;
+            }
+            writer.write(file.toPath(), source.encode(newContent));
+            log.info("处理完成: " + file.getPath());
+            return true;
+        } catch (JavadocProcessingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw JavadocProcessingException.createFileProcessingException(file.getPath(), e);
+        }
+    }
+
+    /**
+     * 处理已读取的源文件内容，根据配置添加或修改JavaDoc注释
+     * 解析、变更检测和输出比较都基于同一份内容，不会再次读取文件
+     *
+     * @param source 源文件内容
+     * @return 修改后的文件内容；文件无需修改时返回null
+     * @throws JavadocProcessingException 如果文件处理过程中发生错误
+     */
+    public String process(SourceFile source) {
+        long start = System.nanoTime();
+        try {
+            if (skipByPrescan(source)) {
+                return null;
+            }
             // 解析Java文件内容
-            CompilationUnit cu = StaticJavaParser.parse(file);
+            CompilationUnit cu = parse(source);
+            ProcessingMetrics.PhaseTimer transformTimer = metrics.start(ProcessingMetrics.Phase.TRANSFORM);
+            JavadocChangeSet changes = applyRules(cu, source.getPath().toString());
+            transformTimer.stop();
+            if (!changes.isModified()) {
+                return null;
+            }
 
-            // 初始化标志，用于指示文件是否被修改
-            boolean[] fileModified = { false };
+            // 只有当内容实际发生变化时才需要写入文件
+            ProcessingMetrics.PhaseTimer printTimer = metrics.start(ProcessingMetrics.Phase.PRINT);
+            String newContent = render(cu, source.getContent(), changes);
+            printTimer.stop();
+            return newContent.equals(source.getContent()) ? null : newContent;
+        } catch (JavadocProcessingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw JavadocProcessingException.createFileProcessingException(source.getPath().toString(), e);
+        } finally {
+            metrics.recordFile(source.getPath(), System.nanoTime() - start);
+        }
+    }
 
-            // 根据配置处理类的JavaDoc注释
-            if (config.isAddClassJavadoc()) {
-                processTypeJavadoc(cu, fileModified);
+    /**
+     * 检查已读取的源文件内容，报告缺失的Javadoc，不会生成或写入任何内容
+     *
+     * @param source 源文件内容
+     * @return Javadoc缺失问题列表
+     * @throws JavadocProcessingException 如果文件处理过程中发生错误
+     */
+    public List<JavadocIssue> check(SourceFile source) {
+        try {
+            // 只有会修改的地方才会报告问题，确定不需要修改的文件也不会有问题
+            if (skipByPrescan(source)) {
+                return Collections.emptyList();
             }
+            CompilationUnit cu = parse(source);
+            return applyRules(cu, source.getPath().toString()).getIssues();
+        } catch (JavadocProcessingException e) {
+            throw e;
+        } catch (Exception e) {
+            throw JavadocProcessingException.createFileProcessingException(source.getPath().toString(), e);
+        }
+    }
 
-            // 添加对枚举注释的处理
-            processEnumJavadoc(cu, fileModified);
+    /**
+     * 用词法预扫描判断文件是否可以跳过完整解析
+     *
+     * @param source 源文件内容
+     * @return 确定不需要修改时返回true
+     */
+    private boolean skipByPrescan(SourceFile source) {
+        if (prescanner == null) {
+            return false;
+        }
+        ProcessingMetrics.PhaseTimer timer = metrics.start(ProcessingMetrics.Phase.PRESCAN);
+        boolean candidate = prescanner.mayNeedChanges(source.getContent());
+        timer.stop();
+        if (!candidate) {
+            metrics.increment(ProcessingMetrics.Counter.FILES_PRESCAN_SKIPPED);
+        }
+        return !candidate;
+    }
 
-            // 根据配置处理方法的JavaDoc注释
-            if (config.isAddMethodJavadoc() || config.isAddParamJavadoc() ||
-                    config.isAddReturnJavadoc() || config.isAddThrowsJavadoc()) {
-                processMethodJavadoc(cu, fileModified);
-            }
+    /**
+     * 解析源文件内容并记录解析耗时
+     *
+     * @param source 源文件内容
+     * @return 编译单元
+     */
+    private CompilationUnit parse(SourceFile source) {
+        ProcessingMetrics.PhaseTimer timer = metrics.start(ProcessingMetrics.Phase.PARSE);
+        try {
+            return parserProvider.parse(source.getContent());
+        } finally {
+            timer.stop();
+            metrics.increment(ProcessingMetrics.Counter.FILES_PARSED);
+        }
+    }
 
-            // 如果文件被修改，尝试写入修改内容
-            if (fileModified[0]) {
-                try {
-                    String newContent = cu.toString();
-                    String oldContent = new String(Files.readAllBytes(file.toPath()));
-
-                    // 只有当内容实际发生变化时才写入文件并打印日志
-                    if (!newContent.equals(oldContent)) {
-                        Files.write(file.toPath(), newContent.getBytes());
-                        log.info("处理完成: " + file.getPath());
-                        return true;
-                    } else {
-                        return false;
-                    }
-                } catch (IOException e) {
-                    throw JavadocProcessingException.createFileProcessingException(file.getPath(), e);
-                }
-            }
+    /**
+     * 根据配置对编译单元应用Javadoc补全规则
+     *
+     * @param cu   编译单元
+     * @param file 文件路径
+     * @return 文件的Javadoc变更集合，包含发现的缺失问题
+     */
+    private JavadocChangeSet applyRules(CompilationUnit cu, String file) {
+        // 记录文件中发生变更的Javadoc
+        JavadocChangeSet changes = new JavadocChangeSet(file);
 
-            // 如果文件未被修改，返回false
-            return false;
-        } catch (Exception e) {
-            log.error("处理失败: " + file.getPath(), e);
-            throw JavadocProcessingException.createFileProcessingException(file.getPath(), e);
+        // 只遍历一次语法树，收集后续处理需要的所有声明和方法体特征
+        SourceIndex index = SourceIndex.build(cu);
+
+        // 根据配置处理类的JavaDoc注释
+        if (config.isAddClassJavadoc()) {
+            processTypeJavadoc(index, changes);
         }
+
+        // 添加对枚举注释的处理
+        processEnumJavadoc(index, changes);
+
+        // 根据配置处理方法的JavaDoc注释
+        if (config.isAddMethodJavadoc() || config.isAddParamJavadoc() ||
+                config.isAddReturnJavadoc() || config.isAddThrowsJavadoc()) {
+            processMethodJavadoc(index, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * 生成修改后的文件内容
+     * 最小化改写模式下只替换变更的注释区域，无法安全拼接时退回整体格式化输出
+     *
+     * @param cu         编译单元
+     * @param oldContent 原始文件内容
+     * @param changes    文件的Javadoc变更集合
+     * @return 修改后的文件内容
+     */
+    private String render(CompilationUnit cu, String oldContent, JavadocChangeSet changes) {
+        if (config.getRewriteMode() == RewriteMode.MINIMAL) {
+            String spliced = splicer.splice(oldContent, changes);
+            if (spliced != null) {
+                return spliced;
+            }
+            log.debug("无法最小化改写, 退回整体格式化输出");
+        }
+        return cu.toString();
     }
 
     /**
      * 处理类型的Javadoc注释
      *
-     * @param cu           编译单元
-     * @param fileModified 文件是否被修改的标记
+     * @param index        源文件结构索引
+     * @param changes      文件的Javadoc变更集合
      */
-    private void processTypeJavadoc(CompilationUnit cu, boolean[] fileModified) {
-        cu.getTypes().forEach(type -> {
-            if (type.getJavadoc().isPresent()) {
+    void processTypeJavadoc(SourceIndex index, JavadocChangeSet changes) {
+        index.getTypes().forEach(type -> {
+            metrics.increment(ProcessingMetrics.Counter.TYPES_VISITED);
+            Optional<Javadoc> existing = existingJavadoc(type);
+            if (existing.isPresent()) {
                 // 移除非标准标签
-                Javadoc javadoc = type.getJavadoc().get();
-                List<JavadocBlockTag> tags = javadoc.getBlockTags();
+                Javadoc javadoc = existing.get();
+                JavadocTagIndex tags = new JavadocTagIndex(javadoc);
                 boolean typeModified = removeNonStandardTags(tags);
                 if (typeModified) {
-                    type.setJavadocComment(javadoc.toText());
-                    fileModified[0] = true;
+                    tags.writeTo(javadoc);
+                    changes.setJavadoc(type, javadoc.toText());
                 }
             } else {
+                changes.report(type, JavadocIssue.Kind.MISSING_JAVADOC, null);
                 String typeKeyword = JavadocUtils.getTypeKeyword(type);
                 String doc = type.getNameAsString() + " " + typeKeyword + "的描述\n";
-                type.setJavadocComment(doc);
-                fileModified[0] = true;
+                changes.setJavadoc(type, doc);
+                metrics.increment(ProcessingMetrics.Counter.JAVADOCS_CREATED);
             }
         });
     }
@@ -172,70 +355,75 @@ public class JavadocProcessor {
      * @param file 要检查的文件
      * @return 如果文件应该被排除则返回true，否则返回false
      */
-    private boolean shouldExcludeFile(File file) {
-        String filePath = file.getPath();
-        // 如果排除模式列表为空，则不排除任何文件
-        if (config.getExcludePatterns() == null || config.getExcludePatterns().isEmpty()) {
-            return false;
-        }
+    boolean shouldExcludeFile(File file) {
+        File sourceDir = config.getSourceDir();
+        return pathMatcher.isExcluded(sourceDir != null ? sourceDir.toPath() : null, file.toPath());
+    }
 
-        // 检查文件路径是否匹配任何排除模式
-        for (String pattern : config.getExcludePatterns()) {
-            if (filePath.matches(pattern)) {
-                return true;
-            }
+    /**
+     * 获取声明现有的Javadoc
+     * 上一行代码末尾的注释可能被JavaParser关联到声明上，声明前的Javadoc因此成为孤立注释，此时仍以该Javadoc为准，
+     * 保留其中已有的描述，最小化改写时替换的也是这个Javadoc
+     *
+     * @param node 声明节点
+     * @return 现有的Javadoc
+     */
+    private Optional<Javadoc> existingJavadoc(NodeWithJavadoc<?> node) {
+        Optional<Javadoc> javadoc = node.getJavadoc();
+        if (javadoc.isPresent()) {
+            return javadoc;
         }
-
-        return false;
+        JavadocComment orphan = JavadocSplicer.misattributedJavadoc((Node) node);
+        return orphan != null ? Optional.of(orphan.parse()) : Optional.empty();
     }
 
     /**
      * 处理方法的Javadoc注释
-     * 此方法遍历编译单元中的所有可调用声明，特别是方法声明，并根据配置和现有注释添加或修改Javadoc
+     * 此方法遍历索引中的所有方法声明和注解成员，并根据配置和现有注释添加或修改Javadoc
      *
-     * @param cu           编译单元，代表一个源文件及其包含的代码结构
-     * @param fileModified 一个布尔数组，用于指示文件是否已被修改
+     * @param index        源文件结构索引
+     * @param changes      文件的Javadoc变更集合
      */
-    private void processMethodJavadoc(CompilationUnit cu, boolean[] fileModified) {
+    private void processMethodJavadoc(SourceIndex index, JavadocChangeSet changes) {
         // 处理普通方法声明
-        processMethodDeclarations(cu, fileModified);
+        processMethodDeclarations(index, changes);
 
         // 处理注解成员声明
-        processAnnotationMembers(cu, fileModified);
+        processAnnotationMembers(index, changes);
     }
 
     /**
      * 处理方法声明
      * 负责处理方法级别的Javadoc生成和更新
      *
-     * @param cu           编译单元
-     * @param fileModified 文件修改标记
+     * @param index        源文件结构索引
+     * @param changes      文件的Javadoc变更集合
      */
-    private void processMethodDeclarations(CompilationUnit cu, boolean[] fileModified) {
-        cu.findAll(CallableDeclaration.class).forEach(decl -> {
+    void processMethodDeclarations(SourceIndex index, JavadocChangeSet changes) {
+        index.getMethods().forEach(method -> {
             try {
-                if (decl instanceof MethodDeclaration) {
-                    MethodDeclaration method = (MethodDeclaration) decl;
-                    if (!config.isIncludePrivateMethods() && method.isPrivate()) {
-                        return; // 跳过私有方法
-                    }
+                if (!config.isIncludePrivateMethods() && method.isPrivate()) {
+                    return; // 跳过私有方法
+                }
+                metrics.increment(ProcessingMetrics.Counter.METHODS_VISITED);
 
-                    // 初始化或获取现有Javadoc
-                    Javadoc javadoc = initOrGetMethodJavadoc(method);
-                    if (javadoc == null)
-                        return;
+                // 初始化或获取现有Javadoc
+                boolean created = !existingJavadoc(method).isPresent();
+                Javadoc javadoc = initOrGetMethodJavadoc(method, index.getFeatures(method), changes);
+                if (javadoc == null)
+                    return;
 
-                    // 处理各个部分注释
-                    boolean methodModified = processMethodJavadocParts(method, javadoc);
+                // 处理各个部分注释，新建的Javadoc即使没有需要补充的标签也需要写入
+                boolean methodModified = processMethodJavadocParts(method, javadoc, changes);
 
-                    if (methodModified) {
-                        method.setJavadocComment(javadoc.toText());
-                        fileModified[0] = true;
-                        log.debug("处理方法: " + method.getNameAsString());
+                if ((created || methodModified) && changes.setJavadoc(method, javadoc.toText())) {
+                    if (created) {
+                        metrics.increment(ProcessingMetrics.Counter.JAVADOCS_CREATED);
                     }
+                    log.debug("处理方法: " + method.getNameAsString());
                 }
             } catch (Exception e) {
-                log.warn("处理方法失败: " + decl.getNameAsString(), e);
+                log.warn("处理方法失败: " + method.getNameAsString(), e);
             }
         });
     }
@@ -244,23 +432,30 @@ public class JavadocProcessor {
      * 处理注解成员
      * 负责处理注解成员级别的Javadoc生成和更新
      *
-     * @param cu           编译单元
-     * @param fileModified 文件修改标记
+     * @param index        源文件结构索引
+     * @param changes      文件的Javadoc变更集合
      */
-    private void processAnnotationMembers(CompilationUnit cu, boolean[] fileModified) {
-        cu.findAll(AnnotationMemberDeclaration.class).forEach(annoMember -> {
+    private void processAnnotationMembers(SourceIndex index, JavadocChangeSet changes) {
+        index.getAnnotationMembers().forEach(annoMember -> {
+            metrics.increment(ProcessingMetrics.Counter.ANNOTATION_MEMBERS_VISITED);
             try {
-                Javadoc javadoc = annoMember.getJavadoc().orElse(new Javadoc(new JavadocDescription()));
-                List<JavadocBlockTag> tags = javadoc.getBlockTags(); // ✅ 使用原始引用
+                Optional<Javadoc> existing = existingJavadoc(annoMember);
+                boolean created = !existing.isPresent();
+                Javadoc javadoc = existing.orElse(new Javadoc(new JavadocDescription()));
+                JavadocTagIndex tags = new JavadocTagIndex(javadoc);
                 boolean modified = false;
 
                 if (config.isAddReturnJavadoc()) {
-                    modified = processAnnotationReturnTags(annoMember, javadoc, tags);
+                    modified = processAnnotationReturnTags(annoMember, tags, changes);
                 }
-
                 if (modified) {
-                    annoMember.setJavadocComment(javadoc.toText());
-                    fileModified[0] = true;
+                    tags.writeTo(javadoc);
+                }
+
+                if (modified && changes.setJavadoc(annoMember, javadoc.toText())) {
+                    if (created) {
+                        metrics.increment(ProcessingMetrics.Counter.JAVADOCS_CREATED);
+                    }
                     log.debug("处理注解成员: " + annoMember.getNameAsString());
                 }
             } catch (Exception e) {
@@ -273,15 +468,20 @@ public class JavadocProcessor {
      * 初始化或获取方法的Javadoc
      * 根据配置决定是否创建新的Javadoc或使用现有的
      *
-     * @param method 方法声明
+     * @param method   方法声明
+     * @param features 方法体特征
+     * @param changes  文件的Javadoc变更集合
      * @return Javadoc对象，如果不需要处理则返回null
      */
-    private Javadoc initOrGetMethodJavadoc(MethodDeclaration method) {
-        if (method.getJavadoc().isPresent()) {
-            return method.getJavadoc().get();
+    private Javadoc initOrGetMethodJavadoc(MethodDeclaration method, MethodBodyFeatures features,
+            JavadocChangeSet changes) {
+        Optional<Javadoc> existing = existingJavadoc(method);
+        if (existing.isPresent()) {
+            return existing.get();
         } else if (config.isAddMethodJavadoc()) {
+            changes.report(method, JavadocIssue.Kind.MISSING_JAVADOC, null);
             return new Javadoc(JavadocDescription.parseText(
-                    methodDescriptionService.generateMethodDescription(method)));
+                    methodDescriptionService.generateMethodDescription(method, features)));
         }
         return null;
     }
@@ -292,66 +492,83 @@ public class JavadocProcessor {
      *
      * @param method  方法声明
      * @param javadoc Javadoc对象
+     * @param changes 文件的Javadoc变更集合
      * @return 是否修改了Javadoc
      */
-    private boolean processMethodJavadocParts(MethodDeclaration method, Javadoc javadoc) {
-        List<JavadocBlockTag> tags = javadoc.getBlockTags();
+    private boolean processMethodJavadocParts(MethodDeclaration method, Javadoc javadoc, JavadocChangeSet changes) {
+        JavadocTagIndex tags = new JavadocTagIndex(javadoc);
         boolean methodModified = false;
 
         methodModified |= removeNonStandardTags(tags);
-        methodModified |= processMethodParams(method, javadoc, tags);
-        methodModified |= processMethodReturn(method, javadoc, tags);
-        methodModified |= processMethodThrows(method, javadoc, tags);
-
+        methodModified |= processMethodParams(method, tags, changes);
+        methodModified |= processMethodReturn(method, tags, changes);
+        methodModified |= processMethodThrows(method, tags, changes);
+
+        // 只有修改过标签时才按规范顺序写回，未修改的Javadoc保持原有顺序
+        if (methodModified) {
+            tags.setParamOrder(paramOrder(method));
+            tags.writeTo(javadoc);
+        }
         return methodModified;
     }
 
+    /**
+     * 方法的参数声明顺序，泛型类型参数在前
+     *
+     * @param method 方法声明
+     * @return 参数名列表，泛型类型参数写作"&lt;T&gt;"
+     */
+    private List<String> paramOrder(MethodDeclaration method) {
+        List<String> names = new ArrayList<>(method.getTypeParameters().size() + method.getParameters().size());
+        for (TypeParameter typeParam : method.getTypeParameters()) {
+            names.add("<" + typeParam.getNameAsString() + ">");
+        }
+        for (Parameter param : method.getParameters()) {
+            names.add(param.getNameAsString());
+        }
+        return names;
+    }
+
     /**
      * 处理方法参数注释
      *
      * @param method  方法声明
-     * @param javadoc Javadoc对象
-     * @param tags    标签列表
+     * @param tags    标签索引
+     * @param changes 文件的Javadoc变更集合
      * @return 是否修改了Javadoc
      */
-    private boolean processMethodParams(MethodDeclaration method, Javadoc javadoc, List<JavadocBlockTag> tags) {
-        return config.isAddParamJavadoc() && processParamTags(method, javadoc, tags);
+    private boolean processMethodParams(MethodDeclaration method, JavadocTagIndex tags,
+            JavadocChangeSet changes) {
+        return config.isAddParamJavadoc() && processParamTags(method, tags, changes);
     }
 
     /**
      * 处理方法返回值注释
      *
      * @param method  方法声明
-     * @param javadoc Javadoc对象
-     * @param tags    标签列表
+     * @param tags    标签索引
+     * @param changes 文件的Javadoc变更集合
      * @return 是否修改了Javadoc
      */
-    private boolean processMethodReturn(MethodDeclaration method, Javadoc javadoc, List<JavadocBlockTag> tags) {
+    private boolean processMethodReturn(MethodDeclaration method, JavadocTagIndex tags,
+            JavadocChangeSet changes) {
         if (!config.isAddReturnJavadoc())
             return false;
 
-        if (!method.getType().isVoidType()) {
-            return processReturnTag(method, javadoc, tags);
-        } else {
-            JavadocBlockTag existingReturnTag = findBlockTag(tags, JavadocBlockTag.Type.RETURN, null);
-            if (existingReturnTag != null) {
-                removeAllReturnTags(tags);
-                return true;
-            }
-        }
-        return false;
+        return processReturnTag(method, tags, changes);
     }
 
     /**
      * 处理方法异常注释
      *
      * @param method  方法声明
-     * @param javadoc Javadoc对象
-     * @param tags    标签列表
+     * @param tags    标签索引
+     * @param changes 文件的Javadoc变更集合
      * @return 是否修改了Javadoc
      */
-    private boolean processMethodThrows(MethodDeclaration method, Javadoc javadoc, List<JavadocBlockTag> tags) {
-        return config.isAddThrowsJavadoc() && processThrowsTags(method, javadoc, tags);
+    private boolean processMethodThrows(MethodDeclaration method, JavadocTagIndex tags,
+            JavadocChangeSet changes) {
+        return config.isAddThrowsJavadoc() && processThrowsTags(method, tags, changes);
     }
 
     /**
@@ -360,11 +577,12 @@ public class JavadocProcessor {
      * 若标签存在但内容为空，则自动补全标准描述
      *
      * @param method  方法声明
-     * @param javadoc Javadoc对象
-     * @param tags    标签列表
+     * @param tags    标签索引
+     * @param changes 文件的Javadoc变更集合
      * @return 是否修改了Javadoc
      */
-    private boolean processParamTags(MethodDeclaration method, Javadoc javadoc, List<JavadocBlockTag> tags) {
+    private boolean processParamTags(MethodDeclaration method, JavadocTagIndex tags,
+            JavadocChangeSet changes) {
         boolean modified = false;
 
         // 1. 处理泛型类型参数 @param <T>
@@ -372,15 +590,14 @@ public class JavadocProcessor {
             String paramName = typeParam.getNameAsString();
 
             // 查找现有的泛型参数标签
-            JavadocBlockTag existingTag = findBlockTag(tags, JavadocBlockTag.Type.PARAM, "<" + paramName + ">");
+            JavadocBlockTag existingTag = tags.find(JavadocBlockTag.Type.PARAM, "<" + paramName + ">");
 
             if (existingTag == null || existingTag.getContent().toText().trim().isEmpty()) {
-                if (existingTag != null) {
-                    tags.remove(existingTag);
-                }
+                changes.report(method, JavadocIssue.Kind.MISSING_PARAM, "<" + paramName + ">");
 
+                // 空标签原位替换，不存在时添加
                 String description = "泛型类型参数 " + paramName;
-                javadoc.addBlockTag("param", "<" + paramName + ">", description);
+                replaceBlockTag(tags, existingTag, "param", "<" + paramName + ">", description);
                 modified = true;
             }
         }
@@ -388,28 +605,24 @@ public class JavadocProcessor {
         // 2. 处理普通参数
         for (Parameter param : method.getParameters()) {
             String paramName = param.getNameAsString();
-            String paramType = param.getType().asString();
 
-            JavadocBlockTag existingTag = findBlockTag(tags, JavadocBlockTag.Type.PARAM, paramName);
+            JavadocBlockTag existingTag = tags.find(JavadocBlockTag.Type.PARAM, paramName);
 
             if (existingTag == null || existingTag.getContent().toText().trim().isEmpty()) {
-                if (existingTag != null) {
-                    tags.remove(existingTag);
-                }
+                changes.report(method, JavadocIssue.Kind.MISSING_PARAM, paramName);
 
-                String paramDescription = JavadocUtils.generateParamDescription(paramName);
-                if (paramType.contains("<")) {
-                    paramDescription += "，类型为 " + JavadocUtils.cleanAngleBrackets(paramType);
-                }
+                String paramDescription = descriptionCache.paramDescription(paramName, param.getType().asString());
 
-                javadoc.addBlockTag("param", paramName, paramDescription);
-                modified = true;
-            } else if (existingTag.getContent().toText().contains("<")
-                    || existingTag.getContent().toText().contains(">")) {
-                String cleanContent = JavadocUtils.cleanAngleBrackets(existingTag.getContent().toText());
-                tags.remove(existingTag);
-                javadoc.addBlockTag("param", paramName, cleanContent);
+                replaceBlockTag(tags, existingTag, "param", paramName, paramDescription);
                 modified = true;
+            } else {
+                // 只有清理后内容确实变化时才替换标签
+                String content = existingTag.getContent().toText();
+                String cleanContent = JavadocUtils.cleanAngleBrackets(content);
+                if (!cleanContent.equals(content)) {
+                    replaceBlockTag(tags, existingTag, "param", paramName, cleanContent);
+                    modified = true;
+                }
             }
         }
 
@@ -420,22 +633,23 @@ public class JavadocProcessor {
      * 处理返回值标签
      * 为非void方法添加返回值标签，并处理泛型类型
      * 对于void方法，移除任何现有的@return标签
-     * 若@return标签存在但内容为空，则自动补全标准描述
+     * 若@return标签存在但内容为空，则自动补全标准描述；已有内容的@return标签保持不变
+     * 只有实际修改了标签时才返回true
      *
      * @param node    节点
-     * @param javadoc Javadoc对象
-     * @param tags    标签列表
+     * @param tags    标签索引
+     * @param changes 文件的Javadoc变更集合
      * @return 是否修改了Javadoc
      */
-    private boolean processReturnTag(Node node, Javadoc javadoc, List<JavadocBlockTag> tags) {
+    private boolean processReturnTag(Node node, JavadocTagIndex tags,
+            JavadocChangeSet changes) {
         String returnType;
 
         if (node instanceof MethodDeclaration) {
             MethodDeclaration method = (MethodDeclaration) node;
             if (method.getType().isVoidType()) {
                 // void 方法，不需要 @return，清理旧的
-                removeAllReturnTags(tags);
-                return true;
+                return removeAllReturnTags(tags);
             }
             returnType = method.getType().asString();
         } else if (node instanceof AnnotationMemberDeclaration) {
@@ -445,29 +659,43 @@ public class JavadocProcessor {
             return false;
         }
 
-        // 删除所有旧的 @return 标签（防止出现多个）
-        removeAllReturnTags(tags);
+        JavadocBlockTag existingReturnTag = tags.find(JavadocBlockTag.Type.RETURN, null);
+        if (existingReturnTag == null || existingReturnTag.getContent().toText().trim().isEmpty()) {
+            changes.report(node, JavadocIssue.Kind.MISSING_RETURN, null);
+
+            // 删除所有旧的 @return 标签（防止出现多个）
+            removeAllReturnTags(tags);
+            String returnDescription = descriptionCache.returnDescription(returnType);
+            addBlockTag(tags, "return", null, returnDescription);
+            return true;
+        }
 
-        String returnDescription = JavadocUtils.generateReturnDescription(returnType);
-        javadoc.addBlockTag("return", returnDescription);
+        // 已有内容的 @return 标签只清理尖括号和重复的标签
+        String content = existingReturnTag.getContent().toText();
+        String cleanContent = JavadocUtils.cleanAngleBrackets(content);
+        int returnTagCount = tags.count(JavadocBlockTag.Type.RETURN);
+        if (cleanContent.equals(content) && returnTagCount == 1) {
+            return false;
+        }
+        removeAllReturnTags(tags);
+        addBlockTag(tags, "return", null, cleanContent);
         return true;
     }
 
     /**
-     * 处理抛出异常标签
-     * 为方法添加抛出异常的Javadoc标签，并处理泛型异常
-     * 若@throws标签存在但内容为空，则自动补全标准描述
+     * 移除所有@return标签
+     *
+     * @param tags 标签索引
+     * @return 是否有标签被移除
      */
-    private void removeAllReturnTags(List<JavadocBlockTag> tags) {
-        Iterator<JavadocBlockTag> iterator = tags.iterator();
-        while (iterator.hasNext()) {
-            JavadocBlockTag tag = iterator.next();
-            if (tag.getType() == JavadocBlockTag.Type.RETURN) {
-                // 打印或记录被移除的标签信息
-                log.debug("移除的标签: " + tag.toString());
-                iterator.remove();
-            }
+    private boolean removeAllReturnTags(JavadocTagIndex tags) {
+        List<JavadocBlockTag> removed = tags.removeAll(JavadocBlockTag.Type.RETURN);
+        for (JavadocBlockTag tag : removed) {
+            // 打印或记录被移除的标签信息
+            log.debug("移除的标签: " + tag.toString());
+            metrics.tagRemoved(tag.getTagName());
         }
+        return !removed.isEmpty();
     }
 
     /**
@@ -476,34 +704,36 @@ public class JavadocProcessor {
      * 如果存在返回标签但内容为空或包含不合适的字符（如尖括号），则进行清理或更新
      *
      * @param annoMember 注解成员声明对象
-     * @param javadoc    Javadoc对象
-     * @param tags       Javadoc块标签列表
+     * @param tags       Javadoc块标签索引
+     * @param changes    文件的Javadoc变更集合
      * @return boolean 表示是否对文档进行了修改
      */
-    private boolean processAnnotationReturnTags(AnnotationMemberDeclaration annoMember, Javadoc javadoc,
-            List<JavadocBlockTag> tags) {
+    private boolean processAnnotationReturnTags(AnnotationMemberDeclaration annoMember, JavadocTagIndex tags,
+            JavadocChangeSet changes) {
         boolean modified = false;
 
         // 获取注解成员返回类型
         String returnType = annoMember.getType().asString();
-        JavadocBlockTag existingReturnTag = findBlockTag(tags, JavadocBlockTag.Type.RETURN, null);
+        JavadocBlockTag existingReturnTag = tags.find(JavadocBlockTag.Type.RETURN, null);
 
         // 如果没有 @return 标签或者现有标签内容为空，移除现有标签并添加新标签
         if (existingReturnTag == null || existingReturnTag.getContent().toText().trim().isEmpty()) {
+            changes.report(annoMember, existingJavadoc(annoMember).isPresent()
+                    ? JavadocIssue.Kind.MISSING_RETURN : JavadocIssue.Kind.MISSING_JAVADOC, null);
             if (existingReturnTag != null) {
                 removeAllReturnTags(tags);
             }
 
-            String returnDescription = JavadocUtils.generateReturnDescription(returnType);
-            javadoc.addBlockTag("return", returnDescription);
+            String returnDescription = descriptionCache.returnDescription(returnType);
+            addBlockTag(tags, "return", null, returnDescription);
             modified = true;
         } else {
-            // 如果已有 @return 标签且内容包含尖括号，清理内容
+            // 如果已有 @return 标签且内容包含尖括号，清理内容；清理后内容不变时保持原样
             String content = existingReturnTag.getContent().toText();
-            if (content.contains("<") || content.contains(">")) {
+            String cleaned = JavadocUtils.cleanAngleBrackets(content);
+            if (!cleaned.equals(content)) {
                 removeAllReturnTags(tags);
-                String cleaned = JavadocUtils.cleanAngleBrackets(content);
-                javadoc.addBlockTag("return", cleaned);
+                addBlockTag(tags, "return", null, cleaned);
                 modified = true;
             }
         }
@@ -517,11 +747,12 @@ public class JavadocProcessor {
      * 支持标准的@throws标签和非标准的@exception标签
      *
      * @param method  方法声明
-     * @param javadoc Javadoc对象
-     * @param tags    标签列表
+     * @param tags    标签索引
+     * @param changes 文件的Javadoc变更集合
      * @return 是否修改了Javadoc
      */
-    private boolean processThrowsTags(MethodDeclaration method, Javadoc javadoc, List<JavadocBlockTag> tags) {
+    private boolean processThrowsTags(MethodDeclaration method, JavadocTagIndex tags,
+            JavadocChangeSet changes) {
         boolean modified = false;
 
         List<ReferenceType> thrownExceptions = method.getThrownExceptions();
@@ -530,37 +761,35 @@ public class JavadocProcessor {
             String cleanExceptionName = JavadocUtils.cleanAngleBrackets(exceptionName);
 
             // 查找现有的标准@throws标签
-            JavadocBlockTag existingThrowsTag = findBlockTag(tags, JavadocBlockTag.Type.THROWS, exceptionName);
+            JavadocBlockTag existingThrowsTag = tags.find(JavadocBlockTag.Type.THROWS, exceptionName);
             if (existingThrowsTag == null) {
                 // 尝试查找使用清理后的异常名称的标签
-                existingThrowsTag = findBlockTag(tags, JavadocBlockTag.Type.THROWS, cleanExceptionName);
+                existingThrowsTag = tags.find(JavadocBlockTag.Type.THROWS, cleanExceptionName);
             }
 
             // 使用工具类查找非标准的@exception标签
             if (existingThrowsTag == null) {
-                existingThrowsTag = JavadocUtils.findCustomBlockTag(tags, "exception", exceptionName);
+                existingThrowsTag = tags.findCustom("exception", exceptionName);
                 if (existingThrowsTag == null) {
-                    existingThrowsTag = JavadocUtils.findCustomBlockTag(tags, "exception", cleanExceptionName);
+                    existingThrowsTag = tags.findCustom("exception", cleanExceptionName);
                 }
             }
 
             // 如果标签存在但内容为空，或者标签不存在，添加新标签
             if (existingThrowsTag == null || existingThrowsTag.getContent().isEmpty()) {
-                // 如果存在空标签，先移除它
-                if (existingThrowsTag != null) {
-                    tags.remove(existingThrowsTag);
-                }
-                // 使用工具类生成异常描述
-                String throwsDescription = JavadocUtils.generateThrowsDescription(cleanExceptionName);
-                javadoc.addBlockTag("throws", cleanExceptionName, throwsDescription);
-                modified = true;
-            } else if (existingThrowsTag.getContent().toText().contains("<")
-                    || existingThrowsTag.getContent().toText().contains(">")) {
-                // 如果现有标签包含尖括号，清理它们
-                String cleanContent = JavadocUtils.cleanAngleBrackets(existingThrowsTag.getContent().toText());
-                tags.remove(existingThrowsTag);
-                javadoc.addBlockTag("throws", cleanExceptionName, cleanContent);
+                changes.report(method, JavadocIssue.Kind.MISSING_THROWS, cleanExceptionName);
+                // 使用工具类生成异常描述，如果存在空标签则原位替换
+                String throwsDescription = descriptionCache.throwsDescription(cleanExceptionName);
+                replaceBlockTag(tags, existingThrowsTag, "throws", cleanExceptionName, throwsDescription);
                 modified = true;
+            } else {
+                // 如果现有标签包含尖括号，清理它们；清理后内容不变时保持原样
+                String content = existingThrowsTag.getContent().toText();
+                String cleanContent = JavadocUtils.cleanAngleBrackets(content);
+                if (!cleanContent.equals(content)) {
+                    replaceBlockTag(tags, existingThrowsTag, "throws", cleanExceptionName, cleanContent);
+                    modified = true;
+                }
             }
         }
 
@@ -568,39 +797,52 @@ public class JavadocProcessor {
     }
 
     /**
-     * 查找指定类型和名称的标签
+     * 添加标签并记录统计
      *
-     * @param tags 标签列表
-     * @param type 标签类型
-     * @param name 标签名称（可为null）
-     * @return 找到的标签，如果没有找到则返回null
+     * @param tags    标签索引
+     * @param tagName 标签名
+     * @param name    标签参数名，没有参数名时为null
+     * @param content 标签内容
      */
-    private JavadocBlockTag findBlockTag(List<JavadocBlockTag> tags, JavadocBlockTag.Type type, String name) {
-        return JavadocUtils.findBlockTag(tags, type, name);
+    private void addBlockTag(JavadocTagIndex tags, String tagName, String name, String content) {
+        tags.add(tagName, name, content);
+        metrics.tagAdded(tagName);
+    }
+
+    /**
+     * 用新标签原位替换现有标签并记录统计，现有标签为null时直接添加
+     *
+     * @param tags     标签索引
+     * @param existing 现有标签（可为null）
+     * @param tagName  新标签名
+     * @param name     新标签参数名，没有参数名时为null
+     * @param content  新标签内容
+     */
+    private void replaceBlockTag(JavadocTagIndex tags, JavadocBlockTag existing, String tagName, String name,
+            String content) {
+        if (existing == null || tags.replace(existing, tagName, name, content) == null) {
+            addBlockTag(tags, tagName, name, content);
+            return;
+        }
+        metrics.tagRemoved(existing.getTagName());
+        metrics.tagAdded(tagName);
     }
 
     /**
      * 移除Javadoc中的非标准标签，仅保留标准标签
      *
-     * @param tags 标签列表
+     * @param tags 标签索引
      * @return 是否有标签被移除
      */
-    private boolean removeNonStandardTags(List<JavadocBlockTag> tags) {
-        boolean modified = false;
+    private boolean removeNonStandardTags(JavadocTagIndex tags) {
         // 标准Javadoc标签集合
         final List<String> standardTags = Arrays.asList(
                 "author", "deprecated", "exception", "param", "return", "see", "serial", "serialData", "serialField",
                 "since", "throws", "version");
-        // 使用迭代器安全移除
-        Iterator<JavadocBlockTag> iterator = tags.iterator();
-        while (iterator.hasNext()) {
-            JavadocBlockTag tag = iterator.next();
-            String tagName = tag.getTagName();
-            if (!standardTags.contains(tagName)) {
-                iterator.remove();
-                modified = true;
-            }
+        List<JavadocBlockTag> removed = tags.removeIf(tag -> !standardTags.contains(tag.getTagName()));
+        for (JavadocBlockTag tag : removed) {
+            metrics.tagRemoved(tag.getTagName());
         }
-        return modified;
+        return !removed.isEmpty();
     }
 }
\ No newline at end of file
@@ -0,0 +1,257 @@
+package com.liyao.autofillDoc.service;
+
+import com.github.javaparser.Position;
+import com.github.javaparser.Range;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.comments.Comment;
+import com.github.javaparser.ast.comments.JavadocComment;
+import com.liyao.autofillDoc.service.JavadocChangeSet.JavadocEdit;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Javadoc拼接器
+ * 按照注释节点在源文件中的位置，只替换或插入发生变更的Javadoc，其余内容保持逐字节不变
+ */
+public class JavadocSplicer {
+
+    /**
+     * 孤立Javadoc的位置无法确定时的标记
+     */
+    private static final Comment AMBIGUOUS = new JavadocComment();
+
+    /**
+     * 将变更拼接到原始源代码中
+     *
+     * @param source  原始源代码
+     * @param changes 变更集合
+     * @return 拼接后的源代码；无法安全拼接时返回null，由调用方退回整体格式化输出
+     */
+    public String splice(String source, JavadocChangeSet changes) {
+        int[] lineOffsets = computeLineOffsets(source);
+        String lineSeparator = detectLineSeparator(source);
+
+        List<Replacement> replacements = new ArrayList<>();
+        for (JavadocEdit edit : changes.getEdits()) {
+            Replacement replacement = createReplacement(source, lineOffsets, lineSeparator, edit);
+            if (replacement == null) {
+                return null;
+            }
+            replacements.add(replacement);
+        }
+
+        // 从后往前替换，前面的偏移量不受影响
+        replacements.sort(Comparator.comparingInt((Replacement r) -> r.start).reversed());
+        StringBuilder result = new StringBuilder(source);
+        int previousStart = Integer.MAX_VALUE;
+        for (Replacement replacement : replacements) {
+            if (replacement.end > previousStart) {
+                return null;
+            }
+            result.replace(replacement.start, replacement.end, replacement.text);
+            previousStart = replacement.start;
+        }
+        return result.toString();
+    }
+
+    /**
+     * 为单个变更生成替换内容
+     * 原来就有Javadoc时替换注释区域；没有时在声明前插入，普通注释保持原样
+     * <p>
+     * 声明关联的是普通注释时（例如上一行代码末尾的注释被JavaParser关联到了声明上），原有的Javadoc成了孤立注释，
+     * 此时替换该孤立注释而不是再插入一个，否则每次执行都会多出一个Javadoc
+     *
+     * @param source        原始源代码
+     * @param lineOffsets   每行起始偏移量
+     * @param lineSeparator 换行符
+     * @param edit          变更记录
+     * @return 替换内容，无法定位时返回null
+     */
+    private Replacement createReplacement(String source, int[] lineOffsets, String lineSeparator, JavadocEdit edit) {
+        List<String> lines = edit.getJavadocLines();
+        Comment originalComment = edit.getOriginalComment();
+
+        Comment replaced = originalComment;
+        if (originalComment != null && !(originalComment instanceof JavadocComment)) {
+            replaced = findOrphanJavadoc(edit.getNode());
+            if (replaced == AMBIGUOUS) {
+                return null;
+            }
+        }
+        if (replaced instanceof JavadocComment) {
+            Range range = replaced.getRange().orElse(null);
+            if (range == null || !isValid(lineOffsets, range)) {
+                return null;
+            }
+            int start = toOffset(lineOffsets, range.begin);
+            int end = toOffset(lineOffsets, range.end) + 1;
+            String indent = leadingWhitespace(source, lineOffsets[range.begin.line - 1]);
+            return new Replacement(start, end, formatBlock(lines, indent, lineSeparator));
+        }
+
+        Range range = edit.getNode().getRange().orElse(null);
+        if (range == null || !isValid(lineOffsets, range)) {
+            return null;
+        }
+        int start = toOffset(lineOffsets, range.begin);
+        int lineStart = lineOffsets[range.begin.line - 1];
+        String prefix = source.substring(lineStart, start);
+        if (prefix.trim().isEmpty()) {
+            return new Replacement(start, start, formatBlock(lines, prefix, lineSeparator) + lineSeparator + prefix);
+        }
+        // 声明与其他代码在同一行（例如同一行的多个枚举常量），只能插入单行注释
+        if (lines.size() == 1 && !lines.get(0).startsWith("@")) {
+            return new Replacement(start, start, "/** " + lines.get(0).trim() + " */ ");
+        }
+        return null;
+    }
+
+    /**
+     * 获取因声明关联了普通注释而成为孤立注释的Javadoc
+     *
+     * @param node 声明节点
+     * @return 孤立Javadoc；声明关联的不是普通注释，或者孤立Javadoc不存在、不唯一时返回null
+     */
+    static JavadocComment misattributedJavadoc(Node node) {
+        Comment comment = node.getComment().orElse(null);
+        if (comment == null || comment instanceof JavadocComment) {
+            return null;
+        }
+        Comment orphan = findOrphanJavadoc(node);
+        return orphan != AMBIGUOUS ? (JavadocComment) orphan : null;
+    }
+
+    /**
+     * 查找位于上一个成员与声明之间的孤立Javadoc
+     *
+     * @param node 声明节点
+     * @return 孤立Javadoc；不存在时返回null，存在多个或位置无法确定时返回{@link #AMBIGUOUS}
+     */
+    private static Comment findOrphanJavadoc(Node node) {
+        Node parent = node.getParentNode().orElse(null);
+        Position begin = node.getBegin().orElse(null);
+        if (parent == null || begin == null) {
+            return AMBIGUOUS;
+        }
+        Position previousEnd = null;
+        for (Node sibling : parent.getChildNodes()) {
+            if (sibling == node || sibling instanceof Comment) {
+                continue;
+            }
+            Position end = sibling.getEnd().orElse(null);
+            if (end != null && end.isBefore(begin) && (previousEnd == null || end.isAfter(previousEnd))) {
+                previousEnd = end;
+            }
+        }
+        Comment found = null;
+        for (Comment orphan : parent.getOrphanComments()) {
+            if (!(orphan instanceof JavadocComment)) {
+                continue;
+            }
+            Range range = orphan.getRange().orElse(null);
+            if (range == null) {
+                return AMBIGUOUS;
+            }
+            if (range.end.isBefore(begin) && (previousEnd == null || range.begin.isAfter(previousEnd))) {
+                if (found != null) {
+                    return AMBIGUOUS;
+                }
+                found = orphan;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * 生成多行Javadoc注释块，格式与JavaParser的格式化输出一致
+     *
+     * @param lines         Javadoc文本行
+     * @param indent        缩进
+     * @param lineSeparator 换行符
+     * @return 注释块，不包含末尾换行
+     */
+    private String formatBlock(List<String> lines, String indent, String lineSeparator) {
+        boolean prependSpace = lines.stream().anyMatch(line -> !line.isEmpty() && !line.startsWith(" "));
+        StringBuilder block = new StringBuilder("/**").append(lineSeparator);
+        for (String line : lines) {
+            block.append(indent).append(" *");
+            if (!line.isEmpty()) {
+                block.append(prependSpace ? " " : "").append(line);
+            }
+            block.append(lineSeparator);
+        }
+        return block.append(indent).append(" */").toString();
+    }
+
+    /**
+     * 计算每一行的起始偏移量，行分隔符与JavaParser一致（\n、\r\n、\r）
+     *
+     * @param source 源代码
+     * @return 行起始偏移量数组，下标为行号减一
+     */
+    private int[] computeLineOffsets(String source) {
+        List<Integer> offsets = new ArrayList<>();
+        offsets.add(0);
+        for (int i = 0; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '\r') {
+                if (i + 1 < source.length() && source.charAt(i + 1) == '\n') {
+                    i++;
+                }
+                offsets.add(i + 1);
+            } else if (c == '\n') {
+                offsets.add(i + 1);
+            }
+        }
+        int[] result = new int[offsets.size()];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = offsets.get(i);
+        }
+        return result;
+    }
+
+    private boolean isValid(int[] lineOffsets, Range range) {
+        return range.begin.line >= 1 && range.end.line <= lineOffsets.length
+                && range.begin.column >= 1 && range.end.column >= 1;
+    }
+
+    private int toOffset(int[] lineOffsets, Position position) {
+        return lineOffsets[position.line - 1] + position.column - 1;
+    }
+
+    private String leadingWhitespace(String source, int lineStart) {
+        int end = lineStart;
+        while (end < source.length() && (source.charAt(end) == ' ' || source.charAt(end) == '\t')) {
+            end++;
+        }
+        return source.substring(lineStart, end);
+    }
+
+    private String detectLineSeparator(String source) {
+        int index = source.indexOf('\n');
+        if (index > 0 && source.charAt(index - 1) == '\r') {
+            return "\r\n";
+        }
+        if (index < 0 && source.indexOf('\r') >= 0) {
+            return "\r";
+        }
+        return "\n";
+    }
+
+    /**
+     * 源代码区间替换
+     */
+    private static final class Replacement {
+        private final int start;
+        private final int end;
+        private final String text;
+
+        private Replacement(int start, int end, String text) {
+            this.start = start;
+            this.end = end;
+            this.text = text;
+        }
+    }
+}
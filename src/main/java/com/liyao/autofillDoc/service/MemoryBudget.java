@@ -0,0 +1,140 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.exception.JavadocProcessingException;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 在途文件的内存预算
+ * 处理一个文件时需要同时持有原始字节、解码后的内容、语法树和生成的新内容，语法树占用的内存通常是源文件大小的数十到上百倍，
+ * 多个大文件同时解析很容易耗尽堆内存。读取文件前按文件大小预留内存，预算不足时等待其他文件处理完成；
+ * 语法树释放后缩减为只保留文件内容的部分，写入完成后全部归还
+ * <p>
+ * 预留按先来先得的顺序进行，大文件不会被源源不断的小文件饿死；单个文件超过全部预算时等其他文件全部完成后单独处理
+ */
+public class MemoryBudget {
+
+    /**
+     * 解析期间占用内存与源文件大小的估算倍数，包含语法树、词法单元和各份内容
+     */
+    static final int PARSE_FACTOR = 128;
+
+    /**
+     * 语法树释放后占用内存与源文件大小的估算倍数：原始字节、解码后的内容和新内容
+     */
+    static final int RETAINED_FACTOR = 4;
+
+    /**
+     * 信号量的单位，以KB计数避免超出int范围
+     */
+    private static final int UNIT = 1024;
+
+    private final long budgetBytes;
+    private final Semaphore permits;
+    private final int totalPermits;
+    private final ProcessingMetrics metrics;
+    private final AtomicLong inFlightBytes = new AtomicLong();
+
+    /**
+     * 构造函数
+     *
+     * @param budgetBytes 预算字节数，小于等于0时不限制，只统计在途内存
+     * @param metrics     处理统计，记录在途内存峰值和等待次数
+     */
+    public MemoryBudget(long budgetBytes, ProcessingMetrics metrics) {
+        this.budgetBytes = Math.max(0, budgetBytes);
+        this.metrics = metrics;
+        if (this.budgetBytes > 0) {
+            this.totalPermits = (int) Math.min(Integer.MAX_VALUE, Math.max(1, this.budgetBytes / UNIT));
+            this.permits = new Semaphore(totalPermits, true);
+        } else {
+            this.totalPermits = 0;
+            this.permits = null;
+        }
+        metrics.memoryBudget(this.budgetBytes);
+    }
+
+    /**
+     * 为即将读取和解析的文件预留内存，预算不足时阻塞等待
+     *
+     * @param fileSize 文件大小（字节）
+     * @return 预留，使用完毕后必须关闭
+     * @throws JavadocProcessingException 等待被中断
+     */
+    public Reservation reserve(long fileSize) {
+        long bytes = Math.max(0, fileSize) * PARSE_FACTOR;
+        int count = toPermits(bytes);
+        if (permits != null && count > 0 && !permits.tryAcquire(count)) {
+            metrics.increment(ProcessingMetrics.Counter.MEMORY_BUDGET_WAITS);
+            try {
+                permits.acquire(count);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new JavadocProcessingException("等待内存预算被中断", e);
+            }
+        }
+        metrics.inFlightBytes(inFlightBytes.addAndGet(bytes));
+        return new Reservation(bytes, count);
+    }
+
+    /**
+     * 获取预算字节数
+     *
+     * @return 预算字节数，为0时不限制
+     */
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    private int toPermits(long bytes) {
+        if (permits == null) {
+            return 0;
+        }
+        // 超过全部预算的文件按全部预算计算，保证最终能够单独处理
+        return (int) Math.min(totalPermits, (bytes + UNIT - 1) / UNIT);
+    }
+
+    /**
+     * 单个文件的内存预留
+     */
+    public final class Reservation implements AutoCloseable {
+        private long bytes;
+        private int count;
+
+        private Reservation(long bytes, int count) {
+            this.bytes = bytes;
+            this.count = count;
+        }
+
+        /**
+         * 语法树释放后缩减预留，只保留文件内容占用的部分
+         *
+         * @param fileSize 文件大小（字节）
+         */
+        public synchronized void shrink(long fileSize) {
+            long retained = Math.min(bytes, Math.max(0, fileSize) * RETAINED_FACTOR);
+            int retainedCount = Math.min(count, toPermits(retained));
+            giveBack(bytes - retained, count - retainedCount);
+            bytes = retained;
+            count = retainedCount;
+        }
+
+        /**
+         * 归还全部预留，重复调用没有影响
+         */
+        @Override
+        public synchronized void close() {
+            giveBack(bytes, count);
+            bytes = 0;
+            count = 0;
+        }
+
+        private void giveBack(long releasedBytes, int releasedCount) {
+            inFlightBytes.addAndGet(-releasedBytes);
+            if (permits != null && releasedCount > 0) {
+                permits.release(releasedCount);
+            }
+        }
+    }
+}
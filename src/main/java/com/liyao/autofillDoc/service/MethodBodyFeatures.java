@@ -0,0 +1,187 @@
+package com.liyao.autofillDoc.service;
+
+import com.github.javaparser.ast.body.MethodDeclaration;
+
+/**
+ * 方法体特征
+ * 记录方法中是否出现特定的方法调用和各类语句，包括嵌套在lambda表达式、匿名类和局部类中的部分，
+ * 供生成方法描述时使用，避免对每个方法分别多次遍历语法树
+ * <p>
+ * 所有特征保存在一个int的各个位中，方法调用名称在访问时直接按关键字分类，不保存名称也不生成小写副本
+ */
+public class MethodBodyFeatures {
+
+    private static final int CALL_FIND = 1;
+    private static final int CALL_DATABASE = 1 << 1;
+    private static final int CALL_LOG = 1 << 2;
+    private static final int IF = 1 << 3;
+    private static final int FOR = 1 << 4;
+    private static final int WHILE = 1 << 5;
+    private static final int RETURN = 1 << 6;
+    private static final int THROW = 1 << 7;
+
+    private static final int ALL_CALLS = CALL_FIND | CALL_DATABASE | CALL_LOG;
+
+    /**
+     * 数据库操作关键字，忽略大小写
+     */
+    private static final String[] DATABASE_KEYWORDS = {"save", "update", "delete", "insert"};
+
+    /**
+     * 日志操作关键字，忽略大小写
+     */
+    private static final String[] LOG_KEYWORDS = {"log", "debug", "info"};
+
+    private int flags;
+
+    /**
+     * 单独遍历一个方法收集其特征
+     *
+     * @param method 方法声明
+     * @return 方法体特征
+     */
+    public static MethodBodyFeatures of(MethodDeclaration method) {
+        return SourceIndex.build(method).getFeatures(method);
+    }
+
+    /**
+     * 根据方法调用名称记录特征，所有调用特征都已出现时直接返回
+     *
+     * @param name 方法调用名称
+     */
+    void addMethodCall(String name) {
+        if ((flags & ALL_CALLS) == ALL_CALLS) {
+            return;
+        }
+        // 查询关键字区分大小写，与findById、findAll等命名习惯一致
+        if ((flags & CALL_FIND) == 0 && name.contains("find")) {
+            flags |= CALL_FIND;
+        }
+        if ((flags & CALL_DATABASE) == 0 && containsAnyIgnoreCase(name, DATABASE_KEYWORDS)) {
+            flags |= CALL_DATABASE;
+        }
+        if ((flags & CALL_LOG) == 0 && containsAnyIgnoreCase(name, LOG_KEYWORDS)) {
+            flags |= CALL_LOG;
+        }
+    }
+
+    void addIf() {
+        flags |= IF;
+    }
+
+    void addFor() {
+        flags |= FOR;
+    }
+
+    void addWhile() {
+        flags |= WHILE;
+    }
+
+    void addReturn() {
+        flags |= RETURN;
+    }
+
+    void addThrow() {
+        flags |= THROW;
+    }
+
+    /**
+     * 合并嵌套方法的特征，与在外层方法上直接查找的结果保持一致
+     *
+     * @param nested 嵌套方法的特征
+     */
+    void merge(MethodBodyFeatures nested) {
+        flags |= nested.flags;
+    }
+
+    /**
+     * 是否调用了名称包含"find"的方法
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasFindCall() {
+        return (flags & CALL_FIND) != 0;
+    }
+
+    /**
+     * 是否调用了数据库操作方法，即名称包含save、update、delete或insert（忽略大小写）的方法
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasDatabaseCall() {
+        return (flags & CALL_DATABASE) != 0;
+    }
+
+    /**
+     * 是否调用了日志方法，即名称包含log、debug或info（忽略大小写）的方法
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasLogCall() {
+        return (flags & CALL_LOG) != 0;
+    }
+
+    /**
+     * 是否包含if语句
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasIf() {
+        return (flags & IF) != 0;
+    }
+
+    /**
+     * 是否包含for语句
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasFor() {
+        return (flags & FOR) != 0;
+    }
+
+    /**
+     * 是否包含while语句
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasWhile() {
+        return (flags & WHILE) != 0;
+    }
+
+    /**
+     * 是否包含return语句
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasReturn() {
+        return (flags & RETURN) != 0;
+    }
+
+    /**
+     * 是否包含throw语句
+     *
+     * @return 包含时返回true
+     */
+    public boolean hasThrow() {
+        return (flags & THROW) != 0;
+    }
+
+    /**
+     * 忽略大小写判断名称是否包含任一关键字，逐字符比较，不创建新的字符串
+     *
+     * @param name     方法调用名称
+     * @param keywords 小写关键字
+     * @return 包含任一关键字时返回true
+     */
+    private static boolean containsAnyIgnoreCase(String name, String[] keywords) {
+        for (String keyword : keywords) {
+            int last = name.length() - keyword.length();
+            for (int i = 0; i <= last; i++) {
+                if (name.regionMatches(true, i, keyword, 0, keyword.length())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
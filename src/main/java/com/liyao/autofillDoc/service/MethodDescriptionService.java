@@ -1,10 +1,7 @@
 package com.liyao.autofillDoc.service;
 
 import com.github.javaparser.ast.body.MethodDeclaration;
-import com.github.javaparser.ast.expr.MethodCallExpr;
-import com.github.javaparser.ast.stmt.*;
-
-import java.util.List;
+import com.liyao.autofillDoc.util.DescriptionRules;
 
 /**
  * 方法描述生成服务
@@ -12,6 +9,24 @@ import java.util.List;
  */
 public class MethodDescriptionService {
 
+    private final DescriptionRules rules;
+
+    /**
+     * 使用内置描述规则的构造函数
+     */
+    public MethodDescriptionService() {
+        this(DescriptionRules.defaults());
+    }
+
+    /**
+     * 构造函数
+     *
+     * @param rules 描述规则，方法名命中method规则时优先使用规则中的描述
+     */
+    public MethodDescriptionService(DescriptionRules rules) {
+        this.rules = rules;
+    }
+
     /**
      * 生成基于AST的方法描述
      *
@@ -19,6 +34,24 @@ public class MethodDescriptionService {
      * @return 方法描述
      */
     public String generateMethodDescription(MethodDeclaration method) {
+        return generateMethodDescription(method, null);
+    }
+
+    /**
+     * 使用已收集的方法体特征生成方法描述
+     *
+     * @param method   方法声明
+     * @param features 方法体特征，为null时单独遍历该方法收集
+     * @return 方法描述
+     */
+    public String generateMethodDescription(MethodDeclaration method, MethodBodyFeatures features) {
+        // 优先使用命中方法名的规则
+        String ruleDescription = rules.describe(DescriptionRules.Target.METHOD, method.getNameAsString(),
+                method.getNameAsString(), null);
+        if (ruleDescription != null) {
+            return ruleDescription;
+        }
+
         // 处理getter和setter方法
         if (method.getNameAsString().startsWith("get")) {
             return "获取" + method.getNameAsString().substring(3);
@@ -28,74 +61,40 @@ public class MethodDescriptionService {
         }
 
         // 分析方法中的各种语句和表达式
-        List<MethodCallExpr> methodCalls = method.findAll(MethodCallExpr.class);
-        List<IfStmt> ifStmts = method.findAll(IfStmt.class);
-        List<ForStmt> forStmts = method.findAll(ForStmt.class);
-        List<WhileStmt> whileStmts = method.findAll(WhileStmt.class);
-        List<ReturnStmt> returnStmts = method.findAll(ReturnStmt.class);
-        List<ThrowStmt> throwStmts = method.findAll(ThrowStmt.class);
-
-        // 检查是否包含数据库操作
-        boolean hasDbCall = hasDataBaseOperation(methodCalls);
-
-        // 检查是否包含日志操作
-        boolean hasLogCall = hasLogOperation(methodCalls);
+        if (features == null) {
+            features = MethodBodyFeatures.of(method);
+        }
 
         // 根据方法特征生成描述
-        if (!methodCalls.isEmpty() && methodCalls.stream().anyMatch(mc -> mc.getNameAsString().contains("find"))) {
+        if (features.hasFindCall()) {
             return "查询并返回相关数据";
         }
 
-        if (hasDbCall) {
+        if (features.hasDatabaseCall()) {
             return "执行数据库操作";
         }
 
-        if (!ifStmts.isEmpty() && !returnStmts.isEmpty()) {
+        if (features.hasIf() && features.hasReturn()) {
             return "根据条件判断返回不同结果";
         }
 
-        if (!forStmts.isEmpty() || !whileStmts.isEmpty()) {
+        if (features.hasFor() || features.hasWhile()) {
             return "遍历并处理集合数据";
         }
 
-        if (!returnStmts.isEmpty()) {
+        if (features.hasReturn()) {
             return "返回处理结果";
         }
 
-        if (!throwStmts.isEmpty()) {
+        if (features.hasThrow()) {
             return "执行操作并抛出异常";
         }
 
-        if (hasLogCall) {
+        if (features.hasLogCall()) {
             return "记录日志操作";
         }
 
         // 默认描述
         return "执行" + method.getNameAsString() + "操作";
     }
-
-    /**
-     * 检查方法调用中是否包含数据库操作
-     *
-     * @param methodCalls 方法调用列表
-     * @return 是否包含数据库操作
-     */
-    private boolean hasDataBaseOperation(List<MethodCallExpr> methodCalls) {
-        return methodCalls.stream().anyMatch(mc -> mc.getNameAsString().toLowerCase().contains("save") ||
-                mc.getNameAsString().toLowerCase().contains("update") ||
-                mc.getNameAsString().toLowerCase().contains("delete") ||
-                mc.getNameAsString().toLowerCase().contains("insert"));
-    }
-
-    /**
-     * 检查方法调用中是否包含日志操作
-     *
-     * @param methodCalls 方法调用列表
-     * @return 是否包含日志操作
-     */
-    private boolean hasLogOperation(List<MethodCallExpr> methodCalls) {
-        return methodCalls.stream().anyMatch(mc -> mc.getNameAsString().toLowerCase().contains("log") ||
-                mc.getNameAsString().toLowerCase().contains("debug") ||
-                mc.getNameAsString().toLowerCase().contains("info"));
-    }
-}
\ No newline at end of file
+}
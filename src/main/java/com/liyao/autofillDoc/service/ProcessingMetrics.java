@@ -0,0 +1,494 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.util.JsonUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 处理过程的统计数据
+ * 记录文件和声明的计数、按类型统计的标签增删数量、各阶段的墙钟时间和CPU时间、在途内存峰值以及最慢的文件
+ * 所有方法都是线程安全的，多个工作线程可以同时记录
+ */
+public class ProcessingMetrics {
+
+    /**
+     * 计数项
+     */
+    public enum Counter {
+        /**
+         * 遍历发现的Java文件
+         */
+        FILES_DISCOVERED("filesDiscovered", "发现文件", "文件"),
+        /**
+         * 根据排除模式跳过的文件
+         */
+        FILES_EXCLUDED("filesExcluded", "排除文件", "文件"),
+        /**
+         * 增量处理跳过的未变化文件
+         */
+        FILES_UP_TO_DATE("filesUpToDate", "未变化文件", "文件"),
+        /**
+         * 预扫描确定不需要修改而跳过解析的文件
+         */
+        FILES_PRESCAN_SKIPPED("filesPrescanSkipped", "预扫描跳过", "文件"),
+        /**
+         * 解析的文件
+         */
+        FILES_PARSED("filesParsed", "解析文件", "文件"),
+        /**
+         * Javadoc发生变更的文件
+         */
+        FILES_MODIFIED("filesModified", "修改文件", "文件"),
+        /**
+         * 写入磁盘的文件
+         */
+        FILES_WRITTEN("filesWritten", "写入文件", "文件"),
+        /**
+         * 批量提交时被放弃或回滚的修改文件
+         */
+        FILES_ROLLED_BACK("filesRolledBack", "回滚文件", "文件"),
+        /**
+         * 处理失败的文件
+         */
+        FILES_FAILED("filesFailed", "失败文件", "文件"),
+        /**
+         * 访问的类型声明
+         */
+        TYPES_VISITED("typesVisited", "类型", "声明"),
+        /**
+         * 访问的方法声明
+         */
+        METHODS_VISITED("methodsVisited", "方法", "声明"),
+        /**
+         * 访问的注解成员
+         */
+        ANNOTATION_MEMBERS_VISITED("annotationMembersVisited", "注解成员", "声明"),
+        /**
+         * 访问的枚举常量
+         */
+        ENUM_CONSTANTS_VISITED("enumConstantsVisited", "枚举常量", "声明"),
+        /**
+         * 新建的Javadoc
+         */
+        JAVADOCS_CREATED("javadocsCreated", "新建Javadoc", "声明"),
+        /**
+         * 描述缓存命中次数
+         */
+        DESCRIPTION_CACHE_HITS("descriptionCacheHits", "命中", "描述缓存"),
+        /**
+         * 描述缓存未命中次数
+         */
+        DESCRIPTION_CACHE_MISSES("descriptionCacheMisses", "未命中", "描述缓存"),
+        /**
+         * 因内存预算不足而等待的文件数
+         */
+        MEMORY_BUDGET_WAITS("memoryBudgetWaits", "等待预算", "内存");
+
+        private final String key;
+        private final String label;
+        private final String group;
+
+        Counter(String key, String label, String group) {
+            this.key = key;
+            this.label = label;
+            this.group = group;
+        }
+    }
+
+    /**
+     * 处理阶段
+     */
+    public enum Phase {
+        /**
+         * 遍历源代码目录
+         */
+        WALK("walk", "遍历"),
+        /**
+         * 读取文件
+         */
+        READ("read", "读取"),
+        /**
+         * 词法预扫描
+         */
+        PRESCAN("prescan", "预扫描"),
+        /**
+         * 解析源代码
+         */
+        PARSE("parse", "解析"),
+        /**
+         * 补全Javadoc
+         */
+        TRANSFORM("transform", "转换"),
+        /**
+         * 生成输出内容
+         */
+        PRINT("print", "输出"),
+        /**
+         * 写入文件，批量提交时为写入临时文件
+         */
+        WRITE("write", "写入"),
+        /**
+         * 批量提交暂存的文件
+         */
+        COMMIT("commit", "提交");
+
+        private final String key;
+        private final String label;
+
+        Phase(String key, String label) {
+            this.key = key;
+            this.label = label;
+        }
+    }
+
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    private final int slowestFileLimit;
+    private final long startNanos = System.nanoTime();
+    private final Map<Counter, LongAdder> counters = new EnumMap<>(Counter.class);
+    private final Map<Phase, PhaseTotals> phases = new EnumMap<>(Phase.class);
+    private final Map<String, LongAdder> tagsAdded = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> tagsRemoved = new ConcurrentHashMap<>();
+    private final PriorityQueue<FileTiming> slowestFiles =
+            new PriorityQueue<>(Comparator.comparingLong((FileTiming timing) -> timing.nanos));
+    private volatile boolean cpuTimeSupported;
+    private final LongAccumulator peakInFlightBytes = new LongAccumulator(Math::max, 0L);
+    private volatile long memoryBudgetBytes;
+
+    /**
+     * 构造函数
+     *
+     * @param slowestFileLimit 记录的最慢文件数量
+     */
+    public ProcessingMetrics(int slowestFileLimit) {
+        this.slowestFileLimit = Math.max(0, slowestFileLimit);
+        for (Counter counter : Counter.values()) {
+            counters.put(counter, new LongAdder());
+        }
+        for (Phase phase : Phase.values()) {
+            phases.put(phase, new PhaseTotals());
+        }
+        boolean supported;
+        try {
+            supported = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() && THREAD_MX_BEAN.isThreadCpuTimeEnabled();
+        } catch (UnsupportedOperationException e) {
+            supported = false;
+        }
+        this.cpuTimeSupported = supported;
+    }
+
+    /**
+     * 计数加一
+     *
+     * @param counter 计数项
+     */
+    public void increment(Counter counter) {
+        counters.get(counter).increment();
+    }
+
+    /**
+     * 增加计数
+     *
+     * @param counter 计数项
+     * @param delta   增加的数量
+     */
+    public void add(Counter counter, long delta) {
+        counters.get(counter).add(delta);
+    }
+
+    /**
+     * 获取计数
+     *
+     * @param counter 计数项
+     * @return 当前计数
+     */
+    public long get(Counter counter) {
+        return counters.get(counter).sum();
+    }
+
+    /**
+     * 记录添加的标签
+     *
+     * @param tagName 标签名，例如param、return、throws
+     */
+    public void tagAdded(String tagName) {
+        tagsAdded.computeIfAbsent(tagName, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * 记录移除的标签
+     *
+     * @param tagName 标签名
+     */
+    public void tagRemoved(String tagName) {
+        tagsRemoved.computeIfAbsent(tagName, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * 记录内存预算
+     *
+     * @param budgetBytes 预算字节数，为0时不限制
+     */
+    public void memoryBudget(long budgetBytes) {
+        this.memoryBudgetBytes = budgetBytes;
+    }
+
+    /**
+     * 记录当前的在途内存估算值，只保留峰值
+     *
+     * @param bytes 在途文件预留的内存字节数
+     */
+    public void inFlightBytes(long bytes) {
+        peakInFlightBytes.accumulate(bytes);
+    }
+
+    /**
+     * 获取在途内存估算值的峰值
+     *
+     * @return 峰值字节数
+     */
+    public long getPeakInFlightBytes() {
+        return peakInFlightBytes.get();
+    }
+
+    /**
+     * 开始计时一个阶段，计时在当前线程上进行，必须在同一线程调用{@link PhaseTimer#stop()}
+     *
+     * @param phase 处理阶段
+     * @return 计时器
+     */
+    public PhaseTimer start(Phase phase) {
+        long startCpu = cpuTimeSupported ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : 0L;
+        if (startCpu < 0) {
+            // 虚拟线程无法获取CPU时间，只统计墙钟时间
+            cpuTimeSupported = false;
+        }
+        return new PhaseTimer(phases.get(phase), startCpu);
+    }
+
+    /**
+     * 记录单个文件的处理耗时，只保留最慢的若干个
+     *
+     * @param file  文件路径
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordFile(Path file, long nanos) {
+        if (slowestFileLimit == 0) {
+            return;
+        }
+        synchronized (slowestFiles) {
+            if (slowestFiles.size() < slowestFileLimit) {
+                slowestFiles.add(new FileTiming(file.toString(), nanos));
+            } else if (slowestFiles.peek().nanos < nanos) {
+                slowestFiles.poll();
+                slowestFiles.add(new FileTiming(file.toString(), nanos));
+            }
+        }
+    }
+
+    /**
+     * 输出统计摘要
+     *
+     * @param log 日志对象
+     */
+    public void logSummary(Log log) {
+        log.info("处理统计, 总耗时 " + millis(System.nanoTime() - startNanos) + " ms:");
+        // 同一分组的计数项在枚举中相邻，每组输出一行
+        StringBuilder line = null;
+        String group = null;
+        for (Counter counter : Counter.values()) {
+            if (!counter.group.equals(group)) {
+                if (line != null) {
+                    log.info(line.toString());
+                }
+                group = counter.group;
+                line = new StringBuilder("  ").append(group).append(':');
+            }
+            line.append(' ').append(counter.label).append(' ').append(get(counter));
+        }
+        if (line != null) {
+            log.info(line.toString());
+        }
+        log.info("  在途内存峰值(估算): " + megabytes(getPeakInFlightBytes()) + " MB, 预算: "
+                + (memoryBudgetBytes > 0 ? megabytes(memoryBudgetBytes) + " MB" : "不限制"));
+        log.info("  添加标签: " + format(tagsAdded) + ", 移除标签: " + format(tagsRemoved));
+        StringBuilder phaseLine = new StringBuilder("  阶段耗时(墙钟/CPU, ms):");
+        for (Phase phase : Phase.values()) {
+            PhaseTotals totals = phases.get(phase);
+            phaseLine.append(' ').append(phase.label).append(' ').append(millis(totals.wallNanos.sum()))
+                    .append('/').append(cpuTimeSupported ? String.valueOf(millis(totals.cpuNanos.sum())) : "-");
+        }
+        log.info(phaseLine.toString());
+        List<FileTiming> slowest = getSlowestFiles();
+        if (!slowest.isEmpty()) {
+            log.info("  最慢的 " + slowest.size() + " 个文件:");
+            for (FileTiming timing : slowest) {
+                log.info("    " + millis(timing.nanos) + " ms  " + timing.file);
+            }
+        }
+    }
+
+    /**
+     * 以JSON格式写入统计文件
+     *
+     * @param metricsFile 统计文件
+     * @throws IOException 写入文件失败
+     */
+    public void writeJson(Path metricsFile) throws IOException {
+        Path parent = metricsFile.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (BufferedWriter writer = Files.newBufferedWriter(metricsFile, StandardCharsets.UTF_8)) {
+            writer.write("{\n");
+            writer.write("  \"wallTimeMillis\": " + millis(System.nanoTime() - startNanos) + ",\n");
+            writer.write("  \"cpuTimeSupported\": " + cpuTimeSupported + ",\n");
+            writer.write("  \"counters\": {");
+            Counter[] counterValues = Counter.values();
+            for (int i = 0; i < counterValues.length; i++) {
+                writer.write((i == 0 ? "\n" : ",\n") + "    " + JsonUtils.quote(counterValues[i].key) + ": "
+                        + get(counterValues[i]));
+            }
+            writer.write("\n  },\n");
+            writer.write("  \"memory\": {\"budgetBytes\": " + memoryBudgetBytes
+                    + ", \"peakInFlightBytes\": " + getPeakInFlightBytes() + "},\n");
+            writer.write("  \"tagsAdded\": " + toJson(tagsAdded) + ",\n");
+            writer.write("  \"tagsRemoved\": " + toJson(tagsRemoved) + ",\n");
+            writer.write("  \"phases\": {");
+            Phase[] phaseValues = Phase.values();
+            for (int i = 0; i < phaseValues.length; i++) {
+                PhaseTotals totals = phases.get(phaseValues[i]);
+                writer.write((i == 0 ? "\n" : ",\n") + "    " + JsonUtils.quote(phaseValues[i].key)
+                        + ": {\"count\": " + totals.count.sum()
+                        + ", \"wallMillis\": " + millis(totals.wallNanos.sum())
+                        + ", \"cpuMillis\": " + (cpuTimeSupported ? millis(totals.cpuNanos.sum()) : -1) + "}");
+            }
+            writer.write("\n  },\n");
+            writer.write("  \"slowestFiles\": [");
+            List<FileTiming> slowest = getSlowestFiles();
+            for (int i = 0; i < slowest.size(); i++) {
+                FileTiming timing = slowest.get(i);
+                writer.write((i == 0 ? "\n" : ",\n") + "    {\"file\": " + JsonUtils.quote(timing.file)
+                        + ", \"millis\": " + millis(timing.nanos) + "}");
+            }
+            writer.write(slowest.isEmpty() ? "]\n" : "\n  ]\n");
+            writer.write("}\n");
+        }
+    }
+
+    /**
+     * 获取最慢的文件，按耗时从高到低排序
+     *
+     * @return 文件耗时列表
+     */
+    private List<FileTiming> getSlowestFiles() {
+        List<FileTiming> result;
+        synchronized (slowestFiles) {
+            result = new ArrayList<>(slowestFiles);
+        }
+        result.sort(Comparator.comparingLong((FileTiming timing) -> timing.nanos).reversed());
+        return result;
+    }
+
+    private static String format(Map<String, LongAdder> tags) {
+        if (tags.isEmpty()) {
+            return "无";
+        }
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(tags).entrySet()) {
+            if (sb.length() > 0) {
+                sb.append(", ");
+            }
+            sb.append('@').append(entry.getKey()).append(' ').append(entry.getValue().sum());
+        }
+        return sb.toString();
+    }
+
+    private static String toJson(Map<String, LongAdder> tags) {
+        StringBuilder sb = new StringBuilder("{");
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(tags).entrySet()) {
+            if (sb.length() > 1) {
+                sb.append(", ");
+            }
+            sb.append(JsonUtils.quote(entry.getKey())).append(": ").append(entry.getValue().sum());
+        }
+        return sb.append('}').toString();
+    }
+
+    private static long megabytes(long bytes) {
+        return (bytes + (1 << 20) - 1) >> 20;
+    }
+
+    private static long millis(long nanos) {
+        return TimeUnit.NANOSECONDS.toMillis(nanos);
+    }
+
+    /**
+     * 阶段计时器
+     */
+    public final class PhaseTimer {
+        private final PhaseTotals totals;
+        private final long startWall = System.nanoTime();
+        private final long startCpu;
+
+        private PhaseTimer(PhaseTotals totals, long startCpu) {
+            this.totals = totals;
+            this.startCpu = startCpu;
+        }
+
+        /**
+         * 结束计时并累加到阶段统计中
+         *
+         * @return 本次墙钟时间（纳秒）
+         */
+        public long stop() {
+            long wall = System.nanoTime() - startWall;
+            totals.count.increment();
+            totals.wallNanos.add(wall);
+            if (cpuTimeSupported && startCpu >= 0) {
+                totals.cpuNanos.add(THREAD_MX_BEAN.getCurrentThreadCpuTime() - startCpu);
+            }
+            return wall;
+        }
+    }
+
+    /**
+     * 单个阶段的累计耗时
+     */
+    private static final class PhaseTotals {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder wallNanos = new LongAdder();
+        private final LongAdder cpuNanos = new LongAdder();
+    }
+
+    /**
+     * 单个文件的耗时
+     */
+    private static final class FileTiming {
+        private final String file;
+        private final long nanos;
+
+        private FileTiming(String file, long nanos) {
+            this.file = file;
+            this.nanos = nanos;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.exception.JavadocProcessingException;
+import org.apache.maven.plugin.logging.Log;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * 分阶段处理流水线
+ * 文件发现、读取、解析转换和写入分别由独立的线程执行，阶段之间通过有界队列传递数据
+ * 下游处理不过来时上游会阻塞等待，同时驻留在内存中的文件数量不超过队列容量与线程数之和
+ */
+public class ProcessingPipeline {
+
+    /**
+     * 队列结束标记，每个下游线程各取一个后退出
+     */
+    private static final Object END = new Object();
+
+    private final Log log;
+    private final int queueCapacity;
+    private final List<Thread> threads = new ArrayList<>();
+
+    /**
+     * 导致流水线取消的错误，由run()重新抛出
+     */
+    private final AtomicReference<Throwable> fatalFailure = new AtomicReference<>();
+
+    /**
+     * 构造函数
+     *
+     * @param log           日志对象
+     * @param queueCapacity 阶段之间队列的容量
+     */
+    public ProcessingPipeline(Log log, int queueCapacity) {
+        this.log = log;
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    /**
+     * 文件发现阶段
+     *
+     * @param <T> 产出的数据类型
+     */
+    @FunctionalInterface
+    public interface Producer<T> {
+
+        /**
+         * 依次产出数据
+         *
+         * @param sink 接收数据的回调，队列已满时阻塞
+         * @throws IOException 遍历失败
+         */
+        void produce(Consumer<T> sink) throws IOException;
+    }
+
+    /**
+     * 处理阶段
+     *
+     * @param <I> 输入数据类型
+     * @param <O> 输出数据类型
+     */
+    @FunctionalInterface
+    public interface Stage<I, O> {
+
+        /**
+         * 处理单个数据，异常应由实现自行记录
+         * 实现抛出的运行时异常和栈溢出只会丢弃当前数据，其他错误会取消整个流水线
+         *
+         * @param input 输入数据
+         * @return 传递给下一阶段的数据，返回null表示不再继续处理
+         */
+        O apply(I input);
+    }
+
+    /**
+     * 运行流水线并等待所有阶段结束
+     *
+     * @param producer         文件发现阶段
+     * @param read             读取阶段
+     * @param readThreads      读取阶段线程数
+     * @param transform        解析转换阶段
+     * @param transformThreads 解析转换阶段线程数
+     * @param write            写入阶段
+     * @param writeThreads     写入阶段线程数
+     * @param <A>              读取阶段输入数据类型
+     * @param <B>              解析转换阶段输入数据类型
+     * @param <C>              写入阶段输入数据类型
+     * @throws JavadocProcessingException 文件发现失败或处理被中断
+     * @throws Error                      某个阶段发生了无法恢复的错误，流水线已取消
+     */
+    public <A, B, C> void run(Producer<A> producer,
+            Stage<A, B> read, int readThreads,
+            Stage<B, C> transform, int transformThreads,
+            Consumer<C> write, int writeThreads) {
+        BlockingQueue<Object> readQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Object> transformQueue = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<Object> writeQueue = new ArrayBlockingQueue<>(queueCapacity);
+        AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+        synchronized (threads) {
+            threads.clear();
+        }
+        fatalFailure.set(null);
+
+        readThreads = Math.max(1, readThreads);
+        transformThreads = Math.max(1, transformThreads);
+        writeThreads = Math.max(1, writeThreads);
+
+        start("discover", 1, new AtomicInteger(1), () -> {
+            try {
+                producer.produce(item -> put(readQueue, item));
+            } catch (IOException | RuntimeException e) {
+                producerFailure.set(e);
+            }
+        }, readQueue, readThreads);
+        startStage("read", readThreads, readQueue, read, transformQueue, transformThreads);
+        startStage("transform", transformThreads, transformQueue, transform, writeQueue, writeThreads);
+        startStage("write", writeThreads, writeQueue, (C item) -> {
+            write.accept(item);
+            return null;
+        }, null, 0);
+
+        try {
+            for (Thread thread : startedThreads()) {
+                thread.join();
+            }
+        } catch (InterruptedException e) {
+            interruptAll();
+            Thread.currentThread().interrupt();
+            throw new JavadocProcessingException("流水线处理Java文件被中断", e);
+        }
+
+        Throwable fatal = fatalFailure.get();
+        if (fatal instanceof Error) {
+            throw (Error) fatal;
+        }
+        if (fatal != null) {
+            throw new JavadocProcessingException("流水线处理Java文件失败: " + fatal.getMessage(), fatal);
+        }
+        Throwable failure = producerFailure.get();
+        if (failure instanceof CancellationException) {
+            throw new JavadocProcessingException("流水线处理Java文件被中断", failure);
+        }
+        if (failure != null) {
+            throw new JavadocProcessingException("遍历源代码目录失败", failure);
+        }
+    }
+
+    /**
+     * 启动一个处理阶段的所有线程
+     *
+     * @param name            阶段名称
+     * @param count           线程数
+     * @param input           输入队列
+     * @param stage           处理逻辑
+     * @param output          输出队列，最后一个阶段为null
+     * @param outputConsumers 下游线程数
+     * @param <I>             输入数据类型
+     * @param <O>             输出数据类型
+     */
+    @SuppressWarnings("unchecked")
+    private <I, O> void startStage(String name, int count, BlockingQueue<Object> input, Stage<I, O> stage,
+            BlockingQueue<Object> output, int outputConsumers) {
+        AtomicInteger running = new AtomicInteger(count);
+        start(name, count, running, () -> {
+            while (true) {
+                Object item = take(input);
+                if (item == END) {
+                    return;
+                }
+                O result;
+                try {
+                    result = stage.apply((I) item);
+                } catch (RuntimeException | StackOverflowError e) {
+                    log.error("流水线" + name + "阶段处理失败", e);
+                    continue;
+                }
+                if (result != null && output != null) {
+                    put(output, result);
+                }
+            }
+        }, output, outputConsumers);
+    }
+
+    /**
+     * 启动线程，最后一个结束的线程负责通知下游结束
+     *
+     * @param name            阶段名称
+     * @param count           线程数
+     * @param running         仍在运行的线程数
+     * @param body            线程逻辑
+     * @param output          输出队列，最后一个阶段为null
+     * @param outputConsumers 下游线程数
+     */
+    private void start(String name, int count, AtomicInteger running, Runnable body,
+            BlockingQueue<Object> output, int outputConsumers) {
+        for (int i = 1; i <= count; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    body.run();
+                } catch (CancellationException e) {
+                    log.debug("流水线" + name + "阶段已取消");
+                } catch (Throwable e) {
+                    // 线程退出后上游可能永远阻塞在已满的队列上，因此取消整个流水线
+                    cancel(e);
+                } finally {
+                    // 被中断时整个流水线正在停止，无需再通知下游
+                    if (running.decrementAndGet() == 0 && output != null && !Thread.currentThread().isInterrupted()) {
+                        for (int j = 0; j < outputConsumers; j++) {
+                            put(output, END);
+                        }
+                    }
+                }
+            }, "autofill-javadoc-" + name + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            synchronized (threads) {
+                threads.add(thread);
+                // 启动之前流水线已被取消时同样需要中断，未启动的线程无法被中断
+                if (fatalFailure.get() != null) {
+                    thread.interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * 取消流水线，中断所有阶段的线程，阻塞在队列上的线程随即退出
+     *
+     * @param failure 导致取消的错误
+     */
+    private void cancel(Throwable failure) {
+        if (!fatalFailure.compareAndSet(null, failure) && fatalFailure.get() != failure) {
+            fatalFailure.get().addSuppressed(failure);
+        }
+        interruptAll();
+    }
+
+    private void interruptAll() {
+        for (Thread thread : startedThreads()) {
+            thread.interrupt();
+        }
+    }
+
+    private List<Thread> startedThreads() {
+        synchronized (threads) {
+            return new ArrayList<>(threads);
+        }
+    }
+
+    private static void put(BlockingQueue<Object> queue, Object item) {
+        try {
+            queue.put(item);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("流水线被中断");
+        }
+    }
+
+    private static Object take(BlockingQueue<Object> queue) {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("流水线被中断");
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.liyao.autofillDoc.service;
+
+import com.liyao.autofillDoc.config.JavadocAutofillConfig;
+import com.liyao.autofillDoc.util.DescriptionRules;
+import org.apache.maven.plugin.logging.Log;
+
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 多次运行之间共享的处理状态
+ * 守护进程在多次构建之间保留描述规则、解析器、描述缓存和增量缓存，后续运行不需要重新加载规则、创建解析器和读取缓存文件；
+ * 配置不同的运行使用各自的组件，互不影响
+ * <p>
+ * 可以被多个线程同时使用；同一个增量缓存同一时刻只借给一次运行，同时进行的其他运行从缓存文件重新加载
+ */
+public class SharedState {
+
+    /**
+     * 最多保留的组件和增量缓存数量，超出后全部丢弃重新创建
+     */
+    private static final int MAX_ENTRIES = 16;
+
+    private final Map<String, Resources> resources = new ConcurrentHashMap<>();
+    private final Map<Path, IncrementalCache> incrementalCaches = new ConcurrentHashMap<>();
+
+    /**
+     * 获取与配置对应的共享组件，不存在时创建
+     *
+     * @param config 配置对象
+     * @return 共享组件
+     * @throws com.liyao.autofillDoc.exception.JavadocProcessingException 加载描述规则失败
+     */
+    Resources resources(JavadocAutofillConfig config) {
+        // 配置指纹包含语言级别、注释归属选项以及规则文件的大小和修改时间，规则文件变化后会创建新的组件
+        String key = config.fingerprint() + ";descriptionCacheSize=" + config.getDescriptionCacheSize();
+        if (resources.size() >= MAX_ENTRIES && !resources.containsKey(key)) {
+            resources.clear();
+        }
+        return resources.computeIfAbsent(key, k -> new Resources(config));
+    }
+
+    /**
+     * 借出增量缓存，内存中的缓存无法继续使用时从缓存文件加载
+     * 使用完毕后应保存缓存并调用{@link #returnIncrementalCache(IncrementalCache, Path)}归还
+     *
+     * @param cacheFile   缓存文件
+     * @param fingerprint 配置指纹
+     * @param log         日志对象
+     * @return 增量处理缓存
+     */
+    IncrementalCache borrowIncrementalCache(Path cacheFile, String fingerprint, Log log) {
+        Path key = cacheFile.toAbsolutePath().normalize();
+        IncrementalCache cache = incrementalCaches.remove(key);
+        if (cache != null && cache.isReusable(cacheFile, fingerprint)) {
+            cache.setLog(log);
+            return cache;
+        }
+        return IncrementalCache.load(cacheFile, fingerprint, log);
+    }
+
+    /**
+     * 归还增量缓存，供下一次运行使用
+     *
+     * @param cache     增量处理缓存
+     * @param cacheFile 缓存文件
+     */
+    void returnIncrementalCache(IncrementalCache cache, Path cacheFile) {
+        Path key = cacheFile.toAbsolutePath().normalize();
+        if (incrementalCaches.size() >= MAX_ENTRIES && !incrementalCaches.containsKey(key)) {
+            incrementalCaches.clear();
+        }
+        incrementalCaches.put(key, cache);
+    }
+
+    /**
+     * 同一配置的运行共享的组件
+     */
+    static final class Resources {
+        final DescriptionRules rules;
+        final JavaParserProvider parserProvider;
+        final DescriptionCache descriptionCache;
+
+        private Resources(JavadocAutofillConfig config) {
+            this.rules = JavadocProcessor.loadDescriptionRules(config.getRulesFile());
+            this.parserProvider = new JavaParserProvider(config);
+            // 各次运行通过withMetrics使用自己的处理统计
+            this.descriptionCache = new DescriptionCache(rules, new ProcessingMetrics(0),
+                    config.getDescriptionCacheSize());
+        }
+    }
+}
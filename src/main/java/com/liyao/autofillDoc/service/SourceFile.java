@@ -0,0 +1,111 @@
+package com.liyao.autofillDoc.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 源文件内容
+ * 文件只读取一次，解析、变更检测和输出比较都基于同一份内容
+ */
+public class SourceFile {
+
+    private static final char BOM = '\uFEFF';
+
+    private final Path path;
+    private final byte[] bytes;
+    private final String content;
+    private final Charset charset;
+    private final boolean bom;
+
+    /**
+     * 构造函数
+     *
+     * @param path    文件路径
+     * @param bytes   原始字节
+     * @param content 解码后的内容，不含BOM
+     * @param charset 文件编码
+     * @param bom     原文件是否带BOM
+     */
+    private SourceFile(Path path, byte[] bytes, String content, Charset charset, boolean bom) {
+        this.path = path;
+        this.bytes = bytes;
+        this.content = content;
+        this.charset = charset;
+        this.bom = bom;
+    }
+
+    /**
+     * 读取源文件
+     * 使用严格解码，文件编码与配置不一致时直接失败，避免写回时破坏非ASCII字符
+     *
+     * @param path    文件路径
+     * @param charset 文件编码
+     * @return 源文件内容
+     * @throws IOException 读取失败或内容无法按指定编码解码
+     */
+    public static SourceFile read(Path path, Charset charset) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        return of(path, bytes, charset);
+    }
+
+    /**
+     * 基于已读取的字节创建源文件
+     *
+     * @param path    文件路径
+     * @param bytes   原始字节
+     * @param charset 文件编码
+     * @return 源文件内容
+     * @throws CharacterCodingException 内容无法按指定编码解码
+     */
+    public static SourceFile of(Path path, byte[] bytes, Charset charset) throws CharacterCodingException {
+        String content = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(bytes))
+                .toString();
+        boolean bom = !content.isEmpty() && content.charAt(0) == BOM;
+        return new SourceFile(path, bytes, bom ? content.substring(1) : content, charset, bom);
+    }
+
+    /**
+     * 将新内容按原文件的编码和BOM编码为字节
+     *
+     * @param newContent 新内容
+     * @return 编码后的字节
+     */
+    public byte[] encode(String newContent) {
+        return (bom ? BOM + newContent : newContent).getBytes(charset);
+    }
+
+    /**
+     * 获取文件路径
+     *
+     * @return 文件路径
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 获取原始字节
+     *
+     * @return 原始字节
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    /**
+     * 获取解码后的内容
+     *
+     * @return 文件内容，不含BOM
+     */
+    public String getContent() {
+        return content;
+    }
+}
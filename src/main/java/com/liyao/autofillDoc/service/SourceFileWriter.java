@@ -0,0 +1,50 @@
+package com.liyao.autofillDoc.service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+
+/**
+ * 源文件写入器
+ * 先写入同目录下的临时文件再原子替换，写入中断时不会留下只写了一半的源文件
+ */
+public class SourceFileWriter {
+
+    /**
+     * 原子地写入文件内容
+     *
+     * @param path    目标文件
+     * @param content 文件内容
+     * @throws IOException 写入失败
+     */
+    public void write(Path path, byte[] content) throws IOException {
+        Path tempFile = Files.createTempFile(path.toAbsolutePath().getParent(), "." + path.getFileName(), ".tmp");
+        try {
+            Files.write(tempFile, content);
+            copyPermissions(path, tempFile);
+            try {
+                Files.move(tempFile, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * 复制原文件的权限，临时文件默认只有当前用户可读写
+     *
+     * @param source 原文件
+     * @param target 临时文件
+     * @throws IOException 读取或设置权限失败
+     */
+    static void copyPermissions(Path source, Path target) throws IOException {
+        if (Files.exists(source) && Files.getFileStore(target).supportsFileAttributeView(PosixFileAttributeView.class)) {
+            Files.setPosixFilePermissions(target, Files.getPosixFilePermissions(source));
+        }
+    }
+}
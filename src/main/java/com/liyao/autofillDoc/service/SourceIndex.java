@@ -0,0 +1,223 @@
+package com.liyao.autofillDoc.service;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.AnnotationMemberDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.ReturnStmt;
+import com.github.javaparser.ast.stmt.ThrowStmt;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 源文件结构索引
+ * 对编译单元只遍历一次，收集处理Javadoc需要的所有声明以及每个方法的方法体特征，
+ * 代替对类型、方法、注解成员和方法体中各类语句分别调用findAll
+ */
+public class SourceIndex {
+
+    private final List<TypeDeclaration<?>> types = new ArrayList<>();
+    private final List<EnumDeclaration> enums = new ArrayList<>();
+    private final List<EnumConstantDeclaration> enumConstants = new ArrayList<>();
+    private final List<MethodDeclaration> methods = new ArrayList<>();
+    private final List<AnnotationMemberDeclaration> annotationMembers = new ArrayList<>();
+
+    /**
+     * 方法到方法体特征的映射，节点的equals是结构比较，因此按引用区分
+     */
+    private final Map<MethodDeclaration, MethodBodyFeatures> features = new IdentityHashMap<>();
+
+    private SourceIndex() {
+    }
+
+    /**
+     * 遍历编译单元建立索引
+     *
+     * @param cu 编译单元
+     * @return 源文件结构索引
+     */
+    public static SourceIndex build(CompilationUnit cu) {
+        SourceIndex index = build((Node) cu);
+        for (TypeDeclaration<?> type : cu.getTypes()) {
+            index.types.add(type);
+            if (type instanceof EnumDeclaration) {
+                EnumDeclaration enumType = (EnumDeclaration) type;
+                index.enums.add(enumType);
+                index.enumConstants.addAll(enumType.getEntries());
+            }
+        }
+        return index;
+    }
+
+    /**
+     * 遍历任意节点收集其中的方法声明和方法体特征
+     *
+     * @param root 根节点
+     * @return 源文件结构索引
+     */
+    static SourceIndex build(Node root) {
+        SourceIndex index = new SourceIndex();
+        root.accept(new Collector(index), null);
+        return index;
+    }
+
+    /**
+     * 获取顶层类型声明
+     *
+     * @return 顶层类型声明列表
+     */
+    public List<TypeDeclaration<?>> getTypes() {
+        return Collections.unmodifiableList(types);
+    }
+
+    /**
+     * 获取顶层枚举声明
+     *
+     * @return 顶层枚举声明列表
+     */
+    public List<EnumDeclaration> getEnums() {
+        return Collections.unmodifiableList(enums);
+    }
+
+    /**
+     * 获取顶层枚举的常量
+     *
+     * @return 枚举常量列表
+     */
+    public List<EnumConstantDeclaration> getEnumConstants() {
+        return Collections.unmodifiableList(enumConstants);
+    }
+
+    /**
+     * 获取所有方法声明，包括嵌套类型、匿名类和局部类中的方法，按源代码顺序排列
+     *
+     * @return 方法声明列表
+     */
+    public List<MethodDeclaration> getMethods() {
+        return Collections.unmodifiableList(methods);
+    }
+
+    /**
+     * 获取所有注解成员声明
+     *
+     * @return 注解成员声明列表
+     */
+    public List<AnnotationMemberDeclaration> getAnnotationMembers() {
+        return Collections.unmodifiableList(annotationMembers);
+    }
+
+    /**
+     * 获取方法的方法体特征
+     *
+     * @param method 方法声明
+     * @return 方法体特征，方法不在索引中时返回null
+     */
+    public MethodBodyFeatures getFeatures(MethodDeclaration method) {
+        return features.get(method);
+    }
+
+    /**
+     * 收集声明和方法体特征的访问器
+     * 方法嵌套时，内层方法结束后将其特征合并到外层方法
+     */
+    private static final class Collector extends VoidVisitorAdapter<Void> {
+
+        private final SourceIndex index;
+        private final Deque<MethodBodyFeatures> enclosing = new ArrayDeque<>();
+
+        private Collector(SourceIndex index) {
+            this.index = index;
+        }
+
+        @Override
+        public void visit(MethodDeclaration n, Void arg) {
+            MethodBodyFeatures methodFeatures = new MethodBodyFeatures();
+            index.methods.add(n);
+            index.features.put(n, methodFeatures);
+            enclosing.push(methodFeatures);
+            try {
+                super.visit(n, arg);
+            } finally {
+                enclosing.pop();
+            }
+            MethodBodyFeatures outer = enclosing.peek();
+            if (outer != null) {
+                outer.merge(methodFeatures);
+            }
+        }
+
+        @Override
+        public void visit(AnnotationMemberDeclaration n, Void arg) {
+            index.annotationMembers.add(n);
+            super.visit(n, arg);
+        }
+
+        @Override
+        public void visit(MethodCallExpr n, Void arg) {
+            MethodBodyFeatures current = enclosing.peek();
+            if (current != null) {
+                current.addMethodCall(n.getNameAsString());
+            }
+            super.visit(n, arg);
+        }
+
+        @Override
+        public void visit(IfStmt n, Void arg) {
+            MethodBodyFeatures current = enclosing.peek();
+            if (current != null) {
+                current.addIf();
+            }
+            super.visit(n, arg);
+        }
+
+        @Override
+        public void visit(ForStmt n, Void arg) {
+            MethodBodyFeatures current = enclosing.peek();
+            if (current != null) {
+                current.addFor();
+            }
+            super.visit(n, arg);
+        }
+
+        @Override
+        public void visit(WhileStmt n, Void arg) {
+            MethodBodyFeatures current = enclosing.peek();
+            if (current != null) {
+                current.addWhile();
+            }
+            super.visit(n, arg);
+        }
+
+        @Override
+        public void visit(ReturnStmt n, Void arg) {
+            MethodBodyFeatures current = enclosing.peek();
+            if (current != null) {
+                current.addReturn();
+            }
+            super.visit(n, arg);
+        }
+
+        @Override
+        public void visit(ThrowStmt n, Void arg) {
+            MethodBodyFeatures current = enclosing.peek();
+            if (current != null) {
+                current.addThrow();
+            }
+            super.visit(n, arg);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.liyao.autofillDoc.service;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * 虚拟线程支持
+ * 插件按Java 8编译，虚拟线程的API通过反射调用，运行在JDK 21以下版本时不可用
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * 创建虚拟线程工厂，相当于Thread.ofVirtual().name(namePrefix, 1).factory()
+     *
+     * @param namePrefix 线程名前缀，后面追加从1开始的序号
+     * @return 虚拟线程工厂；当前JDK不支持虚拟线程时返回null
+     */
+    static ThreadFactory factory(String namePrefix) {
+        try {
+            Method ofVirtual = Thread.class.getMethod("ofVirtual");
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 1L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException | RuntimeException | LinkageError e) {
+            // JDK 19和20中虚拟线程是预览特性，未启用预览时同样不可用
+            return null;
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package com.liyao.autofillDoc.service;
+
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 批量写入事务
+ * 处理过程中修改后的内容只写入目标文件同目录下的临时文件，源代码树保持不变；
+ * 全部处理结束后统一提交，依次把临时文件原子替换为目标文件，中途失败时把已替换的文件恢复为原始内容
+ * <p>
+ * 暂存可以由多个线程同时进行，提交和回滚只能在暂存全部完成后由一个线程调用
+ */
+public class WriteTransaction {
+
+    private final List<StagedFile> stagedFiles = new ArrayList<>();
+
+    /**
+     * 暂存修改后的文件内容，目标文件在提交之前保持不变
+     *
+     * @param target  目标文件
+     * @param content 修改后的文件内容
+     * @throws IOException 写入临时文件失败
+     */
+    public void stage(Path target, byte[] content) throws IOException {
+        Path tempFile = Files.createTempFile(target.toAbsolutePath().getParent(), "." + target.getFileName(), ".tmp");
+        try {
+            Files.write(tempFile, content);
+            SourceFileWriter.copyPermissions(target, tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        synchronized (stagedFiles) {
+            stagedFiles.add(new StagedFile(target, tempFile));
+        }
+    }
+
+    /**
+     * 获取已暂存的文件数量
+     *
+     * @return 已暂存的文件数量
+     */
+    public int size() {
+        synchronized (stagedFiles) {
+            return stagedFiles.size();
+        }
+    }
+
+    /**
+     * 提交所有暂存的文件
+     * 替换前为目标文件建立备份（优先使用硬链接，不支持时复制），任何一个文件替换失败时恢复已替换的文件并删除全部临时文件
+     *
+     * @return 已提交的目标文件，按暂存顺序排列
+     * @throws IOException 提交失败，已回滚的文件恢复为原始内容；无法恢复的文件保留备份并记录在被抑制的异常中
+     */
+    public List<Path> commit() throws IOException {
+        List<StagedFile> files = takeStagedFiles();
+        List<StagedFile> replaced = new ArrayList<>(files.size());
+        try {
+            for (StagedFile file : files) {
+                file.backup = backup(file.target);
+                move(file.tempFile, file.target);
+                replaced.add(file);
+            }
+        } catch (IOException | RuntimeException e) {
+            for (int i = replaced.size() - 1; i >= 0; i--) {
+                StagedFile file = replaced.get(i);
+                try {
+                    move(file.backup, file.target);
+                    file.backup = null;
+                } catch (IOException restoreFailure) {
+                    e.addSuppressed(new IOException("无法恢复文件 " + file.target + ", 原始内容保留在 " + file.backup,
+                            restoreFailure));
+                }
+            }
+            for (int i = replaced.size(); i < files.size(); i++) {
+                deleteQuietly(files.get(i).tempFile);
+                deleteQuietly(files.get(i).backup);
+            }
+            throw e;
+        }
+        List<Path> committed = new ArrayList<>(files.size());
+        for (StagedFile file : files) {
+            deleteQuietly(file.backup);
+            committed.add(file.target);
+        }
+        return committed;
+    }
+
+    /**
+     * 放弃所有暂存的文件，删除临时文件，目标文件保持不变
+     *
+     * @return 被放弃的目标文件
+     */
+    public List<Path> rollback() {
+        List<StagedFile> files = takeStagedFiles();
+        List<Path> discarded = new ArrayList<>(files.size());
+        for (StagedFile file : files) {
+            deleteQuietly(file.tempFile);
+            discarded.add(file.target);
+        }
+        return discarded;
+    }
+
+    private List<StagedFile> takeStagedFiles() {
+        synchronized (stagedFiles) {
+            List<StagedFile> files = new ArrayList<>(stagedFiles);
+            stagedFiles.clear();
+            return files;
+        }
+    }
+
+    /**
+     * 为目标文件建立备份，备份与目标文件位于同一目录，恢复时可以原子替换
+     *
+     * @param target 目标文件
+     * @return 备份文件
+     * @throws IOException 建立备份失败
+     */
+    private static Path backup(Path target) throws IOException {
+        Path backup = target.resolveSibling("." + target.getFileName() + ".autofill-bak");
+        Files.deleteIfExists(backup);
+        try {
+            Files.createLink(backup, target);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(target, backup, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return backup;
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // 残留的临时文件和备份不以.java结尾，不会被当作源文件处理
+        }
+    }
+
+    /**
+     * 已暂存的文件
+     */
+    private static final class StagedFile {
+        private final Path target;
+        private final Path tempFile;
+        private Path backup;
+
+        private StagedFile(Path target, Path tempFile) {
+            this.target = target;
+            this.tempFile = tempFile;
+        }
+    }
+}
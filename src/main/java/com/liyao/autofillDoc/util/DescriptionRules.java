@@ -0,0 +1,240 @@
+package com.liyao.autofillDoc.util;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 描述规则集合
+ * 根据参数名、返回值类型、方法名或异常名中出现的关键字选择描述模板
+ * <p>
+ * 规则文件每行一条规则，字段之间用空白分隔：
+ * <pre>
+ * # 目标    优先级  关键字（多个用逗号分隔）  描述模板
+ * param     60      id                        ID 标识参数 {name}
+ * return    50      int,long,short,integer    返回整数值
+ * </pre>
+ * 目标为param、return、method或throws；模板是该行剩余的全部内容，可以使用{name}和{type}占位符；以"#"开头的行是注释
+ * 多条规则同时命中时使用优先级最高的规则，优先级相同时使用先声明的规则
+ * 每个目标的所有关键字编译为一个{@link KeywordMatcher}，匹配耗时与规则数量无关
+ */
+public class DescriptionRules {
+
+    /**
+     * 内置规则资源
+     */
+    private static final String DEFAULT_RULES_RESOURCE = "/autofill-javadoc/default-rules.txt";
+
+    /**
+     * 规则适用的目标
+     */
+    public enum Target {
+        /**
+         * 参数描述，匹配参数名
+         */
+        PARAM,
+        /**
+         * 返回值描述，匹配返回值类型
+         */
+        RETURN,
+        /**
+         * 方法描述，匹配方法名
+         */
+        METHOD,
+        /**
+         * 异常描述，匹配异常类型名
+         */
+        THROWS
+    }
+
+    private final Map<Target, CompiledRules> compiled = new EnumMap<>(Target.class);
+
+    private DescriptionRules(List<Rule> rules) {
+        for (Target target : Target.values()) {
+            List<Rule> targetRules = new ArrayList<>();
+            for (Rule rule : rules) {
+                if (rule.target == target) {
+                    targetRules.add(rule);
+                }
+            }
+            // 排序是稳定的，优先级相同的规则保持声明顺序
+            targetRules.sort(Comparator.comparingInt((Rule rule) -> rule.priority).reversed());
+            compiled.put(target, new CompiledRules(targetRules));
+        }
+    }
+
+    /**
+     * 获取内置规则
+     *
+     * @return 内置规则集合
+     */
+    public static DescriptionRules defaults() {
+        return DefaultsHolder.INSTANCE;
+    }
+
+    /**
+     * 加载规则文件，文件中的规则与内置规则合并，优先级相同时文件中的规则优先
+     *
+     * @param rulesFile 规则文件，UTF-8编码
+     * @return 规则集合
+     * @throws IOException              读取文件失败
+     * @throws IllegalArgumentException 规则格式不正确
+     */
+    public static DescriptionRules load(File rulesFile) throws IOException {
+        List<Rule> rules = new ArrayList<>();
+        try (Reader reader = Files.newBufferedReader(rulesFile.toPath(), StandardCharsets.UTF_8)) {
+            parse(reader, rulesFile.getPath(), rules);
+        }
+        rules.addAll(DefaultsHolder.RULES);
+        return new DescriptionRules(rules);
+    }
+
+    /**
+     * 根据文本中出现的关键字生成描述
+     *
+     * @param target 规则目标
+     * @param text   用于匹配关键字的文本，例如参数名或返回值类型
+     * @param name   替换模板中{name}的内容
+     * @param type   替换模板中{type}的内容
+     * @return 描述；没有任何规则命中时返回null
+     */
+    public String describe(Target target, String text, String name, String type) {
+        CompiledRules rules = compiled.get(target);
+        int keyword = rules.matcher.firstMatch(text);
+        if (keyword < 0) {
+            return null;
+        }
+        String template = rules.templates[rules.ruleOfKeyword[keyword]];
+        if (template.indexOf('{') < 0) {
+            return template;
+        }
+        return template.replace("{name}", name != null ? name : "").replace("{type}", type != null ? type : "");
+    }
+
+    /**
+     * 解析规则
+     *
+     * @param reader 规则内容
+     * @param source 规则来源，用于错误信息
+     * @param rules  解析出的规则
+     * @throws IOException              读取失败
+     * @throws IllegalArgumentException 规则格式不正确
+     */
+    private static void parse(Reader reader, String source, List<Rule> rules) throws IOException {
+        BufferedReader lines = new BufferedReader(reader);
+        String line;
+        int lineNumber = 0;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            String value = line.trim();
+            if (value.isEmpty() || value.startsWith("#")) {
+                continue;
+            }
+            String[] fields = value.split("\\s+", 4);
+            if (fields.length < 4) {
+                throw new IllegalArgumentException("描述规则格式不正确, 需要目标、优先级、关键字和模板: "
+                        + source + ":" + lineNumber);
+            }
+            Target target;
+            try {
+                target = Target.valueOf(fields[0].toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("未知的描述规则目标 " + fields[0] + ": " + source + ":" + lineNumber, e);
+            }
+            int priority;
+            try {
+                priority = Integer.parseInt(fields[1]);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("描述规则优先级必须是整数 " + fields[1] + ": " + source + ":" + lineNumber, e);
+            }
+            List<String> keywords = new ArrayList<>();
+            for (String keyword : fields[2].split(",")) {
+                if (!keyword.trim().isEmpty()) {
+                    keywords.add(keyword.trim());
+                }
+            }
+            if (keywords.isEmpty()) {
+                throw new IllegalArgumentException("描述规则缺少关键字: " + source + ":" + lineNumber);
+            }
+            rules.add(new Rule(target, priority, keywords, fields[3].trim()));
+        }
+    }
+
+    /**
+     * 单条规则
+     */
+    private static final class Rule {
+        private final Target target;
+        private final int priority;
+        private final List<String> keywords;
+        private final String template;
+
+        private Rule(Target target, int priority, List<String> keywords, String template) {
+            this.target = target;
+            this.priority = priority;
+            this.keywords = keywords;
+            this.template = template;
+        }
+    }
+
+    /**
+     * 单个目标编译后的规则，关键字按规则的优先顺序排列，序号最小的命中关键字即属于优先级最高的规则
+     */
+    private static final class CompiledRules {
+        private final KeywordMatcher matcher;
+        private final int[] ruleOfKeyword;
+        private final String[] templates;
+
+        private CompiledRules(List<Rule> rules) {
+            List<String> keywords = new ArrayList<>();
+            List<Integer> owners = new ArrayList<>();
+            templates = new String[rules.size()];
+            for (int i = 0; i < rules.size(); i++) {
+                templates[i] = rules.get(i).template;
+                for (String keyword : rules.get(i).keywords) {
+                    keywords.add(keyword);
+                    owners.add(i);
+                }
+            }
+            matcher = new KeywordMatcher(keywords);
+            ruleOfKeyword = new int[owners.size()];
+            for (int i = 0; i < ruleOfKeyword.length; i++) {
+                ruleOfKeyword[i] = owners.get(i);
+            }
+        }
+    }
+
+    /**
+     * 延迟加载内置规则
+     */
+    private static final class DefaultsHolder {
+        private static final List<Rule> RULES = loadDefaultRules();
+        private static final DescriptionRules INSTANCE = new DescriptionRules(RULES);
+
+        private static List<Rule> loadDefaultRules() {
+            List<Rule> rules = new ArrayList<>();
+            InputStream in = DescriptionRules.class.getResourceAsStream(DEFAULT_RULES_RESOURCE);
+            if (in == null) {
+                throw new IllegalStateException("找不到内置描述规则: " + DEFAULT_RULES_RESOURCE);
+            }
+            try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+                parse(reader, DEFAULT_RULES_RESOURCE, rules);
+            } catch (IOException e) {
+                throw new UncheckedIOException("读取内置描述规则失败: " + DEFAULT_RULES_RESOURCE, e);
+            }
+            return rules;
+        }
+    }
+}
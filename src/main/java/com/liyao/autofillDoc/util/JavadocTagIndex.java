@@ -0,0 +1,302 @@
+package com.liyao.autofillDoc.util;
+
+import com.github.javaparser.javadoc.Javadoc;
+import com.github.javaparser.javadoc.JavadocBlockTag;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Javadoc块标签索引
+ * 为一个Javadoc的块标签建立按（标签类型, 标签参数名）分组的索引，查找、替换和移除标签都不需要扫描整个标签列表，
+ * 也不会在列表中间删除元素；修改完成后调用{@link #writeTo(Javadoc)}按规范顺序一次写回
+ * <p>
+ * 写回顺序为@author、@version、@param、@return、@throws（含@exception），其余标签排在最后；
+ * 设置了参数顺序时@param标签按参数声明顺序排列，其余同类标签保持原有的相对顺序，
+ * 替换的标签保留被替换标签的位置，新增的标签排在同类标签的末尾
+ * <p>
+ * 索引不是线程安全的，只在处理单个Javadoc期间使用
+ */
+public class JavadocTagIndex {
+
+    /**
+     * 按标签分组的索引中表示"任意参数名"的键
+     */
+    private static final String ANY_NAME = "\0";
+
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<String, List<Entry>> byKey = new HashMap<>();
+    private Map<String, Integer> paramOrder = Collections.emptyMap();
+    private int nextPosition;
+
+    /**
+     * 为Javadoc现有的块标签建立索引
+     *
+     * @param javadoc Javadoc对象
+     */
+    public JavadocTagIndex(Javadoc javadoc) {
+        for (JavadocBlockTag tag : javadoc.getBlockTags()) {
+            index(new Entry(tag, nextPosition++));
+        }
+    }
+
+    /**
+     * 查找指定类型和名称的标签，与{@link JavadocUtils#findBlockTag}的结果一致
+     *
+     * @param type 标签类型
+     * @param name 标签参数名（为null时返回该类型的第一个标签）
+     * @return 找到的标签，如果没有找到则返回null
+     */
+    public JavadocBlockTag find(JavadocBlockTag.Type type, String name) {
+        Entry entry = first(key(kind(type, null), name));
+        return entry != null ? entry.tag : null;
+    }
+
+    /**
+     * 查找非标准标签，标签参数名与name或清理尖括号后的name相同即视为匹配，
+     * 与{@link JavadocUtils#findCustomBlockTag}的结果一致
+     *
+     * @param tagName 标签名称（如"exception"）
+     * @param name    标签参数名（可为null）
+     * @return 找到的标签，如果没有找到则返回null
+     */
+    public JavadocBlockTag findCustom(String tagName, String name) {
+        String kind = kind(JavadocBlockTag.Type.UNKNOWN, tagName);
+        Entry entry = first(key(kind, name));
+        if (entry == null && name != null) {
+            String cleanName = JavadocUtils.cleanAngleBrackets(name);
+            if (!cleanName.equals(name)) {
+                entry = first(key(kind, cleanName));
+            }
+        }
+        return entry != null ? entry.tag : null;
+    }
+
+    /**
+     * 统计指定类型的标签数量
+     *
+     * @param type 标签类型
+     * @return 标签数量
+     */
+    public int count(JavadocBlockTag.Type type) {
+        int count = 0;
+        for (Entry entry : entriesOf(key(kind(type, null), null))) {
+            if (!entry.removed) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 添加标签，与{@link Javadoc#addBlockTag(String, String, String)}生成的标签相同
+     *
+     * @param tagName 标签名
+     * @param name    标签参数名，没有参数名时为null
+     * @param content 标签内容
+     * @return 新添加的标签
+     */
+    public JavadocBlockTag add(String tagName, String name, String content) {
+        JavadocBlockTag tag = createTag(tagName, name, content);
+        index(new Entry(tag, nextPosition++));
+        return tag;
+    }
+
+    /**
+     * 用新标签替换现有标签，新标签占据被替换标签的位置
+     *
+     * @param existing 现有标签
+     * @param tagName  新标签名
+     * @param name     新标签参数名，没有参数名时为null
+     * @param content  新标签内容
+     * @return 新标签；现有标签不在索引中时不做替换，返回null
+     */
+    public JavadocBlockTag replace(JavadocBlockTag existing, String tagName, String name, String content) {
+        Entry entry = entryOf(existing);
+        if (entry == null) {
+            return null;
+        }
+        entry.removed = true;
+        JavadocBlockTag tag = createTag(tagName, name, content);
+        index(new Entry(tag, entry.position));
+        return tag;
+    }
+
+    /**
+     * 移除标签
+     *
+     * @param tag 要移除的标签
+     * @return 标签在索引中并被移除时返回true
+     */
+    public boolean remove(JavadocBlockTag tag) {
+        Entry entry = entryOf(tag);
+        if (entry == null) {
+            return false;
+        }
+        entry.removed = true;
+        return true;
+    }
+
+    /**
+     * 移除指定类型的所有标签
+     *
+     * @param type 标签类型
+     * @return 被移除的标签，按原有顺序排列
+     */
+    public List<JavadocBlockTag> removeAll(JavadocBlockTag.Type type) {
+        return removeEntries(entriesOf(key(kind(type, null), null)), tag -> true);
+    }
+
+    /**
+     * 移除满足条件的所有标签
+     *
+     * @param filter 移除条件
+     * @return 被移除的标签，按原有顺序排列
+     */
+    public List<JavadocBlockTag> removeIf(Predicate<JavadocBlockTag> filter) {
+        return removeEntries(entries, filter);
+    }
+
+    /**
+     * 设置@param标签写回时的顺序，不在列表中的参数名排在最后
+     *
+     * @param names 参数名列表，泛型类型参数写作"&lt;T&gt;"
+     */
+    public void setParamOrder(List<String> names) {
+        paramOrder = new HashMap<>(names.size() * 2);
+        for (int i = 0; i < names.size(); i++) {
+            paramOrder.putIfAbsent(names.get(i), i);
+        }
+    }
+
+    /**
+     * 按规范顺序把索引中的标签写回Javadoc，替换Javadoc原有的全部块标签
+     *
+     * @param javadoc Javadoc对象
+     */
+    public void writeTo(Javadoc javadoc) {
+        List<Entry> live = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            if (!entry.removed) {
+                live.add(entry);
+            }
+        }
+        // 同类标签按参数顺序和位置排列，替换的标签与被替换的标签位置相同
+        live.sort(Comparator.comparingInt((Entry entry) -> rank(entry.tag.getType()))
+                .thenComparingInt(this::paramRank)
+                .thenComparingInt(entry -> entry.position));
+        List<JavadocBlockTag> tags = javadoc.getBlockTags();
+        tags.clear();
+        for (Entry entry : live) {
+            tags.add(entry.tag);
+        }
+    }
+
+    private void index(Entry entry) {
+        entries.add(entry);
+        String kind = kind(entry.tag.getType(), entry.tag.getTagName());
+        byKey.computeIfAbsent(key(kind, null), k -> new ArrayList<>(2)).add(entry);
+        if (entry.tag.getName().isPresent()) {
+            byKey.computeIfAbsent(key(kind, entry.tag.getName().get()), k -> new ArrayList<>(1)).add(entry);
+        }
+    }
+
+    private Entry first(String key) {
+        for (Entry entry : entriesOf(key)) {
+            if (!entry.removed) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private Entry entryOf(JavadocBlockTag tag) {
+        String kind = kind(tag.getType(), tag.getTagName());
+        String key = key(kind, tag.getName().orElse(null));
+        for (Entry entry : entriesOf(key)) {
+            if (!entry.removed && entry.tag == tag) {
+                return entry;
+            }
+        }
+        return null;
+    }
+
+    private List<Entry> entriesOf(String key) {
+        List<Entry> found = byKey.get(key);
+        return found != null ? found : Collections.emptyList();
+    }
+
+    private static List<JavadocBlockTag> removeEntries(List<Entry> candidates, Predicate<JavadocBlockTag> filter) {
+        List<JavadocBlockTag> removed = new ArrayList<>();
+        for (Entry entry : candidates) {
+            if (!entry.removed && filter.test(entry.tag)) {
+                entry.removed = true;
+                removed.add(entry.tag);
+            }
+        }
+        return removed;
+    }
+
+    private int paramRank(Entry entry) {
+        if (entry.tag.getType() != JavadocBlockTag.Type.PARAM || !entry.tag.getName().isPresent()) {
+            return 0;
+        }
+        Integer rank = paramOrder.get(entry.tag.getName().get());
+        return rank != null ? rank : Integer.MAX_VALUE;
+    }
+
+    private static JavadocBlockTag createTag(String tagName, String name, String content) {
+        return new JavadocBlockTag(tagName, name == null ? content : name + " " + content);
+    }
+
+    /**
+     * 标签分组：标准标签按类型分组，非标准标签按标签名分组
+     */
+    private static String kind(JavadocBlockTag.Type type, String tagName) {
+        return type == JavadocBlockTag.Type.UNKNOWN ? "@" + tagName : type.name();
+    }
+
+    private static String key(String kind, String name) {
+        return kind + ' ' + (name != null ? name : ANY_NAME);
+    }
+
+    /**
+     * 标签在写回时的排序等级
+     */
+    private static int rank(JavadocBlockTag.Type type) {
+        switch (type) {
+            case AUTHOR:
+                return 0;
+            case VERSION:
+                return 1;
+            case PARAM:
+                return 2;
+            case RETURN:
+                return 3;
+            case THROWS:
+            case EXCEPTION:
+                return 4;
+            default:
+                return 5;
+        }
+    }
+
+    /**
+     * 索引中的一个标签
+     */
+    private static final class Entry {
+        private final JavadocBlockTag tag;
+        private final int position;
+        private boolean removed;
+
+        private Entry(JavadocBlockTag tag, int position) {
+            this.tag = tag;
+            this.position = position;
+        }
+    }
+}
@@ -5,8 +5,6 @@ import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.javadoc.JavadocBlockTag;
 
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Javadoc工具类
@@ -14,9 +12,6 @@ import java.util.regex.Pattern;
  */
 public class JavadocUtils {
 
-    // 用于匹配泛型参数的正则表达式
-    private static final Pattern GENERIC_PATTERN = Pattern.compile("<[^<>]*>");
-
     /**
      * 获取类型关键字
      *
@@ -59,48 +54,24 @@ public class JavadocUtils {
 
     /**
      * 清除字符串中的尖括号
-     * 使用正则表达式安全地移除文本中的尖括号，避免破坏文本结构
+     * 移除文本中所有尖括号及其内容，嵌套的泛型一次即可清除干净，避免破坏文本结构
      *
      * @param text 原始文本
      * @return 清除尖括号后的文本
      */
     public static String cleanAngleBrackets(String text) {
-        if (text == null || text.isEmpty()) {
-            return "";
-        }
-        // 使用正则表达式替换所有尖括号及其内容
-        return GENERIC_PATTERN.matcher(text).replaceAll("");
+        return TypeNameFormatter.eraseTypeArguments(text);
     }
     
     /**
      * 安全处理泛型类型
-     * 保留泛型类型的基本信息，但移除尖括号以避免Javadoc解析问题
+     * 保留泛型类型的完整信息，将尖括号替换为圆括号并移除类型注解，以避免Javadoc解析问题
      *
      * @param type 包含泛型的类型字符串
      * @return 处理后的类型字符串
      */
     public static String safeGenericType(String type) {
-        if (type == null || type.isEmpty()) {
-            return "";
-        }
-        
-        if (!type.contains("<")) {
-            return type;
-        }
-        
-        // 提取基本类型（泛型前的部分）
-        String baseType = type.substring(0, type.indexOf('<'));
-        
-        // 提取泛型参数
-        Matcher matcher = GENERIC_PATTERN.matcher(type);
-        if (matcher.find()) {
-            String genericPart = matcher.group();
-            // 移除尖括号，保留参数
-            String params = genericPart.substring(1, genericPart.length() - 1);
-            return baseType + "(" + params + ")";
-        }
-        
-        return type;
+        return TypeNameFormatter.toDisplayName(type);
     }
 
     /**
@@ -111,6 +82,17 @@ public class JavadocUtils {
      * @return 参数描述
      */
     public static String generateParamDescription(String paramName) {
+        return generateParamDescription(paramName, DescriptionRules.defaults());
+    }
+
+    /**
+     * 使用指定的描述规则生成参数描述
+     *
+     * @param paramName 参数名称
+     * @param rules     描述规则
+     * @return 参数描述
+     */
+    public static String generateParamDescription(String paramName, DescriptionRules rules) {
         if (paramName == null || paramName.isEmpty()) {
             return "参数描述";
         }
@@ -118,21 +100,11 @@ public class JavadocUtils {
         String cleanName = cleanAngleBrackets(paramName);
 
         // 常见命名优化：比如 userId、fileName、inputStream
-        String lowerName = cleanName.toLowerCase();
-
-        if (lowerName.contains("id")) {
-            return "ID 标识参数 " + cleanName;
-        } else if (lowerName.contains("name")) {
-            return "名称参数 " + cleanName;
-        } else if (lowerName.contains("list")) {
-            return "列表参数 " + cleanName;
-        } else if (lowerName.contains("map")) {
-            return "映射参数 " + cleanName;
-        } else if (lowerName.contains("stream")) {
-            return "流参数 " + cleanName;
-        } else if (lowerName.contains("input") || lowerName.contains("output")) {
-            return "输入输出参数 " + cleanName;
-        } else if (lowerName.length() <= 2) {
+        String description = rules.describe(DescriptionRules.Target.PARAM, cleanName, cleanName, null);
+        if (description != null) {
+            return description;
+        }
+        if (cleanName.length() <= 2) {
             return "通用参数 " + cleanName;
         }
 
@@ -147,29 +119,31 @@ public class JavadocUtils {
      * @return 返回值描述
      */
     public static String generateReturnDescription(String returnType) {
+        return generateReturnDescription(returnType, DescriptionRules.defaults());
+    }
+
+    /**
+     * 使用指定的描述规则生成返回值描述
+     *
+     * @param returnType 返回值类型
+     * @param rules      描述规则
+     * @return 返回值描述
+     */
+    public static String generateReturnDescription(String returnType, DescriptionRules rules) {
         if (returnType == null || returnType.isEmpty()) {
             return "返回值描述";
         }
 
-        String processedType = safeGenericType(returnType).toLowerCase();
-
-        // 简单的关键词匹配来生成更语义化的描述
-        if (processedType.contains("string")) {
-            return "返回字符串";
-        } else if (processedType.contains("int") || processedType.contains("long")
-                || processedType.contains("short") || processedType.contains("integer")) {
-            return "返回整数值";
-        } else if (processedType.contains("boolean")) {
-            return "返回布尔值，true 或 false";
-        } else if (processedType.contains("list")) {
-            return "返回列表数据，类型为 " + safeGenericType(returnType);
-        } else if (processedType.contains("map")) {
-            return "返回映射数据，类型为 " + safeGenericType(returnType);
-        } else if (processedType.contains("void")) {
-            return "无返回值";
+        String processedType = safeGenericType(returnType);
+
+        // 简单的关键词匹配来生成更语义化的描述，只匹配外层类型，泛型参数中的类型不参与匹配
+        String description = rules.describe(DescriptionRules.Target.RETURN, cleanAngleBrackets(returnType),
+                processedType, processedType);
+        if (description != null) {
+            return description;
         }
 
-        return "返回值类型为 " + safeGenericType(returnType) + " 的描述";
+        return "返回值类型为 " + processedType + " 的描述";
     }
 
     /**
@@ -180,11 +154,26 @@ public class JavadocUtils {
      * @return 异常描述
      */
     public static String generateThrowsDescription(String exceptionName) {
+        return generateThrowsDescription(exceptionName, DescriptionRules.defaults());
+    }
+
+    /**
+     * 使用指定的描述规则生成异常描述
+     *
+     * @param exceptionName 异常名称
+     * @param rules         描述规则
+     * @return 异常描述
+     */
+    public static String generateThrowsDescription(String exceptionName, DescriptionRules rules) {
         if (exceptionName == null || exceptionName.isEmpty()) {
             return "异常描述";
         }
         // 处理可能包含泛型的异常类型
         String processedName = safeGenericType(exceptionName);
+        String description = rules.describe(DescriptionRules.Target.THROWS, processedName, processedName, processedName);
+        if (description != null) {
+            return description;
+        }
         return "抛出 " + processedName + " 异常的描述";
     }
     
@@ -0,0 +1,48 @@
+package com.liyao.autofillDoc.util;
+
+/**
+ * JSON工具类
+ * 插件只输出结构简单的报告文件，不引入额外的JSON依赖
+ */
+public class JsonUtils {
+
+    /**
+     * 将字符串转换为带引号的JSON字符串
+     *
+     * @param value 原始字符串
+     * @return JSON字符串，value为null时返回null
+     */
+    public static String quote(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
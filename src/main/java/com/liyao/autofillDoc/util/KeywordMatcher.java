@@ -0,0 +1,148 @@
+package com.liyao.autofillDoc.util;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 关键字匹配器
+ * 使用Aho-Corasick自动机一次扫描文本，找出其中出现的序号最小的关键字，匹配耗时只与文本长度有关，与关键字数量无关
+ * 关键字按优先级从高到低排列时，匹配结果就是优先级最高的关键字
+ * 匹配忽略大小写，逐字符转换，不创建新的字符串；创建后不可修改，可以被多个线程共享
+ */
+public class KeywordMatcher {
+
+    /**
+     * 每个状态的转移字符，按升序排列
+     */
+    private final char[][] edgeChars;
+
+    /**
+     * 每个状态的转移目标，与转移字符一一对应
+     */
+    private final int[][] edgeTargets;
+
+    /**
+     * 每个状态的失败转移
+     */
+    private final int[] failure;
+
+    /**
+     * 到达每个状态时匹配的最小关键字序号，已合并失败链上的输出，没有匹配时为-1
+     */
+    private final int[] best;
+
+    /**
+     * 构造函数
+     *
+     * @param keywords 关键字列表，序号即匹配结果，空关键字会被忽略
+     */
+    public KeywordMatcher(List<String> keywords) {
+        List<Map<Character, Integer>> trie = new ArrayList<>();
+        List<Integer> trieOutputs = new ArrayList<>();
+        trie.add(new TreeMap<>());
+        trieOutputs.add(-1);
+        for (int i = 0; i < keywords.size(); i++) {
+            String keyword = keywords.get(i);
+            if (keyword == null || keyword.isEmpty()) {
+                continue;
+            }
+            int state = 0;
+            for (int j = 0; j < keyword.length(); j++) {
+                char c = Character.toLowerCase(keyword.charAt(j));
+                Integer next = trie.get(state).get(c);
+                if (next == null) {
+                    next = trie.size();
+                    trie.add(new TreeMap<>());
+                    trieOutputs.add(-1);
+                    trie.get(state).put(c, next);
+                }
+                state = next;
+            }
+            if (trieOutputs.get(state) < 0) {
+                trieOutputs.set(state, i);
+            }
+        }
+
+        int size = trie.size();
+        edgeChars = new char[size][];
+        edgeTargets = new int[size][];
+        failure = new int[size];
+        best = new int[size];
+        for (int state = 0; state < size; state++) {
+            Map<Character, Integer> edges = trie.get(state);
+            edgeChars[state] = new char[edges.size()];
+            edgeTargets[state] = new int[edges.size()];
+            int k = 0;
+            for (Map.Entry<Character, Integer> edge : edges.entrySet()) {
+                edgeChars[state][k] = edge.getKey();
+                edgeTargets[state][k] = edge.getValue();
+                k++;
+            }
+        }
+
+        // 按广度优先顺序计算失败转移，父状态的失败转移总是先于子状态确定
+        Deque<Integer> queue = new ArrayDeque<>();
+        best[0] = -1;
+        for (int child : edgeTargets[0]) {
+            failure[child] = 0;
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int state = queue.poll();
+            best[state] = min(trieOutputs.get(state), best[failure[state]]);
+            for (int k = 0; k < edgeChars[state].length; k++) {
+                int child = edgeTargets[state][k];
+                int fallback = failure[state];
+                int target = next(fallback, edgeChars[state][k]);
+                while (target < 0 && fallback != 0) {
+                    fallback = failure[fallback];
+                    target = next(fallback, edgeChars[state][k]);
+                }
+                failure[child] = target < 0 ? 0 : target;
+                queue.add(child);
+            }
+        }
+    }
+
+    /**
+     * 扫描文本，返回其中出现的序号最小的关键字
+     *
+     * @param text 文本
+     * @return 关键字序号，没有任何关键字出现时返回-1
+     */
+    public int firstMatch(CharSequence text) {
+        int result = -1;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            int target = next(state, c);
+            while (target < 0 && state != 0) {
+                state = failure[state];
+                target = next(state, c);
+            }
+            state = target < 0 ? 0 : target;
+            result = min(result, best[state]);
+            if (result == 0) {
+                return 0;
+            }
+        }
+        return result;
+    }
+
+    private int next(int state, char c) {
+        int index = Arrays.binarySearch(edgeChars[state], c);
+        return index < 0 ? -1 : edgeTargets[state][index];
+    }
+
+    private static int min(int a, int b) {
+        if (a < 0) {
+            return b;
+        }
+        return b < 0 ? a : Math.min(a, b);
+    }
+}
@@ -0,0 +1,261 @@
+package com.liyao.autofillDoc.util;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * 文件路径匹配器
+ * 根据包含和排除模式判断文件是否需要处理，所有模式在创建时编译一次
+ * <p>
+ * 模式支持两种写法：
+ * <ul>
+ *     <li>正则表达式，与文件的完整路径匹配，例如 {@code .*\/generated\/.*}</li>
+ *     <li>Ant风格的通配符，与文件相对于源代码根目录的路径匹配，例如 <code>**&#47;generated/**</code>、<code>**&#47;*Test.java</code></li>
+ * </ul>
+ * 可以使用"regex:"或"glob:"前缀明确指定写法；没有前缀时，包含"**"或不是合法正则表达式的模式按通配符处理，其余按正则表达式处理
+ * 路径分隔符统一使用"/"
+ */
+public class PathPatternMatcher {
+
+    private static final String GLOB_PREFIX = "glob:";
+    private static final String REGEX_PREFIX = "regex:";
+
+    private final List<PathPattern> excludes;
+    private final List<PathPattern> includes;
+
+    /**
+     * 构造函数
+     *
+     * @param excludePatterns 排除模式列表，可以为null
+     * @param includePatterns 包含模式列表，为空时包含所有文件
+     * @throws IllegalArgumentException 模式格式不正确
+     */
+    public PathPatternMatcher(List<String> excludePatterns, List<String> includePatterns) {
+        this.excludes = compile(excludePatterns);
+        this.includes = compile(includePatterns);
+    }
+
+    /**
+     * 是否没有配置任何模式
+     *
+     * @return 没有任何模式时返回true
+     */
+    public boolean isEmpty() {
+        return excludes.isEmpty() && includes.isEmpty();
+    }
+
+    /**
+     * 判断文件是否应该被排除
+     *
+     * @param root 源代码根目录，通配符相对于该目录匹配
+     * @param file 文件路径
+     * @return 匹配任一排除模式，或配置了包含模式但一个都不匹配时返回true
+     */
+    public boolean isExcluded(Path root, Path file) {
+        if (isEmpty()) {
+            return false;
+        }
+        String fullPath = normalize(file.toString());
+        String relativePath = relativize(root, file);
+        for (PathPattern pattern : excludes) {
+            if (pattern.matches(fullPath, relativePath)) {
+                return true;
+            }
+        }
+        if (includes.isEmpty()) {
+            return false;
+        }
+        for (PathPattern pattern : includes) {
+            if (pattern.matches(fullPath, relativePath)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 判断目录下的所有文件是否都会被排除，用于在遍历时跳过整个目录
+     * 只有能够确定目录下任意文件都匹配的排除模式才会生效，例如以"/**"结尾的通配符和以".*"结尾的正则表达式
+     *
+     * @param root      源代码根目录
+     * @param directory 目录路径
+     * @return 目录可以整体跳过时返回true
+     */
+    public boolean isExcludedDirectory(Path root, Path directory) {
+        if (excludes.isEmpty()) {
+            return false;
+        }
+        String fullPath = normalize(directory.toString()) + "/";
+        String relativePath = relativize(root, directory);
+        for (PathPattern pattern : excludes) {
+            if (pattern.matchesDirectory(fullPath, relativePath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 编译模式列表
+     *
+     * @param patterns 模式列表
+     * @return 编译后的模式
+     * @throws IllegalArgumentException 模式格式不正确
+     */
+    private static List<PathPattern> compile(List<String> patterns) {
+        if (patterns == null || patterns.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<PathPattern> compiled = new ArrayList<>(patterns.size());
+        for (String pattern : patterns) {
+            if (pattern == null || pattern.trim().isEmpty()) {
+                continue;
+            }
+            String value = pattern.trim();
+            if (value.startsWith(GLOB_PREFIX)) {
+                compiled.add(PathPattern.glob(value.substring(GLOB_PREFIX.length())));
+            } else if (value.startsWith(REGEX_PREFIX)) {
+                compiled.add(PathPattern.regex(value.substring(REGEX_PREFIX.length())));
+            } else if (value.contains("**")) {
+                compiled.add(PathPattern.glob(value));
+            } else {
+                try {
+                    compiled.add(PathPattern.regex(value));
+                } catch (IllegalArgumentException e) {
+                    compiled.add(PathPattern.glob(value));
+                }
+            }
+        }
+        return compiled;
+    }
+
+    private static String relativize(Path root, Path file) {
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        if (root != null) {
+            Path absoluteRoot = root.toAbsolutePath().normalize();
+            if (absoluteFile.startsWith(absoluteRoot)) {
+                return normalize(absoluteRoot.relativize(absoluteFile).toString());
+            }
+        }
+        return normalize(absoluteFile.toString());
+    }
+
+    private static String normalize(String path) {
+        return path.replace('\\', '/');
+    }
+
+    /**
+     * 将Ant风格的通配符转换为正则表达式
+     * "**"匹配任意层级的目录（包括零层），"*"匹配除"/"以外的任意字符，"?"匹配除"/"以外的单个字符
+     *
+     * @param glob 通配符
+     * @return 正则表达式
+     */
+    private static String globToRegex(String glob) {
+        String value = normalize(glob);
+        if (value.endsWith("/")) {
+            value += "**";
+        }
+        StringBuilder regex = new StringBuilder(value.length() * 2);
+        int i = 0;
+        while (i < value.length()) {
+            char c = value.charAt(i);
+            if (c == '*' && i + 1 < value.length() && value.charAt(i + 1) == '*') {
+                boolean slashAfter = i + 2 < value.length() && value.charAt(i + 2) == '/';
+                if (slashAfter) {
+                    // "**/"匹配零个或多个目录
+                    regex.append("(?:.*/)?");
+                    i += 3;
+                } else {
+                    regex.append(".*");
+                    i += 2;
+                }
+            } else if (c == '*') {
+                regex.append("[^/]*");
+                i++;
+            } else if (c == '?') {
+                regex.append("[^/]");
+                i++;
+            } else {
+                if ("\\.[]{}()<>+-=!^$|".indexOf(c) >= 0) {
+                    regex.append('\\');
+                }
+                regex.append(c);
+                i++;
+            }
+        }
+        return regex.toString();
+    }
+
+    /**
+     * 单个编译后的模式
+     */
+    private static final class PathPattern {
+
+        /**
+         * 是否为通配符模式，通配符与相对路径匹配，正则表达式与完整路径匹配
+         */
+        private final boolean glob;
+        private final Pattern pattern;
+
+        /**
+         * 可以整体排除的目录模式，不能用于目录判断时为null
+         */
+        private final Pattern directoryPattern;
+
+        private PathPattern(boolean glob, Pattern pattern, Pattern directoryPattern) {
+            this.glob = glob;
+            this.pattern = pattern;
+            this.directoryPattern = directoryPattern;
+        }
+
+        private static PathPattern glob(String glob) {
+            String value = normalize(glob);
+            if (value.endsWith("/")) {
+                value += "**";
+            }
+            Pattern directoryPattern = null;
+            if (value.endsWith("/**")) {
+                directoryPattern = Pattern.compile(globToRegex(value.substring(0, value.length() - 3)));
+            } else if ("**".equals(value)) {
+                directoryPattern = Pattern.compile(".*");
+            }
+            return new PathPattern(true, Pattern.compile(globToRegex(value)), directoryPattern);
+        }
+
+        private static PathPattern regex(String regex) {
+            Pattern pattern;
+            try {
+                pattern = Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("无效的文件匹配模式: " + regex, e);
+            }
+            // 以顶层".*"结尾的正则表达式匹配目录路径后，也必然匹配目录下的任意文件
+            boolean prunable = regex.endsWith(".*") && !regex.contains("|") && !isEscaped(regex, regex.length() - 2);
+            return new PathPattern(false, pattern, prunable ? pattern : null);
+        }
+
+        private static boolean isEscaped(String regex, int index) {
+            int backslashes = 0;
+            for (int i = index - 1; i >= 0 && regex.charAt(i) == '\\'; i--) {
+                backslashes++;
+            }
+            return backslashes % 2 == 1;
+        }
+
+        private boolean matches(String fullPath, String relativePath) {
+            return pattern.matcher(glob ? relativePath : fullPath).matches();
+        }
+
+        private boolean matchesDirectory(String fullPath, String relativePath) {
+            if (directoryPattern == null) {
+                return false;
+            }
+            return directoryPattern.matcher(glob ? relativePath : fullPath).matches();
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.liyao.autofillDoc.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * 插件版本
+ * 版本号在构建时通过资源过滤写入version.properties，插件jar和命令行jar中都能读取到
+ */
+public final class PluginVersion {
+
+    private static final String VERSION_RESOURCE = "/autofill-javadoc/version.properties";
+
+    private PluginVersion() {
+    }
+
+    /**
+     * 获取插件版本
+     *
+     * @return 插件版本；未经Maven构建（例如直接在IDE中编译运行）而无法确定时返回null
+     */
+    public static String get() {
+        return Holder.VERSION;
+    }
+
+    /**
+     * 延迟加载版本号
+     */
+    private static final class Holder {
+        private static final String VERSION = load();
+
+        private static String load() {
+            try (InputStream in = PluginVersion.class.getResourceAsStream(VERSION_RESOURCE)) {
+                if (in != null) {
+                    Properties properties = new Properties();
+                    properties.load(in);
+                    String version = properties.getProperty("version", "").trim();
+                    // 资源没有经过过滤时仍是占位符
+                    if (!version.isEmpty() && !version.startsWith("${")) {
+                        return version;
+                    }
+                }
+            } catch (IOException e) {
+                // 读取失败时按版本未知处理
+            }
+            return PluginVersion.class.getPackage().getImplementationVersion();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.liyao.autofillDoc.util;
+
+/**
+ * 类型名称格式化工具
+ * 单次扫描处理类型字符串中的泛型参数，支持任意层级的嵌套、数组、通配符和类型注解，不使用正则表达式
+ */
+public class TypeNameFormatter {
+
+    /**
+     * 移除文本中所有尖括号及其中的内容，支持任意层级的嵌套
+     * 例如 {@code Map<String, List<Foo>>} 处理后为 {@code Map}；没有闭合的"<"原样保留
+     *
+     * @param text 原始文本
+     * @return 移除尖括号后的文本，text为null时返回空字符串
+     */
+    public static String eraseTypeArguments(String text) {
+        if (text == null || text.isEmpty()) {
+            return "";
+        }
+        int first = text.indexOf('<');
+        if (first < 0) {
+            return text;
+        }
+        StringBuilder result = new StringBuilder(text.length());
+        result.append(text, 0, first);
+        // 记录每个尚未闭合的"<"在结果中的位置，遇到">"时截断到对应位置
+        int[] open = new int[8];
+        int depth = 0;
+        for (int i = first; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '<') {
+                if (depth == open.length) {
+                    open = grow(open);
+                }
+                open[depth++] = result.length();
+                result.append(c);
+            } else if (c == '>' && depth > 0) {
+                result.setLength(open[--depth]);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * 生成适合写入Javadoc的类型名称
+     * 泛型参数的尖括号替换为圆括号，并移除类型注解，其余部分（包括数组和通配符）保持不变
+     * 例如 {@code @NonNull Map<String, List<? extends Foo>>[]} 处理后为 {@code Map(String, List(? extends Foo))[]}
+     *
+     * @param type 类型字符串
+     * @return 格式化后的类型名称，type为null时返回空字符串
+     */
+    public static String toDisplayName(String type) {
+        if (type == null || type.isEmpty()) {
+            return "";
+        }
+        if (type.indexOf('<') < 0 && type.indexOf('@') < 0) {
+            return type;
+        }
+        StringBuilder result = new StringBuilder(type.length());
+        int[] open = new int[8];
+        int depth = 0;
+        int i = 0;
+        while (i < type.length()) {
+            char c = type.charAt(i);
+            if (c == '@' && isAnnotationStart(result)) {
+                i = skipAnnotation(type, i);
+            } else if (c == '<') {
+                if (depth == open.length) {
+                    open = grow(open);
+                }
+                open[depth++] = result.length();
+                result.append('(');
+                i++;
+            } else if (c == '>' && depth > 0) {
+                depth--;
+                result.append(')');
+                i++;
+            } else {
+                result.append(c);
+                i++;
+            }
+        }
+        // 没有闭合的"<"恢复原样
+        while (depth > 0) {
+            result.setCharAt(open[--depth], '<');
+        }
+        return result.toString();
+    }
+
+    /**
+     * "@"前面不是标识符字符时才是注解的开始
+     *
+     * @param result 已输出的内容
+     * @return 是否为注解的开始
+     */
+    private static boolean isAnnotationStart(StringBuilder result) {
+        return result.length() == 0 || !Character.isJavaIdentifierPart(result.charAt(result.length() - 1));
+    }
+
+    /**
+     * 跳过注解：限定名、可选的括号参数以及其后的空白
+     *
+     * @param type  类型字符串
+     * @param start "@"的位置
+     * @return 注解之后的位置
+     */
+    private static int skipAnnotation(String type, int start) {
+        int i = start + 1;
+        while (i < type.length() && (Character.isJavaIdentifierPart(type.charAt(i)) || type.charAt(i) == '.')) {
+            i++;
+        }
+        int afterName = i;
+        while (i < type.length() && Character.isWhitespace(type.charAt(i))) {
+            i++;
+        }
+        if (i < type.length() && type.charAt(i) == '(') {
+            int parens = 0;
+            do {
+                char c = type.charAt(i);
+                if (c == '(') {
+                    parens++;
+                } else if (c == ')') {
+                    parens--;
+                }
+                i++;
+            } while (i < type.length() && parens > 0);
+        } else {
+            i = afterName;
+        }
+        while (i < type.length() && Character.isWhitespace(type.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int[] grow(int[] array) {
+        int[] larger = new int[array.length * 2];
+        System.arraycopy(array, 0, larger, 0, array.length);
+        return larger;
+    }
+}